@@ -0,0 +1,103 @@
+package com.example.investmenttracker.config;
+
+import com.example.investmenttracker.service.PortfolioSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-off copy of snapshot payloads from the old {@code portfolio_json} text
+ * column into the compressed payload table.
+ *
+ * Runs once all beans exist, before the web server and the schedulers
+ * start, so no request or snapshot sees a half-migrated table. Rows are
+ * copied in id order in batches of {@value #BATCH_SIZE}, each batch in its
+ * own transaction, so a large table is neither loaded at once nor held in
+ * one transaction; a restart picks up the rows that still have no payload.
+ * Schema changes are left to the scripts in {@code db/migration}:
+ * {@code create_snapshot_payloads.sql} before the upgrade and
+ * {@code drop_snapshot_portfolio_json.sql} once this has logged that the
+ * copy is complete. Without the old column it does nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "app.persistence.type", havingValue = "jpa", matchIfMissing = true)
+public class SnapshotPayloadMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotPayloadMigration.class);
+    private static final String TABLE = "portfolio_snapshots";
+    private static final String LEGACY_COLUMN = "portfolio_json";
+    private static final int BATCH_SIZE = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PortfolioSnapshotService snapshotService;
+
+    public SnapshotPayloadMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            PortfolioSnapshotService snapshotService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotService = snapshotService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!hasLegacyColumn()) {
+            return;
+        }
+        long lastId = 0;
+        int moved = 0;
+        while (true) {
+            long after = lastId;
+            List<Map<String, Object>> rows = transactionTemplate.execute(status -> copyBatch(after));
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            moved += rows.size();
+            lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+        }
+        logger.info("Moved {} snapshot payload(s) to compressed storage; the {} column can now be dropped"
+                + " with db/migration/drop_snapshot_portfolio_json.sql", moved, LEGACY_COLUMN);
+    }
+
+    private List<Map<String, Object>> copyBatch(long afterId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "select s.id, s." + LEGACY_COLUMN + " from " + TABLE + " s"
+                        + " where s.id > ? and s." + LEGACY_COLUMN + " is not null and not exists"
+                        + " (select 1 from portfolio_snapshot_payloads p where p.snapshot_id = s.id)"
+                        + " order by s.id limit " + BATCH_SIZE,
+                afterId);
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            snapshotService.migrateLegacyPayload(id, (String) row.get(LEGACY_COLUMN));
+        }
+        return rows;
+    }
+
+    private boolean hasLegacyColumn() {
+        Boolean found = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Unquoted identifiers are upper case in H2 and lower case in PostgreSQL
+            for (String table : List.of(TABLE, TABLE.toUpperCase())) {
+                for (String column : List.of(LEGACY_COLUMN, LEGACY_COLUMN.toUpperCase())) {
+                    try (ResultSet columns = metaData.getColumns(null, null, table, column)) {
+                        if (columns.next()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.investmenttracker.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Reactor Netty connection layer for Yahoo Finance, tuned from
+ * {@link YahooFinanceProperties}.
+ *
+ * Pool and client metrics are enabled, so connection reuse can be verified
+ * under /actuator/metrics: reactor.netty.connection.provider.* (active, idle,
+ * pending connections and pending acquire time, tagged with pool name
+ * "yahoo-finance") and reactor.netty.http.client.*.
+ */
+@Configuration
+public class YahooFinanceHttpClientConfig {
+
+    public static final String YAHOO_FINANCE_BASE_URL = "https://query1.finance.yahoo.com";
+    private static final String POOL_NAME = "yahoo-finance";
+    private static final String CHART_URI_TAG = "/v8/finance/chart/{symbol}";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider yahooConnectionProvider(YahooFinanceProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getHttpMaxConnections())
+                .pendingAcquireMaxCount(properties.getHttpPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(properties.getHttpPendingAcquireTimeoutMillis()))
+                .maxIdleTime(Duration.ofSeconds(properties.getHttpMaxIdleTimeSeconds()))
+                .maxLifeTime(Duration.ofSeconds(properties.getHttpMaxLifeTimeSeconds()))
+                .evictInBackground(Duration.ofSeconds(properties.getHttpEvictionIntervalSeconds()))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient yahooWebClient(WebClient.Builder webClientBuilder, ConnectionProvider yahooConnectionProvider,
+            YahooFinanceProperties properties) {
+        HttpProtocol[] protocols = properties.isHttp2Enabled()
+                ? new HttpProtocol[] { HttpProtocol.H2, HttpProtocol.HTTP11 }
+                : new HttpProtocol[] { HttpProtocol.HTTP11 };
+
+        HttpClient httpClient = HttpClient.create(yahooConnectionProvider)
+                .protocol(protocols)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getHttpConnectTimeoutMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(properties.getHttpReadTimeoutMillis()))
+                .compress(properties.isHttpCompression())
+                // One URI tag for all symbols keeps metric cardinality bounded
+                .metrics(true, uri -> CHART_URI_TAG);
+
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(properties.getHttpMaxResponseBytes()))
+                .build();
+
+        return webClientBuilder.clone()
+                .baseUrl(YAHOO_FINANCE_BASE_URL)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .exchangeStrategies(strategies)
+                .build();
+    }
+}
@@ -3,6 +3,9 @@ package com.example.investmenttracker.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Component
 @ConfigurationProperties(prefix = "yahoo.finance")
 public class YahooFinanceProperties {
@@ -27,6 +30,161 @@ public class YahooFinanceProperties {
      */
     private String defaultEuropeanSuffix = ".DE";
 
+    /**
+     * Initial backoff in seconds before a failing ticker is retried
+     */
+    private int failureBackoffInitialSeconds = 30;
+
+    /**
+     * Upper bound in seconds for the exponential per-ticker failure backoff
+     */
+    private int failureBackoffMaxSeconds = 1800;
+
+    /**
+     * Consecutive upstream failures that open the circuit breaker
+     */
+    private int circuitBreakerFailureThreshold = 5;
+
+    /**
+     * Time in seconds the circuit breaker stays open before a trial call
+     */
+    private int circuitBreakerOpenSeconds = 60;
+
+    /**
+     * Sustained outbound request rate to Yahoo Finance, shared by all users
+     */
+    private double rateLimitPerSecond = 2.0;
+
+    /**
+     * Number of requests that may be sent back-to-back before throttling
+     */
+    private int rateLimitBurst = 5;
+
+    /**
+     * Maximum time in milliseconds an interactive request waits for its turn
+     */
+    private long rateLimitInteractiveMaxWaitMillis = 3000;
+
+    /**
+     * Maximum time in milliseconds a bulk refresh request waits for its turn
+     */
+    private long rateLimitBulkMaxWaitMillis = 30000;
+
+    /**
+     * Yahoo range of daily history to keep per ticker (e.g. 1y, 5y, 10y, max)
+     */
+    private String historyRange = "5y";
+
+    /**
+     * Yahoo bar interval for price history (e.g. 1d, 1wk)
+     */
+    private String historyInterval = "1d";
+
+    /**
+     * Per-ticker overrides of the history range, keyed by ticker
+     */
+    private Map<String, String> historyRanges = new HashMap<>();
+
+    /**
+     * Per-ticker overrides of the history interval, keyed by ticker
+     */
+    private Map<String, String> historyIntervals = new HashMap<>();
+
+    /**
+     * Cron expression for the price history ingestion job ("-" disables it)
+     */
+    private String historyIngestionCron = "0 30 22 * * MON-FRI";
+
+    /**
+     * Maximum pooled connections to Yahoo Finance
+     */
+    private int httpMaxConnections = 16;
+
+    /**
+     * Maximum requests queued for a pooled connection
+     */
+    private int httpPendingAcquireMaxCount = 256;
+
+    /**
+     * Time in milliseconds a request waits for a pooled connection
+     */
+    private long httpPendingAcquireTimeoutMillis = 5000;
+
+    /**
+     * Idle time in seconds after which a pooled connection is closed
+     */
+    private int httpMaxIdleTimeSeconds = 30;
+
+    /**
+     * Maximum lifetime in seconds of a pooled connection
+     */
+    private int httpMaxLifeTimeSeconds = 300;
+
+    /**
+     * Interval in seconds of the background eviction of idle or expired connections
+     */
+    private int httpEvictionIntervalSeconds = 30;
+
+    /**
+     * TCP connect timeout in milliseconds
+     */
+    private int httpConnectTimeoutMillis = 5000;
+
+    /**
+     * Time in milliseconds to wait for the response after the request was sent
+     */
+    private long httpReadTimeoutMillis = 8000;
+
+    /**
+     * Request gzip/deflate compressed responses
+     */
+    private boolean httpCompression = true;
+
+    /**
+     * Negotiate HTTP/2 (falls back to HTTP/1.1 if the server does not support it)
+     */
+    private boolean http2Enabled = false;
+
+    /**
+     * Maximum response body size in bytes buffered in memory
+     */
+    private int httpMaxResponseBytes = 4 * 1024 * 1024;
+
+    /**
+     * Price source: "yahoo" for the live API, "replay" for recorded responses
+     */
+    private String provider = "yahoo";
+
+    /**
+     * Interval in minutes between refreshes of the cached FX rates
+     */
+    private int fxRefreshMinutes = 60;
+
+    /**
+     * Directory holding recorded chart responses (one TICKER.json per ticker)
+     */
+    private String replayDirectory = "./replay";
+
+    /**
+     * Simulated latency in milliseconds added to every replayed response
+     */
+    private long replayLatencyMillis = 0;
+
+    /**
+     * Random extra latency in milliseconds (0 to this value) per replayed response
+     */
+    private long replayLatencyJitterMillis = 0;
+
+    /**
+     * Fraction of replayed calls (0.0 to 1.0) that fail with a simulated 503
+     */
+    private double replayErrorRate = 0.0;
+
+    /**
+     * Random seed for replay jitter and error injection, so runs are repeatable
+     */
+    private long replaySeed = 42L;
+
     public int getTimeout() {
         return timeout;
     }
@@ -58,4 +216,252 @@ public class YahooFinanceProperties {
     public void setDefaultEuropeanSuffix(String defaultEuropeanSuffix) {
         this.defaultEuropeanSuffix = defaultEuropeanSuffix;
     }
+
+    public int getFailureBackoffInitialSeconds() {
+        return failureBackoffInitialSeconds;
+    }
+
+    public void setFailureBackoffInitialSeconds(int failureBackoffInitialSeconds) {
+        this.failureBackoffInitialSeconds = failureBackoffInitialSeconds;
+    }
+
+    public int getFailureBackoffMaxSeconds() {
+        return failureBackoffMaxSeconds;
+    }
+
+    public void setFailureBackoffMaxSeconds(int failureBackoffMaxSeconds) {
+        this.failureBackoffMaxSeconds = failureBackoffMaxSeconds;
+    }
+
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    public void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    }
+
+    public int getCircuitBreakerOpenSeconds() {
+        return circuitBreakerOpenSeconds;
+    }
+
+    public void setCircuitBreakerOpenSeconds(int circuitBreakerOpenSeconds) {
+        this.circuitBreakerOpenSeconds = circuitBreakerOpenSeconds;
+    }
+
+    public double getRateLimitPerSecond() {
+        return rateLimitPerSecond;
+    }
+
+    public void setRateLimitPerSecond(double rateLimitPerSecond) {
+        this.rateLimitPerSecond = rateLimitPerSecond;
+    }
+
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public void setRateLimitBurst(int rateLimitBurst) {
+        this.rateLimitBurst = rateLimitBurst;
+    }
+
+    public long getRateLimitInteractiveMaxWaitMillis() {
+        return rateLimitInteractiveMaxWaitMillis;
+    }
+
+    public void setRateLimitInteractiveMaxWaitMillis(long rateLimitInteractiveMaxWaitMillis) {
+        this.rateLimitInteractiveMaxWaitMillis = rateLimitInteractiveMaxWaitMillis;
+    }
+
+    public long getRateLimitBulkMaxWaitMillis() {
+        return rateLimitBulkMaxWaitMillis;
+    }
+
+    public void setRateLimitBulkMaxWaitMillis(long rateLimitBulkMaxWaitMillis) {
+        this.rateLimitBulkMaxWaitMillis = rateLimitBulkMaxWaitMillis;
+    }
+
+    public String getHistoryRange() {
+        return historyRange;
+    }
+
+    public void setHistoryRange(String historyRange) {
+        this.historyRange = historyRange;
+    }
+
+    public String getHistoryInterval() {
+        return historyInterval;
+    }
+
+    public void setHistoryInterval(String historyInterval) {
+        this.historyInterval = historyInterval;
+    }
+
+    public Map<String, String> getHistoryRanges() {
+        return historyRanges;
+    }
+
+    public void setHistoryRanges(Map<String, String> historyRanges) {
+        this.historyRanges = historyRanges;
+    }
+
+    public Map<String, String> getHistoryIntervals() {
+        return historyIntervals;
+    }
+
+    public void setHistoryIntervals(Map<String, String> historyIntervals) {
+        this.historyIntervals = historyIntervals;
+    }
+
+    public String getHistoryIngestionCron() {
+        return historyIngestionCron;
+    }
+
+    public void setHistoryIngestionCron(String historyIngestionCron) {
+        this.historyIngestionCron = historyIngestionCron;
+    }
+
+    public int getHttpMaxConnections() {
+        return httpMaxConnections;
+    }
+
+    public void setHttpMaxConnections(int httpMaxConnections) {
+        this.httpMaxConnections = httpMaxConnections;
+    }
+
+    public int getHttpPendingAcquireMaxCount() {
+        return httpPendingAcquireMaxCount;
+    }
+
+    public void setHttpPendingAcquireMaxCount(int httpPendingAcquireMaxCount) {
+        this.httpPendingAcquireMaxCount = httpPendingAcquireMaxCount;
+    }
+
+    public long getHttpPendingAcquireTimeoutMillis() {
+        return httpPendingAcquireTimeoutMillis;
+    }
+
+    public void setHttpPendingAcquireTimeoutMillis(long httpPendingAcquireTimeoutMillis) {
+        this.httpPendingAcquireTimeoutMillis = httpPendingAcquireTimeoutMillis;
+    }
+
+    public int getHttpMaxIdleTimeSeconds() {
+        return httpMaxIdleTimeSeconds;
+    }
+
+    public void setHttpMaxIdleTimeSeconds(int httpMaxIdleTimeSeconds) {
+        this.httpMaxIdleTimeSeconds = httpMaxIdleTimeSeconds;
+    }
+
+    public int getHttpMaxLifeTimeSeconds() {
+        return httpMaxLifeTimeSeconds;
+    }
+
+    public void setHttpMaxLifeTimeSeconds(int httpMaxLifeTimeSeconds) {
+        this.httpMaxLifeTimeSeconds = httpMaxLifeTimeSeconds;
+    }
+
+    public int getHttpEvictionIntervalSeconds() {
+        return httpEvictionIntervalSeconds;
+    }
+
+    public void setHttpEvictionIntervalSeconds(int httpEvictionIntervalSeconds) {
+        this.httpEvictionIntervalSeconds = httpEvictionIntervalSeconds;
+    }
+
+    public int getHttpConnectTimeoutMillis() {
+        return httpConnectTimeoutMillis;
+    }
+
+    public void setHttpConnectTimeoutMillis(int httpConnectTimeoutMillis) {
+        this.httpConnectTimeoutMillis = httpConnectTimeoutMillis;
+    }
+
+    public long getHttpReadTimeoutMillis() {
+        return httpReadTimeoutMillis;
+    }
+
+    public void setHttpReadTimeoutMillis(long httpReadTimeoutMillis) {
+        this.httpReadTimeoutMillis = httpReadTimeoutMillis;
+    }
+
+    public boolean isHttpCompression() {
+        return httpCompression;
+    }
+
+    public void setHttpCompression(boolean httpCompression) {
+        this.httpCompression = httpCompression;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public void setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
+    public int getHttpMaxResponseBytes() {
+        return httpMaxResponseBytes;
+    }
+
+    public void setHttpMaxResponseBytes(int httpMaxResponseBytes) {
+        this.httpMaxResponseBytes = httpMaxResponseBytes;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public String getReplayDirectory() {
+        return replayDirectory;
+    }
+
+    public void setReplayDirectory(String replayDirectory) {
+        this.replayDirectory = replayDirectory;
+    }
+
+    public long getReplayLatencyMillis() {
+        return replayLatencyMillis;
+    }
+
+    public void setReplayLatencyMillis(long replayLatencyMillis) {
+        this.replayLatencyMillis = replayLatencyMillis;
+    }
+
+    public long getReplayLatencyJitterMillis() {
+        return replayLatencyJitterMillis;
+    }
+
+    public void setReplayLatencyJitterMillis(long replayLatencyJitterMillis) {
+        this.replayLatencyJitterMillis = replayLatencyJitterMillis;
+    }
+
+    public double getReplayErrorRate() {
+        return replayErrorRate;
+    }
+
+    public void setReplayErrorRate(double replayErrorRate) {
+        this.replayErrorRate = replayErrorRate;
+    }
+
+    public long getReplaySeed() {
+        return replaySeed;
+    }
+
+    public void setReplaySeed(long replaySeed) {
+        this.replaySeed = replaySeed;
+    }
+
+    public int getFxRefreshMinutes() {
+        return fxRefreshMinutes;
+    }
+
+    public void setFxRefreshMinutes(int fxRefreshMinutes) {
+        this.fxRefreshMinutes = fxRefreshMinutes;
+    }
 }
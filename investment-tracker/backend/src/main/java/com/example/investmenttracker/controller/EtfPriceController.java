@@ -1,15 +1,32 @@
 package com.example.investmenttracker.controller;
 
 import com.example.investmenttracker.dto.EtfPriceResponse;
+import com.example.investmenttracker.exception.PriceUnavailableException;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfPriceHistory;
+import com.example.investmenttracker.model.User;
 import com.example.investmenttracker.service.EtfPriceService;
+import com.example.investmenttracker.service.EtfService;
+import com.example.investmenttracker.service.FxRateService;
+import com.example.investmenttracker.service.PriceHistoryService;
+import com.example.investmenttracker.service.PriceUpdatePublisher;
+import com.example.investmenttracker.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/etf-prices")
@@ -18,17 +35,50 @@ public class EtfPriceController {
     private static final Logger logger = LoggerFactory.getLogger(EtfPriceController.class);
 
     private final EtfPriceService etfPriceService;
+    private final PriceHistoryService priceHistoryService;
+    private final PriceUpdatePublisher priceUpdatePublisher;
+    private final EtfService etfService;
+    private final FxRateService fxRateService;
+    private final UserService userService;
 
-    public EtfPriceController(EtfPriceService etfPriceService) {
+    public EtfPriceController(EtfPriceService etfPriceService, PriceHistoryService priceHistoryService,
+            PriceUpdatePublisher priceUpdatePublisher, EtfService etfService, FxRateService fxRateService,
+            UserService userService) {
         this.etfPriceService = etfPriceService;
+        this.priceHistoryService = priceHistoryService;
+        this.priceUpdatePublisher = priceUpdatePublisher;
+        this.etfService = etfService;
+        this.fxRateService = fxRateService;
+        this.userService = userService;
+    }
+
+    /**
+     * Server-Sent Events stream of price changes for the tickers the user
+     * holds at connection time, in the user's base currency as of connection
+     * time. Clients reconnect to pick up new holdings or a new currency.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<EtfPriceResponse>> streamPrices(Authentication authentication) {
+        List<String> tickers = etfService.getAllEtfs(authentication.getName()).stream()
+                .map(Etf::getTicker)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        String baseCurrency = baseCurrency(authentication);
+        logger.debug("Opening price stream for {} ticker(s) in {}", tickers.size(), baseCurrency);
+        return priceUpdatePublisher.subscribe(tickers, price -> fxRateService.toBaseCurrency(price, baseCurrency));
     }
 
     @GetMapping("/{ticker}")
-    public ResponseEntity<?> getPrice(@PathVariable String ticker) {
+    public ResponseEntity<?> getPrice(@PathVariable String ticker, Authentication authentication) {
         try {
             logger.info("GET request for price of ticker: {}", ticker);
             EtfPriceResponse price = etfPriceService.getPrice(ticker);
-            return ResponseEntity.ok(price);
+            return ResponseEntity.ok(fxRateService.toBaseCurrency(price, baseCurrency(authentication)));
+        } catch (PriceUnavailableException e) {
+            logger.warn("Price for {} unavailable: {}", ticker, e.getCode());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getCode() + ": " + ticker));
         } catch (Exception e) {
             logger.error("Error getting price for {}: {}", ticker, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -36,12 +86,21 @@ public class EtfPriceController {
         }
     }
 
+    @GetMapping("/{ticker}/history")
+    public ResponseEntity<List<EtfPriceHistory>> getPriceHistory(@PathVariable String ticker,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        return ResponseEntity.ok(priceHistoryService.getHistory(ticker, start, end));
+    }
+
     @GetMapping
-    public ResponseEntity<?> getAllPrices() {
+    public ResponseEntity<?> getAllPrices(Authentication authentication) {
         try {
             logger.info("GET request for all prices");
             List<EtfPriceResponse> prices = etfPriceService.getAllPrices();
-            return ResponseEntity.ok(prices);
+            return ResponseEntity.ok(fxRateService.toBaseCurrency(prices, baseCurrency(authentication)));
         } catch (Exception e) {
             logger.error("Error getting all prices: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -50,11 +109,15 @@ public class EtfPriceController {
     }
 
     @PostMapping("/refresh/{ticker}")
-    public ResponseEntity<?> refreshPrice(@PathVariable String ticker) {
+    public ResponseEntity<?> refreshPrice(@PathVariable String ticker, Authentication authentication) {
         try {
             logger.info("POST request to refresh price for ticker: {}", ticker);
             EtfPriceResponse price = etfPriceService.refreshPrice(ticker);
-            return ResponseEntity.ok(price);
+            return ResponseEntity.ok(fxRateService.toBaseCurrency(price, baseCurrency(authentication)));
+        } catch (PriceUnavailableException e) {
+            logger.warn("Price for {} unavailable: {}", ticker, e.getCode());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getCode() + ": " + ticker));
         } catch (Exception e) {
             logger.error("Error refreshing price for {}: {}", ticker, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -63,10 +126,11 @@ public class EtfPriceController {
     }
 
     @PostMapping("/refresh")
-    public ResponseEntity<?> refreshAllPrices(@RequestBody List<String> tickers) {
+    public ResponseEntity<?> refreshAllPrices(@RequestBody List<String> tickers, Authentication authentication) {
         try {
             logger.info("POST request to refresh prices for {} tickers", tickers.size());
-            List<EtfPriceResponse> prices = etfPriceService.refreshAllPrices(tickers);
+            List<EtfPriceResponse> prices = fxRateService.toBaseCurrency(etfPriceService.refreshAllPrices(tickers),
+                    baseCurrency(authentication));
 
             if (prices.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
@@ -89,4 +153,10 @@ public class EtfPriceController {
                     .body(Map.of("error", "price.fetch.all.failed"));
         }
     }
+
+    private String baseCurrency(Authentication authentication) {
+        return authentication != null
+                ? userService.getBaseCurrency(authentication.getName())
+                : User.DEFAULT_BASE_CURRENCY;
+    }
 }
@@ -0,0 +1,89 @@
+package com.example.investmenttracker.controller;
+
+import com.example.investmenttracker.dto.ExitTaxProjection;
+import com.example.investmenttracker.dto.PerformanceReport;
+import com.example.investmenttracker.dto.PortfolioHoldings;
+import com.example.investmenttracker.dto.PortfolioSummary;
+import com.example.investmenttracker.dto.PortfolioTimeseries;
+import com.example.investmenttracker.service.ExitTaxService;
+import com.example.investmenttracker.service.HoldingsService;
+import com.example.investmenttracker.service.PerformanceService;
+import com.example.investmenttracker.service.PortfolioSummaryService;
+import com.example.investmenttracker.service.PortfolioTimeseriesService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/portfolio")
+public class PortfolioController {
+
+    private final HoldingsService holdingsService;
+    private final PortfolioSummaryService summaryService;
+    private final ExitTaxService exitTaxService;
+    private final PerformanceService performanceService;
+    private final PortfolioTimeseriesService timeseriesService;
+
+    public PortfolioController(HoldingsService holdingsService, PortfolioSummaryService summaryService,
+            ExitTaxService exitTaxService, PerformanceService performanceService,
+            PortfolioTimeseriesService timeseriesService) {
+        this.holdingsService = holdingsService;
+        this.summaryService = summaryService;
+        this.exitTaxService = exitTaxService;
+        this.performanceService = performanceService;
+        this.timeseriesService = timeseriesService;
+    }
+
+    /**
+     * ETF holdings at the end of {@code asOf} (today by default), rebuilt
+     * from the transactions.
+     */
+    @GetMapping("/holdings")
+    public ResponseEntity<PortfolioHoldings> getHoldings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            Authentication authentication) {
+        return ResponseEntity.ok(holdingsService.getHoldings(authentication.getName(), asOf));
+    }
+
+    /**
+     * Current positions with value and gain at the stored prices, and the
+     * portfolio totals, in the user's base currency.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<PortfolioSummary> getSummary(Authentication authentication) {
+        return ResponseEntity.ok(summaryService.getSummary(authentication.getName()));
+    }
+
+    /**
+     * Deemed disposal exit tax per lot and per year, paid to date and
+     * projected, with credits for earlier deemed disposals.
+     */
+    @GetMapping("/exit-tax")
+    public ResponseEntity<ExitTaxProjection> getExitTax(Authentication authentication) {
+        return ResponseEntity.ok(exitTaxService.getProjection(authentication.getName()));
+    }
+
+    /**
+     * Money-weighted (XIRR) and time-weighted returns per ETF and for the
+     * whole ETF portfolio, valued at today's stored prices.
+     */
+    @GetMapping("/performance")
+    public ResponseEntity<PerformanceReport> getPerformance(Authentication authentication) {
+        return ResponseEntity.ok(performanceService.getPerformance(authentication.getName()));
+    }
+
+    /**
+     * Daily market value, invested capital and gain from {@code from} (the
+     * first transaction by default) to {@code to} (today by default).
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<PortfolioTimeseries> getTimeseries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        return ResponseEntity.ok(timeseriesService.getTimeseries(authentication.getName(), from, to));
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.investmenttracker.controller;
 
+import com.example.investmenttracker.dto.PortfolioSnapshotPage;
+import com.example.investmenttracker.dto.SnapshotDiff;
 import com.example.investmenttracker.model.PortfolioSnapshot;
 import com.example.investmenttracker.model.TriggerAction;
 import com.example.investmenttracker.service.PortfolioSnapshotService;
+import com.example.investmenttracker.service.SnapshotArchiveService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -15,15 +24,56 @@ import java.util.Map;
 public class PortfolioSnapshotController {
 
     private final PortfolioSnapshotService snapshotService;
+    private final SnapshotArchiveService archiveService;
 
-    public PortfolioSnapshotController(PortfolioSnapshotService snapshotService) {
+    public PortfolioSnapshotController(PortfolioSnapshotService snapshotService,
+            SnapshotArchiveService archiveService) {
         this.snapshotService = snapshotService;
+        this.archiveService = archiveService;
     }
 
     @GetMapping
-    public ResponseEntity<List<PortfolioSnapshot>> getAllSnapshots(Authentication authentication) {
+    public ResponseEntity<PortfolioSnapshotPage> getAllSnapshots(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PortfolioSnapshotService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) List<TriggerAction> triggerAction,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        return ResponseEntity.ok(snapshotService.getUserSnapshots(userEmail, cursor, limit, triggerAction, from, to));
+    }
+
+    /**
+     * What changed between two snapshots: ETFs, assets and transactions
+     * added, removed or modified.
+     */
+    @GetMapping("/diff")
+    public ResponseEntity<SnapshotDiff> diffSnapshots(@RequestParam Long from, @RequestParam Long to,
+            Authentication authentication) {
+        return ResponseEntity.ok(snapshotService.diffSnapshots(from, to, authentication.getName()));
+    }
+
+    /**
+     * The whole snapshot history as newline-delimited JSON, streamed.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportHistory(Authentication authentication) {
         String userEmail = authentication.getName();
-        return ResponseEntity.ok(snapshotService.getUserSnapshots(userEmail));
+        StreamingResponseBody body = out -> archiveService.exportHistory(userEmail, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"portfolio-history.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Add the snapshots of a history export (newline-delimited JSON body).
+     */
+    @PostMapping("/import")
+    public ResponseEntity<SnapshotArchiveService.ImportResult> importHistory(InputStream body,
+            Authentication authentication) {
+        return ResponseEntity.ok(archiveService.importHistory(authentication.getName(), body));
     }
 
     @GetMapping("/{id}")
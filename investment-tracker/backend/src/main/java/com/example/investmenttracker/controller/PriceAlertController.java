@@ -0,0 +1,55 @@
+package com.example.investmenttracker.controller;
+
+import com.example.investmenttracker.dto.AlertNotification;
+import com.example.investmenttracker.model.PriceAlert;
+import com.example.investmenttracker.service.InAppAlertFeed;
+import com.example.investmenttracker.service.PriceAlertService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alerts")
+public class PriceAlertController {
+
+    private final PriceAlertService alertService;
+    private final InAppAlertFeed alertFeed;
+
+    public PriceAlertController(PriceAlertService alertService, InAppAlertFeed alertFeed) {
+        this.alertService = alertService;
+        this.alertFeed = alertFeed;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PriceAlert>> getAlerts(Authentication authentication) {
+        return ResponseEntity.ok(alertService.getAlerts(authentication.getName()));
+    }
+
+    @PostMapping
+    public ResponseEntity<PriceAlert> createAlert(@RequestBody PriceAlert alert, Authentication authentication) {
+        PriceAlert created = alertService.createAlert(alert, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @PostMapping("/{id}/rearm")
+    public ResponseEntity<PriceAlert> rearmAlert(@PathVariable Long id, Authentication authentication) {
+        return ResponseEntity.ok(alertService.rearmAlert(id, authentication.getName()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAlert(@PathVariable Long id, Authentication authentication) {
+        alertService.deleteAlert(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Alerts that fired recently for the current user, newest first.
+     */
+    @GetMapping("/notifications")
+    public ResponseEntity<List<AlertNotification>> getNotifications(Authentication authentication) {
+        return ResponseEntity.ok(alertFeed.getRecent(authentication.getName()));
+    }
+}
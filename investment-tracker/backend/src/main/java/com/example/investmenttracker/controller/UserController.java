@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -32,12 +34,21 @@ public class UserController {
             response.put("email", user.getEmail());
             response.put("name", user.getName());
             response.put("provider", user.getProvider());
+            response.put("baseCurrency", user.getBaseCurrency());
         } else {
             response.put("email", email);
             response.put("name", email);
             response.put("provider", "local");
+            response.put("baseCurrency", User.DEFAULT_BASE_CURRENCY);
         }
 
         return ResponseEntity.ok(response);
     }
+
+    @PutMapping("/me/base-currency")
+    public ResponseEntity<Map<String, Object>> updateBaseCurrency(Authentication authentication,
+            @RequestBody Map<String, String> request) {
+        User user = userService.updateBaseCurrency(authentication.getName(), request.get("baseCurrency"));
+        return ResponseEntity.ok(Map.of("baseCurrency", user.getBaseCurrency()));
+    }
 }
@@ -0,0 +1,115 @@
+package com.example.investmenttracker.dto;
+
+import com.example.investmenttracker.model.AlertDirection;
+import com.example.investmenttracker.model.AlertMetric;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A price alert that fired, as handed to alert sinks.
+ */
+public class AlertNotification {
+
+    private Long alertId;
+    private String userEmail;
+    private String ticker;
+    private AlertMetric metric;
+    private AlertDirection direction;
+    private BigDecimal threshold;
+    private BigDecimal price;
+    private BigDecimal dailyChangePercent;
+    private LocalDateTime triggeredAt;
+
+    public AlertNotification() {
+    }
+
+    public AlertNotification(Long alertId, String userEmail, String ticker, AlertMetric metric,
+            AlertDirection direction, BigDecimal threshold, BigDecimal price, BigDecimal dailyChangePercent,
+            LocalDateTime triggeredAt) {
+        this.alertId = alertId;
+        this.userEmail = userEmail;
+        this.ticker = ticker;
+        this.metric = metric;
+        this.direction = direction;
+        this.threshold = threshold;
+        this.price = price;
+        this.dailyChangePercent = dailyChangePercent;
+        this.triggeredAt = triggeredAt;
+    }
+
+    // Getters and Setters
+    public Long getAlertId() {
+        return alertId;
+    }
+
+    public void setAlertId(Long alertId) {
+        this.alertId = alertId;
+    }
+
+    @JsonIgnore
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    public void setTicker(String ticker) {
+        this.ticker = ticker;
+    }
+
+    public AlertMetric getMetric() {
+        return metric;
+    }
+
+    public void setMetric(AlertMetric metric) {
+        this.metric = metric;
+    }
+
+    public AlertDirection getDirection() {
+        return direction;
+    }
+
+    public void setDirection(AlertDirection direction) {
+        this.direction = direction;
+    }
+
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(BigDecimal threshold) {
+        this.threshold = threshold;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BigDecimal getDailyChangePercent() {
+        return dailyChangePercent;
+    }
+
+    public void setDailyChangePercent(BigDecimal dailyChangePercent) {
+        this.dailyChangePercent = dailyChangePercent;
+    }
+
+    public LocalDateTime getTriggeredAt() {
+        return triggeredAt;
+    }
+
+    public void setTriggeredAt(LocalDateTime triggeredAt) {
+        this.triggeredAt = triggeredAt;
+    }
+}
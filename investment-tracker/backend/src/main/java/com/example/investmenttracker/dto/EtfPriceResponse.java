@@ -10,6 +10,11 @@ public class EtfPriceResponse {
     private String currency;
     private LocalDateTime lastUpdated;
     private String source;
+    private BigDecimal previousClose;
+    private boolean stale;
+    private String baseCurrency;
+    private BigDecimal priceInBaseCurrency;
+    private BigDecimal fxRate;
 
     public EtfPriceResponse() {
     }
@@ -23,6 +28,15 @@ public class EtfPriceResponse {
         this.source = source;
     }
 
+    public EtfPriceResponse(EtfPriceResponse other) {
+        this(other.ticker, other.price, other.currency, other.lastUpdated, other.source);
+        this.previousClose = other.previousClose;
+        this.stale = other.stale;
+        this.baseCurrency = other.baseCurrency;
+        this.priceInBaseCurrency = other.priceInBaseCurrency;
+        this.fxRate = other.fxRate;
+    }
+
     // Getters and Setters
     public String getTicker() {
         return ticker;
@@ -63,4 +77,52 @@ public class EtfPriceResponse {
     public void setSource(String source) {
         this.source = source;
     }
+
+    public BigDecimal getPreviousClose() {
+        return previousClose;
+    }
+
+    public void setPreviousClose(BigDecimal previousClose) {
+        this.previousClose = previousClose;
+    }
+
+    /**
+     * True when the provider could not be reached and this is the last known
+     * price rather than a fresh quote.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    /**
+     * Currency the user reports in; priceInBaseCurrency and fxRate are null
+     * when no rate from the quote currency is available.
+     */
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public BigDecimal getPriceInBaseCurrency() {
+        return priceInBaseCurrency;
+    }
+
+    public void setPriceInBaseCurrency(BigDecimal priceInBaseCurrency) {
+        this.priceInBaseCurrency = priceInBaseCurrency;
+    }
+
+    public BigDecimal getFxRate() {
+        return fxRate;
+    }
+
+    public void setFxRate(BigDecimal fxRate) {
+        this.fxRate = fxRate;
+    }
 }
@@ -0,0 +1,362 @@
+package com.example.investmenttracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exit tax on a user's ETFs: every deemed disposal and sale of each
+ * purchase lot up to {@code horizon}, and the tax per calendar year. Events
+ * after {@code asOf} are projected. Amounts are in {@code baseCurrency}; a
+ * negative tax on a sale is a refund of deemed disposal tax paid before.
+ */
+public class ExitTaxProjection {
+
+    public enum EventType {
+        DEEMED_DISPOSAL, SALE
+    }
+
+    public enum PriceSource {
+        HISTORICAL, CURRENT, SALE
+    }
+
+    private String baseCurrency;
+    private BigDecimal taxRate;
+    private LocalDate asOf;
+    private LocalDate horizon;
+    private List<Lot> lots = new ArrayList<>();
+    private List<YearTax> years = new ArrayList<>();
+    private BigDecimal taxToDate;
+    private BigDecimal projectedTax;
+
+    public ExitTaxProjection() {
+    }
+
+    public ExitTaxProjection(String baseCurrency, BigDecimal taxRate, LocalDate asOf, LocalDate horizon) {
+        this.baseCurrency = baseCurrency;
+        this.taxRate = taxRate;
+        this.asOf = asOf;
+        this.horizon = horizon;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public BigDecimal getTaxRate() {
+        return taxRate;
+    }
+
+    public void setTaxRate(BigDecimal taxRate) {
+        this.taxRate = taxRate;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    public LocalDate getHorizon() {
+        return horizon;
+    }
+
+    public void setHorizon(LocalDate horizon) {
+        this.horizon = horizon;
+    }
+
+    public List<Lot> getLots() {
+        return lots;
+    }
+
+    public void setLots(List<Lot> lots) {
+        this.lots = lots;
+    }
+
+    public List<YearTax> getYears() {
+        return years;
+    }
+
+    public void setYears(List<YearTax> years) {
+        this.years = years;
+    }
+
+    public BigDecimal getTaxToDate() {
+        return taxToDate;
+    }
+
+    public void setTaxToDate(BigDecimal taxToDate) {
+        this.taxToDate = taxToDate;
+    }
+
+    public BigDecimal getProjectedTax() {
+        return projectedTax;
+    }
+
+    public void setProjectedTax(BigDecimal projectedTax) {
+        this.projectedTax = projectedTax;
+    }
+
+    /**
+     * Units bought by one transaction, with the units still held on
+     * {@code asOf} and the tax events that concern them.
+     */
+    public static class Lot {
+        private Long etfId;
+        private String ticker;
+        private Long transactionId;
+        private LocalDate purchaseDate;
+        private BigDecimal units;
+        private BigDecimal cost;
+        private BigDecimal unitsHeld;
+        private List<TaxEvent> events = new ArrayList<>();
+
+        public Long getEtfId() {
+            return etfId;
+        }
+
+        public void setEtfId(Long etfId) {
+            this.etfId = etfId;
+        }
+
+        public String getTicker() {
+            return ticker;
+        }
+
+        public void setTicker(String ticker) {
+            this.ticker = ticker;
+        }
+
+        public Long getTransactionId() {
+            return transactionId;
+        }
+
+        public void setTransactionId(Long transactionId) {
+            this.transactionId = transactionId;
+        }
+
+        public LocalDate getPurchaseDate() {
+            return purchaseDate;
+        }
+
+        public void setPurchaseDate(LocalDate purchaseDate) {
+            this.purchaseDate = purchaseDate;
+        }
+
+        public BigDecimal getUnits() {
+            return units;
+        }
+
+        public void setUnits(BigDecimal units) {
+            this.units = units;
+        }
+
+        public BigDecimal getCost() {
+            return cost;
+        }
+
+        public void setCost(BigDecimal cost) {
+            this.cost = cost;
+        }
+
+        public BigDecimal getUnitsHeld() {
+            return unitsHeld;
+        }
+
+        public void setUnitsHeld(BigDecimal unitsHeld) {
+            this.unitsHeld = unitsHeld;
+        }
+
+        public List<TaxEvent> getEvents() {
+            return events;
+        }
+
+        public void setEvents(List<TaxEvent> events) {
+            this.events = events;
+        }
+    }
+
+    /**
+     * A deemed disposal or sale of units of a lot. {@code grossTax} is the
+     * tax on the whole gain since purchase, {@code credit} the deemed
+     * disposal tax already paid on the same units and {@code tax} the
+     * difference. Price, gain and tax are null when no price was known.
+     */
+    public static class TaxEvent {
+        private LocalDate date;
+        private EventType type;
+        private boolean projected;
+        private BigDecimal units;
+        private BigDecimal price;
+        private PriceSource priceSource;
+        private BigDecimal cost;
+        private BigDecimal gain;
+        private BigDecimal grossTax;
+        private BigDecimal credit;
+        private BigDecimal tax;
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public EventType getType() {
+            return type;
+        }
+
+        public void setType(EventType type) {
+            this.type = type;
+        }
+
+        public boolean isProjected() {
+            return projected;
+        }
+
+        public void setProjected(boolean projected) {
+            this.projected = projected;
+        }
+
+        public BigDecimal getUnits() {
+            return units;
+        }
+
+        public void setUnits(BigDecimal units) {
+            this.units = units;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+
+        public PriceSource getPriceSource() {
+            return priceSource;
+        }
+
+        public void setPriceSource(PriceSource priceSource) {
+            this.priceSource = priceSource;
+        }
+
+        public BigDecimal getCost() {
+            return cost;
+        }
+
+        public void setCost(BigDecimal cost) {
+            this.cost = cost;
+        }
+
+        public BigDecimal getGain() {
+            return gain;
+        }
+
+        public void setGain(BigDecimal gain) {
+            this.gain = gain;
+        }
+
+        public BigDecimal getGrossTax() {
+            return grossTax;
+        }
+
+        public void setGrossTax(BigDecimal grossTax) {
+            this.grossTax = grossTax;
+        }
+
+        public BigDecimal getCredit() {
+            return credit;
+        }
+
+        public void setCredit(BigDecimal credit) {
+            this.credit = credit;
+        }
+
+        public BigDecimal getTax() {
+            return tax;
+        }
+
+        public void setTax(BigDecimal tax) {
+            this.tax = tax;
+        }
+    }
+
+    /**
+     * Tax due in one calendar year, split by event type, and the deemed
+     * disposal credits used that year.
+     */
+    public static class YearTax {
+        private int year;
+        private boolean projected;
+        private BigDecimal deemedDisposalTax = BigDecimal.ZERO;
+        private BigDecimal saleTax = BigDecimal.ZERO;
+        private BigDecimal credit = BigDecimal.ZERO;
+        private BigDecimal total = BigDecimal.ZERO;
+
+        public YearTax() {
+        }
+
+        public YearTax(int year, boolean projected) {
+            this.year = year;
+            this.projected = projected;
+        }
+
+        public int getYear() {
+            return year;
+        }
+
+        public void setYear(int year) {
+            this.year = year;
+        }
+
+        public boolean isProjected() {
+            return projected;
+        }
+
+        public void setProjected(boolean projected) {
+            this.projected = projected;
+        }
+
+        public BigDecimal getDeemedDisposalTax() {
+            return deemedDisposalTax;
+        }
+
+        public void setDeemedDisposalTax(BigDecimal deemedDisposalTax) {
+            this.deemedDisposalTax = deemedDisposalTax;
+        }
+
+        public BigDecimal getSaleTax() {
+            return saleTax;
+        }
+
+        public void setSaleTax(BigDecimal saleTax) {
+            this.saleTax = saleTax;
+        }
+
+        public BigDecimal getCredit() {
+            return credit;
+        }
+
+        public void setCredit(BigDecimal credit) {
+            this.credit = credit;
+        }
+
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        public void setTotal(BigDecimal total) {
+            this.total = total;
+        }
+    }
+}
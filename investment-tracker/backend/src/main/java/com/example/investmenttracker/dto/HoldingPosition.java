@@ -0,0 +1,90 @@
+package com.example.investmenttracker.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Position in one ETF on a given date. {@code costBasis} and {@code fees}
+ * are the purchase cost and fees of the units still held, as recorded on
+ * the transactions; {@code transactionCount} counts the transactions up to
+ * that date.
+ */
+public class HoldingPosition {
+
+    private Long etfId;
+    private String ticker;
+    private String name;
+    private BigDecimal units;
+    private BigDecimal costBasis;
+    private BigDecimal fees;
+    private int transactionCount;
+
+    public HoldingPosition() {
+    }
+
+    public HoldingPosition(Long etfId, String ticker, String name, BigDecimal units, BigDecimal costBasis,
+            BigDecimal fees, int transactionCount) {
+        this.etfId = etfId;
+        this.ticker = ticker;
+        this.name = name;
+        this.units = units;
+        this.costBasis = costBasis;
+        this.fees = fees;
+        this.transactionCount = transactionCount;
+    }
+
+    public Long getEtfId() {
+        return etfId;
+    }
+
+    public void setEtfId(Long etfId) {
+        this.etfId = etfId;
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    public void setTicker(String ticker) {
+        this.ticker = ticker;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getUnits() {
+        return units;
+    }
+
+    public void setUnits(BigDecimal units) {
+        this.units = units;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(BigDecimal costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public BigDecimal getFees() {
+        return fees;
+    }
+
+    public void setFees(BigDecimal fees) {
+        this.fees = fees;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(int transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
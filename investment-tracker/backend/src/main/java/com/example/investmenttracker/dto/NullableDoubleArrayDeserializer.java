@@ -0,0 +1,61 @@
+package com.example.investmenttracker.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads a JSON number array straight into a primitive double[] without
+ * boxing. Yahoo Finance uses null for bars without a trade; those become NaN
+ * instead of 0 so they can be told apart from real prices.
+ */
+public class NullableDoubleArrayDeserializer extends StdDeserializer<double[]> {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    public NullableDoubleArrayDeserializer() {
+        super(double[].class);
+    }
+
+    @Override
+    public double[] deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            return (double[]) context.handleUnexpectedToken(double[].class, parser);
+        }
+        return readArray(parser);
+    }
+
+    /**
+     * Read the array the parser is positioned on (START_ARRAY) up to and
+     * including its END_ARRAY token.
+     */
+    public static double[] readArray(JsonParser parser) throws IOException {
+        return readArray(parser, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Same as {@link #readArray(JsonParser)}, starting from the expected
+     * length so a series of known size is read without regrowing.
+     */
+    public static double[] readArray(JsonParser parser, int expectedSize) throws IOException {
+        double[] values = new double[Math.max(1, expectedSize)];
+        int size = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = token == JsonToken.VALUE_NULL ? Double.NaN : parser.getDoubleValue();
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public double[] getNullValue(DeserializationContext context) {
+        return null;
+    }
+}
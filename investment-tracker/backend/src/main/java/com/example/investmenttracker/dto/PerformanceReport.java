@@ -0,0 +1,129 @@
+package com.example.investmenttracker.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Money-weighted and time-weighted returns of each ETF and of the whole ETF
+ * portfolio up to {@code asOf}. Rates are fractions (0.07 for 7%).
+ */
+public class PerformanceReport {
+
+    private LocalDate asOf;
+    private String baseCurrency;
+    private Performance portfolio;
+    private List<Performance> etfs = new ArrayList<>();
+
+    public PerformanceReport() {
+    }
+
+    public PerformanceReport(LocalDate asOf, String baseCurrency) {
+        this.asOf = asOf;
+        this.baseCurrency = baseCurrency;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public Performance getPortfolio() {
+        return portfolio;
+    }
+
+    public void setPortfolio(Performance portfolio) {
+        this.portfolio = portfolio;
+    }
+
+    public List<Performance> getEtfs() {
+        return etfs;
+    }
+
+    public void setEtfs(List<Performance> etfs) {
+        this.etfs = etfs;
+    }
+
+    /**
+     * Returns of one ETF, or of the portfolio when {@code ticker} is null.
+     * {@code xirr} is annual; {@code twr} is cumulative since
+     * {@code startDate} and {@code twrAnnualized} its annual equivalent.
+     * A rate that cannot be computed is null.
+     */
+    public static class Performance {
+        private Long etfId;
+        private String ticker;
+        private LocalDate startDate;
+        private int cashFlows;
+        private Double xirr;
+        private Double twr;
+        private Double twrAnnualized;
+
+        public Long getEtfId() {
+            return etfId;
+        }
+
+        public void setEtfId(Long etfId) {
+            this.etfId = etfId;
+        }
+
+        public String getTicker() {
+            return ticker;
+        }
+
+        public void setTicker(String ticker) {
+            this.ticker = ticker;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public void setStartDate(LocalDate startDate) {
+            this.startDate = startDate;
+        }
+
+        public int getCashFlows() {
+            return cashFlows;
+        }
+
+        public void setCashFlows(int cashFlows) {
+            this.cashFlows = cashFlows;
+        }
+
+        public Double getXirr() {
+            return xirr;
+        }
+
+        public void setXirr(Double xirr) {
+            this.xirr = xirr;
+        }
+
+        public Double getTwr() {
+            return twr;
+        }
+
+        public void setTwr(Double twr) {
+            this.twr = twr;
+        }
+
+        public Double getTwrAnnualized() {
+            return twrAnnualized;
+        }
+
+        public void setTwrAnnualized(Double twrAnnualized) {
+            this.twrAnnualized = twrAnnualized;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.investmenttracker.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * ETF positions held at the end of {@code asOf}, rebuilt from the
+ * transaction ledger.
+ */
+public class PortfolioHoldings {
+
+    private LocalDate asOf;
+    private List<HoldingPosition> positions;
+
+    public PortfolioHoldings() {
+    }
+
+    public PortfolioHoldings(LocalDate asOf, List<HoldingPosition> positions) {
+        this.asOf = asOf;
+        this.positions = positions;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    public List<HoldingPosition> getPositions() {
+        return positions;
+    }
+
+    public void setPositions(List<HoldingPosition> positions) {
+        this.positions = positions;
+    }
+}
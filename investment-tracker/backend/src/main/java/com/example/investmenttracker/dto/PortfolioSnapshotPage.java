@@ -0,0 +1,48 @@
+package com.example.investmenttracker.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's snapshot history, newest first. Pass
+ * {@code nextCursor} back to get the following page; it is null when
+ * {@code hasMore} is false.
+ */
+public class PortfolioSnapshotPage {
+
+    private List<PortfolioSnapshotSummary> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public PortfolioSnapshotPage() {
+    }
+
+    public PortfolioSnapshotPage(List<PortfolioSnapshotSummary> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<PortfolioSnapshotSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PortfolioSnapshotSummary> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.investmenttracker.dto;
+
+import com.example.investmenttracker.model.TriggerAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot metadata for listings, without the portfolio payload.
+ * {@code payloadSize} is the stored (compressed) size in bytes.
+ */
+public class PortfolioSnapshotSummary {
+
+    private Long id;
+    private String versionId;
+    private LocalDateTime createdAt;
+    private TriggerAction triggerAction;
+    private String changeDetails;
+    private Integer payloadSize;
+
+    public PortfolioSnapshotSummary() {
+    }
+
+    public PortfolioSnapshotSummary(Long id, String versionId, LocalDateTime createdAt, TriggerAction triggerAction,
+            String changeDetails, Integer payloadSize) {
+        this.id = id;
+        this.versionId = versionId;
+        this.createdAt = createdAt;
+        this.triggerAction = triggerAction;
+        this.changeDetails = changeDetails;
+        this.payloadSize = payloadSize;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getVersionId() {
+        return versionId;
+    }
+
+    public void setVersionId(String versionId) {
+        this.versionId = versionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public TriggerAction getTriggerAction() {
+        return triggerAction;
+    }
+
+    public void setTriggerAction(TriggerAction triggerAction) {
+        this.triggerAction = triggerAction;
+    }
+
+    public String getTriggerActionDisplay() {
+        return triggerAction != null ? triggerAction.getDisplayName() : "Unknown";
+    }
+
+    public String getChangeDetails() {
+        return changeDetails;
+    }
+
+    public void setChangeDetails(String changeDetails) {
+        this.changeDetails = changeDetails;
+    }
+
+    public Integer getPayloadSize() {
+        return payloadSize;
+    }
+
+    public void setPayloadSize(Integer payloadSize) {
+        this.payloadSize = payloadSize;
+    }
+}
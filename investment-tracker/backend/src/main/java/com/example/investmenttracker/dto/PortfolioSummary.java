@@ -0,0 +1,224 @@
+package com.example.investmenttracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Current ETF positions with their value and gain, and portfolio totals.
+ * Amounts are in {@code baseCurrency}; value and gain are null for an ETF
+ * without a known price and left out of the totals.
+ */
+public class PortfolioSummary {
+
+    private String baseCurrency;
+    private List<EtfSummary> etfs;
+    private BigDecimal totalInvestment;
+    private BigDecimal totalFees;
+    private BigDecimal currentValue;
+    private BigDecimal gain;
+    private BigDecimal gainPercentage;
+
+    public PortfolioSummary() {
+    }
+
+    public PortfolioSummary(String baseCurrency, List<EtfSummary> etfs, BigDecimal totalInvestment,
+            BigDecimal totalFees, BigDecimal currentValue, BigDecimal gain, BigDecimal gainPercentage) {
+        this.baseCurrency = baseCurrency;
+        this.etfs = etfs;
+        this.totalInvestment = totalInvestment;
+        this.totalFees = totalFees;
+        this.currentValue = currentValue;
+        this.gain = gain;
+        this.gainPercentage = gainPercentage;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public List<EtfSummary> getEtfs() {
+        return etfs;
+    }
+
+    public void setEtfs(List<EtfSummary> etfs) {
+        this.etfs = etfs;
+    }
+
+    public BigDecimal getTotalInvestment() {
+        return totalInvestment;
+    }
+
+    public void setTotalInvestment(BigDecimal totalInvestment) {
+        this.totalInvestment = totalInvestment;
+    }
+
+    public BigDecimal getTotalFees() {
+        return totalFees;
+    }
+
+    public void setTotalFees(BigDecimal totalFees) {
+        this.totalFees = totalFees;
+    }
+
+    public BigDecimal getCurrentValue() {
+        return currentValue;
+    }
+
+    public void setCurrentValue(BigDecimal currentValue) {
+        this.currentValue = currentValue;
+    }
+
+    public BigDecimal getGain() {
+        return gain;
+    }
+
+    public void setGain(BigDecimal gain) {
+        this.gain = gain;
+    }
+
+    public BigDecimal getGainPercentage() {
+        return gainPercentage;
+    }
+
+    public void setGainPercentage(BigDecimal gainPercentage) {
+        this.gainPercentage = gainPercentage;
+    }
+
+    /**
+     * One held ETF. {@code totalInvestment} is the cost basis plus fees of
+     * the units held.
+     */
+    public static class EtfSummary {
+        private Long etfId;
+        private String ticker;
+        private String name;
+        private int transactionCount;
+        private BigDecimal totalUnits;
+        private BigDecimal costBasis;
+        private BigDecimal fees;
+        private BigDecimal totalInvestment;
+        private BigDecimal currentPrice;
+        private LocalDateTime priceUpdatedAt;
+        private boolean priceStale;
+        private BigDecimal currentValue;
+        private BigDecimal gain;
+        private BigDecimal gainPercentage;
+
+        public Long getEtfId() {
+            return etfId;
+        }
+
+        public void setEtfId(Long etfId) {
+            this.etfId = etfId;
+        }
+
+        public String getTicker() {
+            return ticker;
+        }
+
+        public void setTicker(String ticker) {
+            this.ticker = ticker;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getTransactionCount() {
+            return transactionCount;
+        }
+
+        public void setTransactionCount(int transactionCount) {
+            this.transactionCount = transactionCount;
+        }
+
+        public BigDecimal getTotalUnits() {
+            return totalUnits;
+        }
+
+        public void setTotalUnits(BigDecimal totalUnits) {
+            this.totalUnits = totalUnits;
+        }
+
+        public BigDecimal getCostBasis() {
+            return costBasis;
+        }
+
+        public void setCostBasis(BigDecimal costBasis) {
+            this.costBasis = costBasis;
+        }
+
+        public BigDecimal getFees() {
+            return fees;
+        }
+
+        public void setFees(BigDecimal fees) {
+            this.fees = fees;
+        }
+
+        public BigDecimal getTotalInvestment() {
+            return totalInvestment;
+        }
+
+        public void setTotalInvestment(BigDecimal totalInvestment) {
+            this.totalInvestment = totalInvestment;
+        }
+
+        public BigDecimal getCurrentPrice() {
+            return currentPrice;
+        }
+
+        public void setCurrentPrice(BigDecimal currentPrice) {
+            this.currentPrice = currentPrice;
+        }
+
+        public LocalDateTime getPriceUpdatedAt() {
+            return priceUpdatedAt;
+        }
+
+        public void setPriceUpdatedAt(LocalDateTime priceUpdatedAt) {
+            this.priceUpdatedAt = priceUpdatedAt;
+        }
+
+        public boolean isPriceStale() {
+            return priceStale;
+        }
+
+        public void setPriceStale(boolean priceStale) {
+            this.priceStale = priceStale;
+        }
+
+        public BigDecimal getCurrentValue() {
+            return currentValue;
+        }
+
+        public void setCurrentValue(BigDecimal currentValue) {
+            this.currentValue = currentValue;
+        }
+
+        public BigDecimal getGain() {
+            return gain;
+        }
+
+        public void setGain(BigDecimal gain) {
+            this.gain = gain;
+        }
+
+        public BigDecimal getGainPercentage() {
+            return gainPercentage;
+        }
+
+        public void setGainPercentage(BigDecimal gainPercentage) {
+            this.gainPercentage = gainPercentage;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.investmenttracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Daily value of a user's ETFs from {@code from} to {@code to}, one point
+ * per calendar day, in {@code baseCurrency}. Days without a close carry the
+ * last known price forward.
+ */
+public class PortfolioTimeseries {
+
+    private LocalDate from;
+    private LocalDate to;
+    private String baseCurrency;
+    private List<Point> points = new ArrayList<>();
+
+    public PortfolioTimeseries() {
+    }
+
+    public PortfolioTimeseries(LocalDate from, LocalDate to, String baseCurrency, List<Point> points) {
+        this.from = from;
+        this.to = to;
+        this.baseCurrency = baseCurrency;
+        this.points = points;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public List<Point> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<Point> points) {
+        this.points = points;
+    }
+
+    /**
+     * Value at the end of one day. {@code invested} is the net amount put
+     * in: purchases with fees less sale proceeds after fees, so
+     * {@code gain} includes realised gains. Market value and gain are null
+     * when an ETF held that day has no price yet.
+     */
+    public static class Point {
+        private LocalDate date;
+        private BigDecimal marketValue;
+        private BigDecimal invested;
+        private BigDecimal gain;
+
+        public Point() {
+        }
+
+        public Point(LocalDate date, BigDecimal marketValue, BigDecimal invested, BigDecimal gain) {
+            this.date = date;
+            this.marketValue = marketValue;
+            this.invested = invested;
+            this.gain = gain;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public BigDecimal getMarketValue() {
+            return marketValue;
+        }
+
+        public void setMarketValue(BigDecimal marketValue) {
+            this.marketValue = marketValue;
+        }
+
+        public BigDecimal getInvested() {
+            return invested;
+        }
+
+        public void setInvested(BigDecimal invested) {
+            this.invested = invested;
+        }
+
+        public BigDecimal getGain() {
+            return gain;
+        }
+
+        public void setGain(BigDecimal gain) {
+            this.gain = gain;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.investmenttracker.dto;
+
+import com.example.investmenttracker.model.TriggerAction;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of a snapshot history export: a snapshot's metadata and its full
+ * portfolio, independent of how it is stored.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SnapshotArchiveEntry {
+
+    private String versionId;
+    private LocalDateTime createdAt;
+    private TriggerAction triggerAction;
+    private String changeDetails;
+    private JsonNode portfolio;
+
+    public SnapshotArchiveEntry() {
+    }
+
+    public SnapshotArchiveEntry(String versionId, LocalDateTime createdAt, TriggerAction triggerAction,
+            String changeDetails, JsonNode portfolio) {
+        this.versionId = versionId;
+        this.createdAt = createdAt;
+        this.triggerAction = triggerAction;
+        this.changeDetails = changeDetails;
+        this.portfolio = portfolio;
+    }
+
+    public String getVersionId() {
+        return versionId;
+    }
+
+    public void setVersionId(String versionId) {
+        this.versionId = versionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public TriggerAction getTriggerAction() {
+        return triggerAction;
+    }
+
+    public void setTriggerAction(TriggerAction triggerAction) {
+        this.triggerAction = triggerAction;
+    }
+
+    public String getChangeDetails() {
+        return changeDetails;
+    }
+
+    public void setChangeDetails(String changeDetails) {
+        this.changeDetails = changeDetails;
+    }
+
+    public JsonNode getPortfolio() {
+        return portfolio;
+    }
+
+    public void setPortfolio(JsonNode portfolio) {
+        this.portfolio = portfolio;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.investmenttracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Structural difference between two portfolio snapshots: ETFs and assets
+ * added, removed or changed, and for changed ETFs the transactions added,
+ * removed or changed. Entities are matched by id.
+ */
+public class SnapshotDiff {
+
+    private Long fromId;
+    private Long toId;
+    private Section etfs;
+    private Section assets;
+
+    public SnapshotDiff() {
+    }
+
+    public SnapshotDiff(Long fromId, Long toId, Section etfs, Section assets) {
+        this.fromId = fromId;
+        this.toId = toId;
+        this.etfs = etfs;
+        this.assets = assets;
+    }
+
+    public Long getFromId() {
+        return fromId;
+    }
+
+    public void setFromId(Long fromId) {
+        this.fromId = fromId;
+    }
+
+    public Long getToId() {
+        return toId;
+    }
+
+    public void setToId(Long toId) {
+        this.toId = toId;
+    }
+
+    public Section getEtfs() {
+        return etfs;
+    }
+
+    public void setEtfs(Section etfs) {
+        this.etfs = etfs;
+    }
+
+    public Section getAssets() {
+        return assets;
+    }
+
+    public void setAssets(Section assets) {
+        this.assets = assets;
+    }
+
+    /**
+     * Changes to one collection of entities. Added and removed entities are
+     * returned whole.
+     */
+    public static class Section {
+        private List<JsonNode> added = new ArrayList<>();
+        private List<JsonNode> removed = new ArrayList<>();
+        private List<EntityChange> changed = new ArrayList<>();
+
+        @JsonIgnore
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+        }
+
+        public List<JsonNode> getAdded() {
+            return added;
+        }
+
+        public void setAdded(List<JsonNode> added) {
+            this.added = added;
+        }
+
+        public List<JsonNode> getRemoved() {
+            return removed;
+        }
+
+        public void setRemoved(List<JsonNode> removed) {
+            this.removed = removed;
+        }
+
+        public List<EntityChange> getChanged() {
+            return changed;
+        }
+
+        public void setChanged(List<EntityChange> changed) {
+            this.changed = changed;
+        }
+    }
+
+    /**
+     * An entity present in both snapshots whose fields differ.
+     * {@code transactions} is only set for ETFs whose transactions changed.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class EntityChange {
+        private String id;
+        private String label;
+        private List<FieldChange> fields = new ArrayList<>();
+        private Section transactions;
+
+        public EntityChange() {
+        }
+
+        public EntityChange(String id, String label) {
+            this.id = id;
+            this.label = label;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public List<FieldChange> getFields() {
+            return fields;
+        }
+
+        public void setFields(List<FieldChange> fields) {
+            this.fields = fields;
+        }
+
+        public Section getTransactions() {
+            return transactions;
+        }
+
+        public void setTransactions(Section transactions) {
+            this.transactions = transactions;
+        }
+    }
+
+    /**
+     * A field with its old and new value; a missing side is null.
+     */
+    public static class FieldChange {
+        private String field;
+        private JsonNode from;
+        private JsonNode to;
+
+        public FieldChange() {
+        }
+
+        public FieldChange(String field, JsonNode from, JsonNode to) {
+            this.field = field;
+            this.from = from;
+            this.to = to;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public void setField(String field) {
+            this.field = field;
+        }
+
+        public JsonNode getFrom() {
+            return from;
+        }
+
+        public void setFrom(JsonNode from) {
+            this.from = from;
+        }
+
+        public JsonNode getTo() {
+            return to;
+        }
+
+        public void setTo(JsonNode to) {
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.investmenttracker.dto;
+
+import com.example.investmenttracker.model.TriggerAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot metadata joined with its stored payload, as streamed for an
+ * export. {@code baseSnapshotId} is null for keyframes; otherwise
+ * {@code data} is a compressed JSON Patch against that snapshot.
+ */
+public class SnapshotPayloadRow {
+
+    private final Long id;
+    private final String versionId;
+    private final LocalDateTime createdAt;
+    private final TriggerAction triggerAction;
+    private final String changeDetails;
+    private final Long baseSnapshotId;
+    private final byte[] data;
+    private final int rawSize;
+
+    public SnapshotPayloadRow(Long id, String versionId, LocalDateTime createdAt, TriggerAction triggerAction,
+            String changeDetails, Long baseSnapshotId, byte[] data, int rawSize) {
+        this.id = id;
+        this.versionId = versionId;
+        this.createdAt = createdAt;
+        this.triggerAction = triggerAction;
+        this.changeDetails = changeDetails;
+        this.baseSnapshotId = baseSnapshotId;
+        this.data = data;
+        this.rawSize = rawSize;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getVersionId() {
+        return versionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public TriggerAction getTriggerAction() {
+        return triggerAction;
+    }
+
+    public String getChangeDetails() {
+        return changeDetails;
+    }
+
+    public Long getBaseSnapshotId() {
+        return baseSnapshotId;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public int getRawSize() {
+        return rawSize;
+    }
+}
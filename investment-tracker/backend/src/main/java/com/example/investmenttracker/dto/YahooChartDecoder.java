@@ -0,0 +1,181 @@
+package com.example.investmenttracker.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming decoder for chart responses that reads only the fields the
+ * application uses.
+ *
+ * Data binding would materialise the whole payload, including the open,
+ * high, low, volume and adjclose arrays and the trading period tables in
+ * meta. This decoder walks the token stream once, copies the meta fields of
+ * {@link YahooFinanceResponse.Meta}, reads timestamps and closes into
+ * primitive arrays only when the series is requested, and skips everything
+ * else without building it. Doubles are parsed straight from the parser's
+ * buffer with the fast double parser, so no String is created per price.
+ */
+public final class YahooChartDecoder {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private YahooChartDecoder() {
+    }
+
+    /**
+     * Decode a complete chart response. The parser must be positioned before
+     * the root object. With {@code includeSeries} false, the result carries
+     * meta only.
+     */
+    public static YahooFinanceResponse decode(JsonParser parser, boolean includeSeries) throws IOException {
+        parser.enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER.mappedFeature());
+        YahooFinanceResponse response = new YahooFinanceResponse();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return response;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("chart".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                response.setChart(readChart(parser, includeSeries));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return response;
+    }
+
+    private static YahooFinanceResponse.Chart readChart(JsonParser parser, boolean includeSeries)
+            throws IOException {
+        YahooFinanceResponse.Chart chart = new YahooFinanceResponse.Chart();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("result".equals(field) && token == JsonToken.START_ARRAY) {
+                List<YahooFinanceResponse.Result> results = new ArrayList<>(1);
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    // Only the first result is ever used
+                    if (results.isEmpty() && parser.currentToken() == JsonToken.START_OBJECT) {
+                        results.add(readResult(parser, includeSeries));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                chart.setResult(results);
+            } else if ("error".equals(field) && token != JsonToken.VALUE_NULL) {
+                // Rare and small: bind it generically so it can be logged
+                if (parser.getCodec() != null) {
+                    chart.setError(parser.readValueAsTree());
+                } else {
+                    chart.setError(parser.getText());
+                    parser.skipChildren();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return chart;
+    }
+
+    private static YahooFinanceResponse.Result readResult(JsonParser parser, boolean includeSeries)
+            throws IOException {
+        YahooFinanceResponse.Result result = new YahooFinanceResponse.Result();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("meta".equals(field) && token == JsonToken.START_OBJECT) {
+                result.setMeta(readMeta(parser));
+            } else if (includeSeries && "timestamp".equals(field) && token == JsonToken.START_ARRAY) {
+                result.setTimestamp(readLongArray(parser));
+            } else if (includeSeries && "indicators".equals(field) && token == JsonToken.START_OBJECT) {
+                // Yahoo sends timestamps first; size the close array to match
+                int expectedSize = result.getTimestamp() != null ? result.getTimestamp().length : INITIAL_CAPACITY;
+                result.setIndicators(readIndicators(parser, expectedSize));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    private static YahooFinanceResponse.Meta readMeta(JsonParser parser) throws IOException {
+        YahooFinanceResponse.Meta meta = new YahooFinanceResponse.Meta();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "currency" -> meta.setCurrency(token == JsonToken.VALUE_NULL ? null : parser.getText());
+                case "symbol" -> meta.setSymbol(token == JsonToken.VALUE_NULL ? null : parser.getText());
+                case "regularMarketPrice" -> meta.setRegularMarketPrice(readNullableDouble(parser, token));
+                case "previousClose" -> meta.setPreviousClose(readNullableDouble(parser, token));
+                case "chartPreviousClose" -> meta.setChartPreviousClose(readNullableDouble(parser, token));
+                case "gmtoffset" -> meta.setGmtoffset(token.isNumeric() ? parser.getIntValue() : 0);
+                default -> parser.skipChildren();
+            }
+        }
+        return meta;
+    }
+
+    private static YahooFinanceResponse.Indicators readIndicators(JsonParser parser, int expectedSize)
+            throws IOException {
+        YahooFinanceResponse.Indicators indicators = new YahooFinanceResponse.Indicators();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("quote".equals(field) && token == JsonToken.START_ARRAY) {
+                List<YahooFinanceResponse.Quote> quotes = new ArrayList<>(1);
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (quotes.isEmpty() && parser.currentToken() == JsonToken.START_OBJECT) {
+                        quotes.add(readQuote(parser, expectedSize));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                indicators.setQuote(quotes);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return indicators;
+    }
+
+    private static YahooFinanceResponse.Quote readQuote(JsonParser parser, int expectedSize) throws IOException {
+        YahooFinanceResponse.Quote quote = new YahooFinanceResponse.Quote();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("close".equals(field) && token == JsonToken.START_ARRAY) {
+                quote.setClose(NullableDoubleArrayDeserializer.readArray(parser, expectedSize));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return quote;
+    }
+
+    private static Double readNullableDouble(JsonParser parser, JsonToken token) throws IOException {
+        if (token.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static long[] readLongArray(JsonParser parser) throws IOException {
+        long[] values = new long[INITIAL_CAPACITY];
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = parser.getLongValue();
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.investmenttracker.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.List;
 import java.util.Map;
@@ -50,6 +51,13 @@ public class YahooFinanceResponse {
         @JsonProperty("meta")
         private Meta meta;
 
+        // Bar open times in epoch seconds, parallel to the indicator arrays
+        @JsonProperty("timestamp")
+        private long[] timestamp;
+
+        @JsonProperty("indicators")
+        private Indicators indicators;
+
         public Meta getMeta() {
             return meta;
         }
@@ -57,6 +65,62 @@ public class YahooFinanceResponse {
         public void setMeta(Meta meta) {
             this.meta = meta;
         }
+
+        public long[] getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long[] timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public Indicators getIndicators() {
+            return indicators;
+        }
+
+        public void setIndicators(Indicators indicators) {
+            this.indicators = indicators;
+        }
+
+        /**
+         * Close prices of the first quote series, or null if the response
+         * carries no series. Missing bars are NaN.
+         */
+        public double[] getClose() {
+            if (indicators == null || indicators.getQuote() == null || indicators.getQuote().isEmpty()) {
+                return null;
+            }
+            return indicators.getQuote().get(0).getClose();
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Indicators {
+        @JsonProperty("quote")
+        private List<Quote> quote;
+
+        public List<Quote> getQuote() {
+            return quote;
+        }
+
+        public void setQuote(List<Quote> quote) {
+            this.quote = quote;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Quote {
+        @JsonProperty("close")
+        @JsonDeserialize(using = NullableDoubleArrayDeserializer.class)
+        private double[] close;
+
+        public double[] getClose() {
+            return close;
+        }
+
+        public void setClose(double[] close) {
+            this.close = close;
+        }
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -73,6 +137,14 @@ public class YahooFinanceResponse {
         @JsonProperty("previousClose")
         private Double previousClose;
 
+        // Close before the first bar of the requested range; sent when previousClose is not
+        @JsonProperty("chartPreviousClose")
+        private Double chartPreviousClose;
+
+        // Exchange offset from UTC in seconds, used to turn timestamps into trading dates
+        @JsonProperty("gmtoffset")
+        private int gmtoffset;
+
         public String getCurrency() {
             return currency;
         }
@@ -104,5 +176,21 @@ public class YahooFinanceResponse {
         public void setPreviousClose(Double previousClose) {
             this.previousClose = previousClose;
         }
+
+        public Double getChartPreviousClose() {
+            return chartPreviousClose;
+        }
+
+        public void setChartPreviousClose(Double chartPreviousClose) {
+            this.chartPreviousClose = chartPreviousClose;
+        }
+
+        public int getGmtoffset() {
+            return gmtoffset;
+        }
+
+        public void setGmtoffset(int gmtoffset) {
+            this.gmtoffset = gmtoffset;
+        }
     }
 }
@@ -0,0 +1,25 @@
+package com.example.investmenttracker.exception;
+
+/**
+ * Thrown when a price request is rejected without calling the upstream
+ * provider, e.g. because the ticker is backing off after recent failures or
+ * the provider circuit breaker is open.
+ */
+public class PriceUnavailableException extends RuntimeException {
+    private final String code;
+    private final transient Object[] args;
+
+    public PriceUnavailableException(String code, Object... args) {
+        super(code);
+        this.code = code;
+        this.args = args != null ? args : new Object[0];
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public Object[] getArgs() {
+        return args;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.investmenttracker.model;
+
+public enum AlertDirection {
+    ABOVE,
+    BELOW
+}
@@ -0,0 +1,17 @@
+package com.example.investmenttracker.model;
+
+public enum AlertMetric {
+    PRICE("Price"),
+    COST_BASIS_CHANGE_PERCENT("Change since cost basis (%)"),
+    DAILY_CHANGE_PERCENT("Daily change (%)");
+
+    private final String displayName;
+
+    AlertMetric(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -21,6 +21,10 @@ public class EtfPrice {
     @Column(nullable = false)
     private String currency;
 
+    // Close of the previous trading day, used for daily change alerts
+    @Column(name = "previous_close", precision = 19, scale = 4)
+    private BigDecimal previousClose;
+
     @Column(name = "last_updated", nullable = false)
     private LocalDateTime lastUpdated;
 
@@ -71,6 +75,14 @@ public class EtfPrice {
         this.currency = currency;
     }
 
+    public BigDecimal getPreviousClose() {
+        return previousClose;
+    }
+
+    public void setPreviousClose(BigDecimal previousClose) {
+        this.previousClose = previousClose;
+    }
+
     public LocalDateTime getLastUpdated() {
         return lastUpdated;
     }
@@ -0,0 +1,78 @@
+package com.example.investmenttracker.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "etf_price_history", uniqueConstraints = @UniqueConstraint(name = "uk_price_history_ticker_date", columnNames = {
+        "ticker", "price_date" }))
+public class EtfPriceHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String ticker;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    @Column(name = "close_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal closePrice;
+
+    @Column(nullable = false)
+    private String currency;
+
+    public EtfPriceHistory() {
+    }
+
+    public EtfPriceHistory(String ticker, LocalDate priceDate, BigDecimal closePrice, String currency) {
+        this.ticker = ticker;
+        this.priceDate = priceDate;
+        this.closePrice = closePrice;
+        this.currency = currency;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    public void setTicker(String ticker) {
+        this.ticker = ticker;
+    }
+
+    public LocalDate getPriceDate() {
+        return priceDate;
+    }
+
+    public void setPriceDate(LocalDate priceDate) {
+        this.priceDate = priceDate;
+    }
+
+    public BigDecimal getClosePrice() {
+        return closePrice;
+    }
+
+    public void setClosePrice(BigDecimal closePrice) {
+        this.closePrice = closePrice;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
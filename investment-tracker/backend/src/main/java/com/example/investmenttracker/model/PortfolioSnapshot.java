@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "portfolio_snapshots")
+@Table(name = "portfolio_snapshots", indexes = {
+        // Keyset pagination of a user's history walks this index newest first
+        @Index(name = "idx_snapshot_user_created", columnList = "user_id, created_at, id")
+})
 public class PortfolioSnapshot {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,9 +20,23 @@ public class PortfolioSnapshot {
     private User user;
 
     @Column(nullable = false, unique = true)
-    private String versionId; // e.g., "20260101141005"
+    private String versionId; // e.g., "20260101141005123-0000K3F9QX"; older ones "20260101141005"
 
-    @Column(columnDefinition = "TEXT", nullable = false)
+    // Snapshot the payload is a delta against; null for keyframes
+    @Column(name = "base_snapshot_id")
+    @JsonIgnore
+    private Long baseSnapshotId;
+
+    // Keyframe a delta chain starts from; null for keyframes
+    @Column(name = "keyframe_snapshot_id")
+    @JsonIgnore
+    private Long keyframeSnapshotId;
+
+    // Stored (compressed) size of the payload in PortfolioSnapshotPayload
+    private Integer payloadSize;
+
+    // Full portfolio JSON, reconstructed by the service when a single snapshot is read
+    @Transient
     private String portfolioJson;
 
     @Column(nullable = false)
@@ -84,6 +101,51 @@ public class PortfolioSnapshot {
         this.portfolioJson = portfolioJson;
     }
 
+    public Integer getPayloadSize() {
+        return payloadSize;
+    }
+
+    public void setPayloadSize(Integer payloadSize) {
+        this.payloadSize = payloadSize;
+    }
+
+    public Long getBaseSnapshotId() {
+        return baseSnapshotId;
+    }
+
+    public void setBaseSnapshotId(Long baseSnapshotId) {
+        this.baseSnapshotId = baseSnapshotId;
+    }
+
+    public Long getKeyframeSnapshotId() {
+        return keyframeSnapshotId;
+    }
+
+    public void setKeyframeSnapshotId(Long keyframeSnapshotId) {
+        this.keyframeSnapshotId = keyframeSnapshotId;
+    }
+
+    @JsonIgnore
+    public boolean isKeyframe() {
+        return baseSnapshotId == null;
+    }
+
+    /**
+     * Mark this snapshot's payload as the full portfolio.
+     */
+    public void markKeyframe() {
+        this.baseSnapshotId = null;
+        this.keyframeSnapshotId = null;
+    }
+
+    /**
+     * Mark this snapshot's payload as a JSON Patch against {@code base}.
+     */
+    public void markDeltaOf(PortfolioSnapshot base) {
+        this.baseSnapshotId = base.getId();
+        this.keyframeSnapshotId = base.isKeyframe() ? base.getId() : base.getKeyframeSnapshotId();
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,56 @@
+package com.example.investmenttracker.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Compressed payload of a {@link PortfolioSnapshot}, kept in its own table
+ * so listing snapshots never reads it. The data is the deflated UTF-8 JSON
+ * (a full portfolio for keyframes, a JSON Patch for deltas).
+ */
+@Entity
+@Table(name = "portfolio_snapshot_payloads")
+public class PortfolioSnapshotPayload {
+
+    @Id
+    private Long snapshotId;
+
+    @Column(nullable = false, length = 16777216)
+    private byte[] data;
+
+    // Uncompressed size in bytes, to size the inflate buffer
+    @Column(nullable = false)
+    private int rawSize;
+
+    public PortfolioSnapshotPayload() {
+    }
+
+    public PortfolioSnapshotPayload(Long snapshotId, byte[] data, int rawSize) {
+        this.snapshotId = snapshotId;
+        this.data = data;
+        this.rawSize = rawSize;
+    }
+
+    public Long getSnapshotId() {
+        return snapshotId;
+    }
+
+    public void setSnapshotId(Long snapshotId) {
+        this.snapshotId = snapshotId;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    public int getRawSize() {
+        return rawSize;
+    }
+
+    public void setRawSize(int rawSize) {
+        this.rawSize = rawSize;
+    }
+}
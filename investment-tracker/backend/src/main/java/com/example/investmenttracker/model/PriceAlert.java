@@ -0,0 +1,139 @@
+package com.example.investmenttracker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One-shot threshold on a ticker. Once it fires it is deactivated and keeps
+ * the price it fired at, until the user re-arms it.
+ */
+@Entity
+@Table(name = "price_alerts", indexes = @Index(name = "idx_price_alert_active_ticker", columnList = "active, ticker"))
+public class PriceAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
+    private User user;
+
+    @Column(nullable = false)
+    private String ticker;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AlertMetric metric;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AlertDirection direction;
+
+    // Price in the quote currency for PRICE, otherwise a signed percentage
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal threshold;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "triggered_at")
+    private LocalDateTime triggeredAt;
+
+    @Column(name = "triggered_price", precision = 19, scale = 4)
+    private BigDecimal triggeredPrice;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    public void setTicker(String ticker) {
+        this.ticker = ticker;
+    }
+
+    public AlertMetric getMetric() {
+        return metric;
+    }
+
+    public void setMetric(AlertMetric metric) {
+        this.metric = metric;
+    }
+
+    public AlertDirection getDirection() {
+        return direction;
+    }
+
+    public void setDirection(AlertDirection direction) {
+        this.direction = direction;
+    }
+
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(BigDecimal threshold) {
+        this.threshold = threshold;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getTriggeredAt() {
+        return triggeredAt;
+    }
+
+    public void setTriggeredAt(LocalDateTime triggeredAt) {
+        this.triggeredAt = triggeredAt;
+    }
+
+    public BigDecimal getTriggeredPrice() {
+        return triggeredPrice;
+    }
+
+    public void setTriggeredPrice(BigDecimal triggeredPrice) {
+        this.triggeredPrice = triggeredPrice;
+    }
+}
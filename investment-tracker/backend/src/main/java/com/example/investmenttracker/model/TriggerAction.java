@@ -10,7 +10,8 @@ public enum TriggerAction {
     ASSET_CREATED("Asset Created"),
     ASSET_UPDATED("Asset Updated"),
     ASSET_DELETED("Asset Deleted"),
-    MANUAL_EXPORT("Manual Export");
+    MANUAL_EXPORT("Manual Export"),
+    MULTIPLE_CHANGES("Multiple Changes");
 
     private final String displayName;
 
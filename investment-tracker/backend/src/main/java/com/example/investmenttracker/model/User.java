@@ -9,6 +9,8 @@ import java.util.List;
 @Table(name = "users")
 public class User {
 
+    public static final String DEFAULT_BASE_CURRENCY = "EUR";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -21,6 +23,10 @@ public class User {
 
     private String name;
 
+    // ISO 4217 code that prices and valuations are reported in; null means EUR
+    @Column(name = "base_currency", length = 3)
+    private String baseCurrency;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -77,6 +83,14 @@ public class User {
         this.name = name;
     }
 
+    public String getBaseCurrency() {
+        return baseCurrency != null ? baseCurrency : DEFAULT_BASE_CURRENCY;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
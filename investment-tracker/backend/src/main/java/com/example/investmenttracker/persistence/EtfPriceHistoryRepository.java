@@ -0,0 +1,34 @@
+package com.example.investmenttracker.persistence;
+
+import com.example.investmenttracker.model.EtfPriceHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EtfPriceHistoryRepository extends JpaRepository<EtfPriceHistory, Long> {
+
+    @Query("select min(h.priceDate) from EtfPriceHistory h where h.ticker = :ticker")
+    Optional<LocalDate> findFirstPriceDate(@Param("ticker") String ticker);
+
+    @Query("select max(h.priceDate) from EtfPriceHistory h where h.ticker = :ticker")
+    Optional<LocalDate> findLastPriceDate(@Param("ticker") String ticker);
+
+    Optional<EtfPriceHistory> findByTickerAndPriceDate(String ticker, LocalDate priceDate);
+
+    // Last close on or before a date, e.g. for a valuation on a non-trading day
+    Optional<EtfPriceHistory> findFirstByTickerAndPriceDateLessThanEqualOrderByPriceDateDesc(String ticker,
+            LocalDate priceDate);
+
+    List<EtfPriceHistory> findByTickerAndPriceDateBetweenOrderByPriceDateAsc(String ticker, LocalDate from,
+            LocalDate to);
+
+    List<EtfPriceHistory> findByTickerInAndPriceDateBetweenOrderByPriceDateAsc(Collection<String> tickers,
+            LocalDate from, LocalDate to);
+}
@@ -2,8 +2,11 @@ package com.example.investmenttracker.persistence;
 
 import com.example.investmenttracker.model.EtfPrice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +14,10 @@ public interface EtfPriceRepository extends JpaRepository<EtfPrice, Long> {
 
     Optional<EtfPrice> findByTicker(String ticker);
 
+    List<EtfPrice> findByTickerIn(Collection<String> tickers);
+
     void deleteByTicker(String ticker);
+
+    @Query("select distinct p.currency from EtfPrice p where p.currency is not null")
+    List<String> findDistinctCurrencies();
 }
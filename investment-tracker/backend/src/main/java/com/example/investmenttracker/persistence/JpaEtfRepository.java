@@ -29,4 +29,6 @@ public interface JpaEtfRepository extends JpaRepository<Etf, Long>, EtfRepositor
     List<Etf> findByUserId(Long userId);
 
     Optional<Etf> findByIdAndUserId(Long id, Long userId);
+
+    Optional<Etf> findFirstByUserIdAndTickerIgnoreCase(Long userId, String ticker);
 }
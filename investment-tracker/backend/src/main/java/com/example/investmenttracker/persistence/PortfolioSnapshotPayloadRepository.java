@@ -0,0 +1,9 @@
+package com.example.investmenttracker.persistence;
+
+import com.example.investmenttracker.model.PortfolioSnapshotPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PortfolioSnapshotPayloadRepository extends JpaRepository<PortfolioSnapshotPayload, Long> {
+}
@@ -1,17 +1,83 @@
 package com.example.investmenttracker.persistence;
 
+import com.example.investmenttracker.dto.PortfolioSnapshotSummary;
+import com.example.investmenttracker.dto.SnapshotPayloadRow;
 import com.example.investmenttracker.model.PortfolioSnapshot;
+import com.example.investmenttracker.model.TriggerAction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshot, Long> {
     List<PortfolioSnapshot> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    /**
+     * Snapshots strictly older than the cursor position ({@code createdAt},
+     * {@code id}), newest first, within [from, to) and, unless
+     * {@code allActions} is set, the given actions ({@code allActions} also
+     * keeps snapshots without a recorded action). Seeks on the (user_id, created_at, id) index, so each page costs the
+     * same however deep it is.
+     */
+    @Query("select new com.example.investmenttracker.dto.PortfolioSnapshotSummary("
+            + "s.id, s.versionId, s.createdAt, s.triggerAction, s.changeDetails, s.payloadSize) "
+            + "from PortfolioSnapshot s where s.user.id = :userId "
+            + "and (s.createdAt < :cursorTime or (s.createdAt = :cursorTime and s.id < :cursorId)) "
+            + "and s.createdAt >= :from and s.createdAt < :to "
+            + "and (:allActions = true or s.triggerAction in :actions) "
+            + "order by s.createdAt desc, s.id desc")
+    List<PortfolioSnapshotSummary> findSummaryPage(Long userId, LocalDateTime cursorTime, Long cursorId,
+            LocalDateTime from, LocalDateTime to, boolean allActions, Collection<TriggerAction> actions,
+            Pageable page);
+
+    /**
+     * Metadata of a user's snapshots created before the given time, oldest
+     * first; the candidates for retention.
+     */
+    @Query("select new com.example.investmenttracker.dto.PortfolioSnapshotSummary("
+            + "s.id, s.versionId, s.createdAt, s.triggerAction, s.changeDetails, s.payloadSize) "
+            + "from PortfolioSnapshot s where s.user.id = :userId and s.createdAt < :before "
+            + "order by s.createdAt asc, s.id asc")
+    List<PortfolioSnapshotSummary> findSummariesBefore(Long userId, LocalDateTime before);
+
+    @Query("select distinct s.user.id from PortfolioSnapshot s where s.createdAt < :before")
+    List<Long> findUserIdsWithSnapshotsBefore(LocalDateTime before);
+
+    /**
+     * A user's snapshots with their payloads in id order, so every delta
+     * comes after its base. Rows are fetched from a cursor in batches and
+     * are not managed entities; the stream must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new com.example.investmenttracker.dto.SnapshotPayloadRow("
+            + "s.id, s.versionId, s.createdAt, s.triggerAction, s.changeDetails, s.baseSnapshotId, p.data, p.rawSize) "
+            + "from PortfolioSnapshot s, PortfolioSnapshotPayload p "
+            + "where p.snapshotId = s.id and s.user.id = :userId order by s.id")
+    Stream<SnapshotPayloadRow> streamWithPayloads(Long userId);
+
     Optional<PortfolioSnapshot> findByVersionId(String versionId);
 
     Optional<PortfolioSnapshot> findByIdAndUserId(Long id, Long userId);
+
+    Optional<PortfolioSnapshot> findFirstByUserIdOrderByIdDesc(Long userId);
+
+    long countByKeyframeSnapshotId(Long keyframeSnapshotId);
+
+    /**
+     * Deltas of a chain up to and including the given snapshot, oldest first.
+     */
+    List<PortfolioSnapshot> findByKeyframeSnapshotIdAndIdLessThanEqualOrderByIdAsc(Long keyframeSnapshotId, Long id);
+
+    List<PortfolioSnapshot> findByKeyframeSnapshotIdAndIdGreaterThanOrderByIdAsc(Long keyframeSnapshotId, Long id);
 }
@@ -0,0 +1,47 @@
+package com.example.investmenttracker.persistence;
+
+import com.example.investmenttracker.model.AlertMetric;
+import com.example.investmenttracker.model.PriceAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
+    List<PriceAlert> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    Optional<PriceAlert> findByIdAndUserId(Long id, Long userId);
+
+    @Query("select a from PriceAlert a join fetch a.user where a.active = true")
+    List<PriceAlert> findActiveWithUser();
+
+    @Query("select a from PriceAlert a join fetch a.user "
+            + "where a.active = true and a.ticker = :ticker and a.metric = :metric")
+    List<PriceAlert> findActiveWithUser(@Param("ticker") String ticker, @Param("metric") AlertMetric metric);
+
+    @Query("select a from PriceAlert a join fetch a.user "
+            + "where a.active = true and a.ticker = :ticker and a.metric = :metric and a.user.id = :userId")
+    List<PriceAlert> findActiveWithUser(@Param("ticker") String ticker, @Param("metric") AlertMetric metric,
+            @Param("userId") Long userId);
+
+    /**
+     * Deactivate fired alerts in their own transaction; this runs after the
+     * price update has committed. Returns the number of alerts changed.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("update PriceAlert a set a.active = false, a.triggeredAt = :at, a.triggeredPrice = :price "
+            + "where a.id in :ids and a.active = true")
+    int markTriggered(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at,
+            @Param("price") BigDecimal price);
+}
@@ -0,0 +1,13 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.AlertNotification;
+
+/**
+ * Delivery channel for fired price alerts. Every sink bean receives every
+ * notification, after the alert has been marked as triggered; a failing sink
+ * does not affect the others.
+ */
+public interface AlertSink {
+
+    void deliver(AlertNotification notification);
+}
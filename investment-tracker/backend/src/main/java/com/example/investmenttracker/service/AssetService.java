@@ -1,9 +1,11 @@
 package com.example.investmenttracker.service;
 
 import com.example.investmenttracker.model.Asset;
+import com.example.investmenttracker.model.TriggerAction;
 import com.example.investmenttracker.model.User;
 import com.example.investmenttracker.persistence.JpaAssetRepository;
 import com.example.investmenttracker.storage.FileStorage;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
@@ -18,14 +20,17 @@ public class AssetService {
     private final FileStorage fileStorage;
     private final UserService userService;
     private final JpaAssetRepository jpaAssetRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final List<Asset> cache = new ArrayList<>();
 
     public AssetService(FileStorage fileStorage,
             UserService userService,
-            @Nullable JpaAssetRepository jpaAssetRepository) {
+            @Nullable JpaAssetRepository jpaAssetRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.fileStorage = fileStorage;
         this.userService = userService;
         this.jpaAssetRepository = jpaAssetRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     private boolean isUsingJpa() {
@@ -67,12 +72,12 @@ public class AssetService {
         User user = userService.findOrCreateUser(userEmail, "local", userEmail);
         asset.setUser(user);
 
-        if (isUsingJpa()) {
-            return jpaAssetRepository.save(asset);
+        Asset saved = isUsingJpa() ? jpaAssetRepository.save(asset) : asset;
+        if (!isUsingJpa()) {
+            cache.add(asset);
         }
-
-        cache.add(asset);
-        return asset;
+        eventPublisher.publishEvent(new PortfolioChangedEvent(userEmail, TriggerAction.ASSET_CREATED, describe(saved)));
+        return saved;
     }
 
     /**
@@ -88,7 +93,9 @@ public class AssetService {
             }
             asset.setId(id);
             asset.setUser(user);
-            return jpaAssetRepository.save(asset);
+            Asset saved = jpaAssetRepository.save(asset);
+            publishUpdated(saved, userEmail);
+            return saved;
         }
 
         for (int i = 0; i < cache.size(); i++) {
@@ -97,6 +104,7 @@ public class AssetService {
                 asset.setId(id);
                 asset.setUser(user);
                 cache.set(i, asset);
+                publishUpdated(asset, userEmail);
                 return asset;
             }
         }
@@ -112,11 +120,30 @@ public class AssetService {
                 return false;
             }
             jpaAssetRepository.deleteById(assetId);
+            publishDeleted(asset, userEmail);
             return true;
         }
 
-        return cache.removeIf(a -> Objects.equals(a.getId(), assetId) &&
-                a.getUser() != null &&
-                a.getUser().getId().equals(user.getId()));
+        for (Asset asset : cache) {
+            if (Objects.equals(asset.getId(), assetId) && asset.getUser() != null
+                    && asset.getUser().getId().equals(user.getId())) {
+                cache.remove(asset);
+                publishDeleted(asset, userEmail);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void publishUpdated(Asset asset, String userEmail) {
+        eventPublisher.publishEvent(new PortfolioChangedEvent(userEmail, TriggerAction.ASSET_UPDATED, describe(asset)));
+    }
+
+    private void publishDeleted(Asset asset, String userEmail) {
+        eventPublisher.publishEvent(new PortfolioChangedEvent(userEmail, TriggerAction.ASSET_DELETED, asset.getName()));
+    }
+
+    private static String describe(Asset asset) {
+        return String.format("%s: %.1f%%", asset.getName(), asset.getAllocationPercentage());
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.investmenttracker.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Admin check of the {@link EtfPositionProjection} at
+ * {@code /actuator/positions}: GET compares it with a full recompute from
+ * the transactions, POST drops it so it is rebuilt on the next read. The
+ * result names users, so it is only served on the loopback-bound
+ * management port.
+ */
+@Component
+@Endpoint(id = "positions")
+public class EtfPositionEndpoint {
+
+    private final EtfPositionProjection projection;
+
+    public EtfPositionEndpoint(EtfPositionProjection projection) {
+        this.projection = projection;
+    }
+
+    @ReadOperation
+    public EtfPositionProjection.Verification verify() {
+        return projection.verify();
+    }
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("usersDropped", projection.rebuild());
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.HoldingPosition;
+import com.example.investmenttracker.model.Etf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Current per-ETF positions of a user, so the summary reads them in
+ * O(number of ETFs) instead of folding every transaction on each request.
+ *
+ * An ETF's position is folded from its transactions by
+ * {@link PositionFold} on first read, with the same running average cost
+ * as holdings on any date. {@link EtfTransactionService} reports every
+ * create, update and delete; once its transaction commits, only that ETF's
+ * position is dropped and refolded on the next read. A running average
+ * depends on the order of the transactions, so a change is never applied
+ * as a delta.
+ *
+ * A fold that overlaps a commit is used for that read but not kept.
+ * {@link #verify()} refolds the ETFs held for loaded users and reports any
+ * difference.
+ */
+@Service
+public class EtfPositionProjection {
+
+    private static final Logger logger = LoggerFactory.getLogger(EtfPositionProjection.class);
+
+    private final EtfService etfService;
+    // Each user's positions by ETF id, replaced as a whole on every change
+    private final UserCache<Map<Long, Position>> users = new UserCache<>();
+
+    public EtfPositionProjection(EtfService etfService) {
+        this.etfService = etfService;
+    }
+
+    /**
+     * Current positions of the user's ETFs, fully sold ones left out.
+     */
+    @Transactional(readOnly = true)
+    public List<HoldingPosition> positionsFor(String userEmail) {
+        long seen = users.stamp();
+        Map<Long, Position> held = users.get(userEmail);
+        Map<Long, Position> folded = new HashMap<>();
+        List<HoldingPosition> positions = new ArrayList<>();
+        for (Etf etf : etfService.getAllEtfs(userEmail)) {
+            Position position = held != null ? held.get(etf.getId()) : null;
+            if (position == null) {
+                position = Position.of(etf);
+                folded.put(etf.getId(), position);
+            }
+            if (position.units().signum() > 0) {
+                positions.add(position.toHoldingPosition(etf));
+            }
+        }
+        if (!folded.isEmpty()) {
+            users.update(userEmail, seen, current -> {
+                Map<Long, Position> updated = current != null ? new HashMap<>(current) : new HashMap<>();
+                updated.putAll(folded);
+                return Map.copyOf(updated);
+            });
+        }
+        return positions;
+    }
+
+    /**
+     * Record that a transaction of {@code etf} was created, updated or
+     * deleted. Within a transaction the ETF is dropped after commit.
+     */
+    public void onTransactionChanged(Etf etf) {
+        if (etf.getUser() == null) {
+            return;
+        }
+        String userEmail = etf.getUser().getEmail();
+        Long etfId = etf.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userEmail, etfId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(userEmail, etfId);
+            }
+        });
+    }
+
+    /**
+     * Refold every ETF held for a loaded user and compare.
+     */
+    @Transactional(readOnly = true)
+    public Verification verify() {
+        int etfs = 0;
+        List<Mismatch> mismatches = new ArrayList<>();
+        Set<String> emails = users.users();
+        for (String userEmail : emails) {
+            Map<Long, Position> projected = users.get(userEmail);
+            if (projected == null) {
+                continue;
+            }
+            for (Etf etf : etfService.getAllEtfs(userEmail)) {
+                Position actual = projected.get(etf.getId());
+                if (actual == null) {
+                    continue;
+                }
+                etfs++;
+                Position expected = Position.of(etf);
+                if (!actual.matches(expected)) {
+                    mismatches.add(new Mismatch(userEmail, etf.getId(), actual, expected));
+                }
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            logger.warn("ETF position projection differs from the transactions for {} ETF(s)", mismatches.size());
+        }
+        return new Verification(emails.size(), etfs, mismatches);
+    }
+
+    /**
+     * Drop every loaded user so the next read refolds from the
+     * transactions. Returns the number of users dropped.
+     */
+    public int rebuild() {
+        int dropped = users.clear();
+        logger.info("Dropped ETF positions of {} user(s)", dropped);
+        return dropped;
+    }
+
+    private void invalidate(String userEmail, Long etfId) {
+        users.change(userEmail, held -> {
+            Map<Long, Position> updated = new HashMap<>(held);
+            updated.remove(etfId);
+            return updated.isEmpty() ? null : Map.copyOf(updated);
+        });
+    }
+
+    /**
+     * An ETF's position after all its transactions: units held, their cost
+     * and fees at the running average, and the number of transactions.
+     */
+    public record Position(BigDecimal units, BigDecimal costBasis, BigDecimal fees, int transactions) {
+
+        static final Position NONE = new Position(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0);
+
+        static Position of(Etf etf) {
+            PositionFold fold = PositionFold.of(etf.getTransactions());
+            return fold.units().signum() > 0
+                    ? new Position(fold.units(), fold.cost(), fold.fees(), fold.transactions())
+                    : NONE;
+        }
+
+        boolean matches(Position other) {
+            return transactions == other.transactions
+                    && units.compareTo(other.units) == 0
+                    && costBasis.compareTo(other.costBasis) == 0
+                    && fees.compareTo(other.fees) == 0;
+        }
+
+        HoldingPosition toHoldingPosition(Etf etf) {
+            return new HoldingPosition(etf.getId(), etf.getTicker(), etf.getName(), units, costBasis, fees,
+                    transactions);
+        }
+    }
+
+    /**
+     * An ETF whose projected position differs from a fresh fold.
+     */
+    public record Mismatch(String userEmail, Long etfId, Position projected, Position recomputed) {
+    }
+
+    /**
+     * Result of {@link #verify()}: users and ETFs compared, and differences.
+     */
+    public record Verification(int users, int etfs, List<Mismatch> mismatches) {
+    }
+}
@@ -2,17 +2,19 @@ package com.example.investmenttracker.service;
 
 import com.example.investmenttracker.dto.EtfPriceResponse;
 import com.example.investmenttracker.dto.YahooFinanceResponse;
+import com.example.investmenttracker.exception.PriceUnavailableException;
 import com.example.investmenttracker.model.EtfPrice;
 import com.example.investmenttracker.persistence.EtfPriceRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -26,17 +28,22 @@ public class EtfPriceService {
     private static final int CACHE_FRESHNESS_MINUTES = 30;
 
     private final EtfPriceRepository etfPriceRepository;
-    private final YahooFinanceService yahooFinanceService;
-    private final EtfService etfService;
-
-    public EtfPriceService(EtfPriceRepository etfPriceRepository, YahooFinanceService yahooFinanceService,
-            EtfService etfService) {
+    private final PriceProvider priceProvider;
+    private final PriceUpdatePublisher priceUpdatePublisher;
+    private final PriceAlertService priceAlertService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EtfPriceService(EtfPriceRepository etfPriceRepository, PriceProvider priceProvider,
+            PriceUpdatePublisher priceUpdatePublisher, PriceAlertService priceAlertService,
+            ApplicationEventPublisher eventPublisher) {
         this.etfPriceRepository = etfPriceRepository;
-        this.yahooFinanceService = yahooFinanceService;
-        this.etfService = etfService;
+        this.priceProvider = priceProvider;
+        this.priceUpdatePublisher = priceUpdatePublisher;
+        this.priceAlertService = priceAlertService;
+        this.eventPublisher = eventPublisher;
     }
 
-    @Cacheable(value = "etfPrices", key = "#ticker")
+    @Cacheable(value = "etfPrices", key = "#ticker", unless = "#result.stale")
     public EtfPriceResponse getPrice(String ticker) {
         logger.debug("Getting price for ticker: {}", ticker);
 
@@ -49,24 +56,24 @@ public class EtfPriceService {
         }
 
         // If not in cache or stale, fetch from API
-        return fetchAndSavePrice(ticker);
+        return fetchAndSavePrice(ticker, RequestPriority.INTERACTIVE);
     }
 
+    // Not transactional: the provider call may wait for a rate limiter token, and each save commits on its own
     @CacheEvict(value = "etfPrices", key = "#ticker")
-    @Transactional
     public EtfPriceResponse refreshPrice(String ticker) {
         logger.info("Refreshing price for ticker: {}", ticker);
-        return fetchAndSavePrice(ticker);
+        return fetchAndSavePrice(ticker, RequestPriority.INTERACTIVE);
     }
 
+    // Not transactional: a bulk refresh waits for rate limiter tokens between tickers
     @CacheEvict(value = "etfPrices", allEntries = true)
-    @Transactional
     public List<EtfPriceResponse> refreshAllPrices(List<String> tickers) {
         logger.info("Refreshing prices for {} tickers", tickers.size());
         return tickers.stream()
                 .map(ticker -> {
                     try {
-                        return fetchAndSavePrice(ticker);
+                        return fetchAndSavePrice(ticker, RequestPriority.BULK);
                     } catch (Exception e) {
                         logger.warn("Skipping {}: {}", ticker, e.getMessage());
                         return null;
@@ -82,28 +89,27 @@ public class EtfPriceService {
                 .collect(Collectors.toList());
     }
 
-    private EtfPriceResponse fetchAndSavePrice(String ticker) {
-        try {
-            // Get the ETF to check if it has a custom Yahoo Finance ticker
-            String yahooTicker = null;
-            try {
-                var etfs = etfService.getAllEtfsInternal();
-                var etf = etfs.stream()
-                        .filter(e -> e.getTicker().equalsIgnoreCase(ticker))
-                        .findFirst()
-                        .orElse(null);
-
-                if (etf != null) {
-                    yahooTicker = etf.getYahooFinanceTicker();
-                    if (yahooTicker != null && !yahooTicker.trim().isEmpty()) {
-                        logger.debug("Using custom Yahoo ticker for {}: {}", ticker, yahooTicker);
-                    }
-                }
-            } catch (Exception e) {
-                logger.debug("No ETF found for ticker {}, will use default mapping", ticker);
-            }
+    /**
+     * Stored prices of the given tickers, read in one query without calling
+     * the provider. Prices older than the freshness window are marked stale.
+     */
+    public List<EtfPriceResponse> getStoredPrices(Collection<String> tickers) {
+        if (tickers.isEmpty()) {
+            return List.of();
+        }
+        return etfPriceRepository.findByTickerIn(tickers).stream()
+                .map(etfPrice -> {
+                    EtfPriceResponse response = toResponse(etfPrice);
+                    response.setStale(etfPrice.getLastUpdated() == null || !isFresh(etfPrice.getLastUpdated()));
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
 
-            YahooFinanceResponse response = yahooFinanceService.fetchPrice(ticker, yahooTicker);
+    private EtfPriceResponse fetchAndSavePrice(String ticker, RequestPriority priority) {
+        try {
+            // Custom Yahoo symbols configured on the ETF are resolved by the symbol index
+            YahooFinanceResponse response = priceProvider.fetchPrice(ticker, null, priority);
 
             if (response == null || response.getChart() == null ||
                     response.getChart().getResult() == null ||
@@ -119,23 +125,44 @@ public class EtfPriceService {
 
             BigDecimal price = BigDecimal.valueOf(meta.getRegularMarketPrice());
             String currency = meta.getCurrency() != null ? meta.getCurrency() : DEFAULT_CURRENCY;
+            Double previousClose = meta.getPreviousClose() != null
+                    ? meta.getPreviousClose()
+                    : meta.getChartPreviousClose();
             LocalDateTime now = LocalDateTime.now();
 
             // Save or update in database
             EtfPrice etfPrice = etfPriceRepository.findByTicker(ticker)
                     .orElse(new EtfPrice());
+            BigDecimal previousPrice = etfPrice.getPrice();
 
             etfPrice.setTicker(ticker);
             etfPrice.setPrice(price);
             etfPrice.setCurrency(currency);
+            etfPrice.setPreviousClose(previousClose != null ? BigDecimal.valueOf(previousClose) : null);
             etfPrice.setLastUpdated(now);
             etfPrice.setSource(PRICE_SOURCE);
 
             etfPrice = etfPriceRepository.save(etfPrice);
             logger.info("Saved price for {}: {} {}", ticker, price, currency);
 
-            return toResponse(etfPrice);
-
+            EtfPriceResponse saved = toResponse(etfPrice);
+            if (previousPrice == null || previousPrice.compareTo(etfPrice.getPrice()) != 0) {
+                priceUpdatePublisher.publish(saved);
+                eventPublisher.publishEvent(new PriceChangedEvent(ticker, now.toLocalDate()));
+            }
+            priceAlertService.onPriceUpdate(ticker, etfPrice.getPrice(), etfPrice.getPreviousClose());
+            return saved;
+
+        } catch (PriceUnavailableException e) {
+            // Provider is backing off or the circuit is open: serve the last known price if we have one
+            Optional<EtfPrice> lastKnown = etfPriceRepository.findByTicker(ticker);
+            if (lastKnown.isPresent()) {
+                logger.debug("Serving last known price for {} ({})", ticker, e.getCode());
+                EtfPriceResponse response = toResponse(lastKnown.get());
+                response.setStale(true);
+                return response;
+            }
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching and saving price for {}: {}", ticker, e.getMessage());
             throw new RuntimeException("price.fetch.failed: " + ticker, e);
@@ -148,11 +175,13 @@ public class EtfPriceService {
     }
 
     private EtfPriceResponse toResponse(EtfPrice etfPrice) {
-        return new EtfPriceResponse(
+        EtfPriceResponse response = new EtfPriceResponse(
                 etfPrice.getTicker(),
                 etfPrice.getPrice(),
                 etfPrice.getCurrency(),
                 etfPrice.getLastUpdated(),
                 etfPrice.getSource());
+        response.setPreviousClose(etfPrice.getPreviousClose());
+        return response;
     }
 }
@@ -1,11 +1,13 @@
 package com.example.investmenttracker.service;
 
 import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.TriggerAction;
 import com.example.investmenttracker.model.User;
 import com.example.investmenttracker.persistence.EtfRepository;
 import com.example.investmenttracker.persistence.JpaEtfRepository;
 import com.example.investmenttracker.exception.ResourceConflictException;
 import com.example.investmenttracker.exception.ValidationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,18 +21,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 public class EtfService {
     private final EtfRepository etfRepository;
     private final UserService userService;
+    private final TickerSymbolIndex symbolIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public EtfService(EtfRepository etfRepository, UserService userService) {
+    public EtfService(EtfRepository etfRepository, UserService userService, TickerSymbolIndex symbolIndex,
+            ApplicationEventPublisher eventPublisher) {
         this.etfRepository = etfRepository;
         this.userService = userService;
-    }
-
-    /**
-     * Internal method to get all ETFs without user filtering.
-     * Used by internal services like EtfPriceService.
-     */
-    protected List<Etf> getAllEtfsInternal() {
-        return etfRepository.findAll();
+        this.symbolIndex = symbolIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Etf> getAllEtfs(String userEmail) {
@@ -116,7 +115,10 @@ public class EtfService {
             }
         }
 
-        return etfRepository.save(etf);
+        Etf saved = etfRepository.save(etf);
+        symbolIndex.onEtfSaved(saved);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(userEmail, TriggerAction.ETF_CREATED, describe(saved)));
+        return saved;
     }
 
     public Etf updateEtf(Long id, Etf updatedEtf, String userEmail) {
@@ -155,7 +157,10 @@ public class EtfService {
         existingEtf.setTer(updatedEtf.getTer());
         existingEtf.setNotes(updatedEtf.getNotes());
 
-        return etfRepository.save(existingEtf);
+        Etf saved = etfRepository.save(existingEtf);
+        symbolIndex.onEtfSaved(saved);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(userEmail, TriggerAction.ETF_UPDATED, describe(saved)));
+        return saved;
     }
 
     public void deleteEtf(Long id, String userEmail) {
@@ -167,5 +172,11 @@ public class EtfService {
             throw new ValidationException("etf.delete.has.transactions");
         }
         etfRepository.delete(id);
+        symbolIndex.onEtfDeleted(etf);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(userEmail, TriggerAction.ETF_DELETED, describe(etf)));
+    }
+
+    private static String describe(Etf etf) {
+        return String.format("%s (%s)", etf.getTicker(), etf.getName());
     }
 }
\ No newline at end of file
@@ -2,12 +2,15 @@ package com.example.investmenttracker.service;
 
 import com.example.investmenttracker.model.Etf;
 import com.example.investmenttracker.model.EtfTransaction;
+import com.example.investmenttracker.model.TriggerAction;
 import com.example.investmenttracker.exception.ValidationException;
 import com.example.investmenttracker.persistence.EtfRepository;
 import com.example.investmenttracker.persistence.EtfTransactionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,10 +20,18 @@ public class EtfTransactionService {
 
     private final EtfTransactionRepository transactionRepository;
     private final EtfRepository etfRepository;
+    private final PriceAlertService priceAlertService;
+    private final EtfPositionProjection positions;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public EtfTransactionService(EtfTransactionRepository transactionRepository, EtfRepository etfRepository) {
+    public EtfTransactionService(EtfTransactionRepository transactionRepository, EtfRepository etfRepository,
+            PriceAlertService priceAlertService, EtfPositionProjection positions,
+            ApplicationEventPublisher eventPublisher) {
         this.transactionRepository = transactionRepository;
         this.etfRepository = etfRepository;
+        this.priceAlertService = priceAlertService;
+        this.positions = positions;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<EtfTransaction> getAllTransactionsForEtf(Long etfId) {
@@ -35,12 +46,17 @@ public class EtfTransactionService {
         Etf etf = etfRepository.findById(etfId)
                 .orElseThrow(() -> new ValidationException("transaction.etf.not.found", etfId));
         transaction.setEtf(etf);
-        return transactionRepository.save(transaction);
+        EtfTransaction saved = transactionRepository.save(transaction);
+        positions.onTransactionChanged(etf);
+        priceAlertService.onHoldingsChanged(etf.getTicker(), etf.getUser());
+        publishChange(saved, saved.getTransactionDate(), TriggerAction.TRANSACTION_ADDED, describe(saved));
+        return saved;
     }
 
     public EtfTransaction updateTransaction(Long id, EtfTransaction transactionDetails) {
         EtfTransaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new ValidationException("transaction.not.found", id));
+        LocalDate previousDate = transaction.getTransactionDate();
 
         transaction.setTransactionDate(transactionDetails.getTransactionDate());
         transaction.setTransactionType(transactionDetails.getTransactionType());
@@ -48,12 +64,37 @@ public class EtfTransactionService {
         transaction.setTransactionCost(transactionDetails.getTransactionCost());
         transaction.setTransactionFees(transactionDetails.getTransactionFees());
 
-        return transactionRepository.save(transaction);
+        EtfTransaction saved = transactionRepository.save(transaction);
+        positions.onTransactionChanged(saved.getEtf());
+        priceAlertService.onHoldingsChanged(saved.getEtf().getTicker(), saved.getEtf().getUser());
+        LocalDate from = previousDate == null || previousDate.isAfter(saved.getTransactionDate())
+                ? saved.getTransactionDate()
+                : previousDate;
+        publishChange(saved, from, TriggerAction.TRANSACTION_UPDATED, describe(saved));
+        return saved;
     }
 
     public void deleteTransaction(Long id) {
         EtfTransaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new ValidationException("transaction.not.found", id));
         transactionRepository.delete(transaction);
+        positions.onTransactionChanged(transaction.getEtf());
+        priceAlertService.onHoldingsChanged(transaction.getEtf().getTicker(), transaction.getEtf().getUser());
+        publishChange(transaction, transaction.getTransactionDate(), TriggerAction.TRANSACTION_DELETED,
+                describe(transaction));
+    }
+
+    private void publishChange(EtfTransaction transaction, LocalDate from, TriggerAction action, String details) {
+        Etf etf = transaction.getEtf();
+        if (etf.getUser() != null) {
+            eventPublisher.publishEvent(new PortfolioChangedEvent(etf.getUser().getEmail(), action, details));
+            eventPublisher.publishEvent(new TransactionChangedEvent(etf.getUser().getEmail(), etf.getTicker(), from));
+        }
+    }
+
+    private static String describe(EtfTransaction transaction) {
+        return String.format("%s: %s %.3f units @ %s",
+                transaction.getEtf().getTicker(), transaction.getTransactionType(),
+                transaction.getUnitsPurchased(), transaction.getTransactionDate());
     }
 }
@@ -0,0 +1,255 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.ExitTaxProjection;
+import com.example.investmenttracker.dto.ExitTaxProjection.EventType;
+import com.example.investmenttracker.dto.ExitTaxProjection.PriceSource;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfTransaction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exit tax on ETF lots under the deemed disposal rule.
+ *
+ * Every buy is a lot. Each lot is deemed sold at market value on every
+ * 8-year anniversary of its purchase up to the horizon, and sales take
+ * units from the oldest lots first. Tax is always worked out on the whole
+ * gain since purchase; the deemed disposal tax already paid on the same
+ * units is credited, so a later cycle or a sale only pays the difference
+ * (and a sale below the last deemed value gives a refund). Losses are not
+ * taxed negatively.
+ *
+ * Lots need FIFO rather than the running average, but transactions are
+ * ordered, and buy costs and sale proceeds counted, as in
+ * {@link PositionFold}.
+ *
+ * Prices come from a {@link PriceLookup}; this class does no I/O.
+ */
+final class ExitTaxCalculator {
+
+    static final int CYCLE_YEARS = 8;
+    private static final int MONEY_SCALE = 2;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    /**
+     * Price of one unit in the base currency on a date, or null if unknown.
+     */
+    interface PriceLookup {
+        Quote priceOn(String ticker, LocalDate date);
+    }
+
+    record Quote(BigDecimal price, PriceSource source) {
+    }
+
+    private final BigDecimal taxRatePercent;
+    private final BigDecimal taxRate;
+    private final LocalDate asOf;
+    private final LocalDate horizon;
+    private final PriceLookup prices;
+
+    ExitTaxCalculator(BigDecimal taxRatePercent, LocalDate asOf, LocalDate horizon, PriceLookup prices) {
+        this.taxRatePercent = taxRatePercent;
+        this.taxRate = taxRatePercent.divide(HUNDRED, MathContext.DECIMAL64);
+        this.asOf = asOf;
+        this.horizon = horizon;
+        this.prices = prices;
+    }
+
+    ExitTaxProjection calculate(List<Etf> etfs, String baseCurrency) {
+        ExitTaxProjection projection = new ExitTaxProjection(baseCurrency, taxRatePercent, asOf,
+                horizon);
+        for (Etf etf : etfs) {
+            projection.getLots().addAll(lotsOf(etf));
+        }
+
+        Map<Integer, ExitTaxProjection.YearTax> years = new TreeMap<>();
+        BigDecimal toDate = BigDecimal.ZERO;
+        BigDecimal projected = BigDecimal.ZERO;
+        for (ExitTaxProjection.Lot lot : projection.getLots()) {
+            for (ExitTaxProjection.TaxEvent event : lot.getEvents()) {
+                if (event.getTax() == null) {
+                    continue;
+                }
+                int year = event.getDate().getYear();
+                ExitTaxProjection.YearTax yearTax = years.computeIfAbsent(year,
+                        y -> new ExitTaxProjection.YearTax(y, y > asOf.getYear()));
+                if (event.getType() == EventType.DEEMED_DISPOSAL) {
+                    yearTax.setDeemedDisposalTax(yearTax.getDeemedDisposalTax().add(event.getTax()));
+                } else {
+                    yearTax.setSaleTax(yearTax.getSaleTax().add(event.getTax()));
+                }
+                yearTax.setCredit(yearTax.getCredit().add(event.getCredit()));
+                yearTax.setTotal(yearTax.getTotal().add(event.getTax()));
+                if (event.isProjected()) {
+                    projected = projected.add(event.getTax());
+                } else {
+                    toDate = toDate.add(event.getTax());
+                }
+            }
+        }
+        projection.setYears(new ArrayList<>(years.values()));
+        projection.setTaxToDate(toDate);
+        projection.setProjectedTax(projected);
+        return projection;
+    }
+
+    private List<ExitTaxProjection.Lot> lotsOf(Etf etf) {
+        List<EtfTransaction> transactions = PositionFold.ordered(etf.getTransactions());
+
+        List<LotState> lots = new ArrayList<>();
+        List<Step> steps = new ArrayList<>();
+        for (EtfTransaction transaction : transactions) {
+            if (PositionFold.isSale(transaction)) {
+                steps.add(new Step(transaction.getTransactionDate(), null, transaction));
+                continue;
+            }
+            LotState lot = new LotState(etf, transaction);
+            lots.add(lot);
+            for (LocalDate date = transaction.getTransactionDate().plusYears(CYCLE_YEARS); !date.isAfter(horizon);
+                    date = date.plusYears(CYCLE_YEARS)) {
+                steps.add(new Step(date, lot, null));
+            }
+        }
+        // Sales on an anniversary go first: the units sold are no longer held
+        steps.sort(Comparator.comparing(Step::date).thenComparing(step -> step.lot() != null));
+
+        boolean heldRecorded = false;
+        for (Step step : steps) {
+            if (!heldRecorded && step.date().isAfter(asOf)) {
+                recordHeld(lots);
+                heldRecorded = true;
+            }
+            if (step.lot() != null) {
+                deemedDisposal(step.lot(), step.date());
+            } else {
+                sale(lots, step.sale());
+            }
+        }
+        if (!heldRecorded) {
+            recordHeld(lots);
+        }
+
+        List<ExitTaxProjection.Lot> result = new ArrayList<>(lots.size());
+        for (LotState lot : lots) {
+            result.add(lot.lot);
+        }
+        return result;
+    }
+
+    private void deemedDisposal(LotState lot, LocalDate date) {
+        if (lot.held.signum() <= 0) {
+            return;
+        }
+        Quote quote = prices.priceOn(lot.lot.getTicker(), date);
+        ExitTaxProjection.TaxEvent event = event(date, EventType.DEEMED_DISPOSAL, lot.held, lot.cost);
+        if (quote != null && quote.price() != null) {
+            BigDecimal gain = lot.held.multiply(quote.price()).subtract(lot.cost);
+            BigDecimal grossTax = taxOn(gain);
+            BigDecimal credit = grossTax.min(lot.taxPaid);
+            BigDecimal tax = grossTax.subtract(credit);
+            lot.taxPaid = lot.taxPaid.add(tax);
+            complete(event, quote.price(), quote.source(), gain, grossTax, credit, tax);
+        }
+        lot.lot.getEvents().add(event);
+    }
+
+    private void sale(List<LotState> lots, EtfTransaction sale) {
+        BigDecimal remaining = sale.getUnitsPurchased();
+        BigDecimal proceeds = PositionFold.proceeds(sale);
+        BigDecimal pricePerUnit = proceeds.divide(remaining, MathContext.DECIMAL64);
+        for (LotState lot : lots) {
+            if (remaining.signum() <= 0) {
+                break;
+            }
+            if (lot.held.signum() <= 0 || lot.lot.getPurchaseDate().isAfter(sale.getTransactionDate())) {
+                continue;
+            }
+            BigDecimal units = remaining.min(lot.held);
+            BigDecimal share = units.divide(lot.held, MathContext.DECIMAL64);
+            BigDecimal cost = lot.cost.multiply(share, MathContext.DECIMAL64);
+            BigDecimal credit = lot.taxPaid.multiply(share, MathContext.DECIMAL64);
+            BigDecimal gain = units.multiply(pricePerUnit).subtract(cost);
+            BigDecimal grossTax = taxOn(gain);
+
+            ExitTaxProjection.TaxEvent event = event(sale.getTransactionDate(), EventType.SALE, units, cost);
+            complete(event, pricePerUnit, PriceSource.SALE, gain, grossTax, credit, grossTax.subtract(credit));
+            lot.lot.getEvents().add(event);
+
+            lot.held = lot.held.subtract(units);
+            lot.cost = lot.cost.subtract(cost);
+            lot.taxPaid = lot.taxPaid.subtract(credit);
+            remaining = remaining.subtract(units);
+        }
+    }
+
+    private ExitTaxProjection.TaxEvent event(LocalDate date, EventType type, BigDecimal units, BigDecimal cost) {
+        ExitTaxProjection.TaxEvent event = new ExitTaxProjection.TaxEvent();
+        event.setDate(date);
+        event.setType(type);
+        event.setProjected(date.isAfter(asOf));
+        event.setUnits(units);
+        event.setCost(money(cost));
+        return event;
+    }
+
+    private static void complete(ExitTaxProjection.TaxEvent event, BigDecimal price, PriceSource source,
+            BigDecimal gain, BigDecimal grossTax, BigDecimal credit, BigDecimal tax) {
+        event.setPrice(price);
+        event.setPriceSource(source);
+        event.setGain(money(gain));
+        event.setGrossTax(money(grossTax));
+        event.setCredit(money(credit));
+        event.setTax(money(tax));
+    }
+
+    private BigDecimal taxOn(BigDecimal gain) {
+        return gain.signum() > 0 ? gain.multiply(taxRate, MathContext.DECIMAL64) : BigDecimal.ZERO;
+    }
+
+    private static void recordHeld(List<LotState> lots) {
+        for (LotState lot : lots) {
+            lot.lot.setUnitsHeld(lot.held);
+        }
+    }
+
+    private static BigDecimal money(BigDecimal amount) {
+        return amount.setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * A deemed disposal of {@code lot}, or a {@code sale}, on a date.
+     */
+    private record Step(LocalDate date, LotState lot, EtfTransaction sale) {
+    }
+
+    /**
+     * A lot while events are applied: units still held, their cost and the
+     * deemed disposal tax paid on them.
+     */
+    private static final class LotState {
+        private final ExitTaxProjection.Lot lot;
+        private BigDecimal held;
+        private BigDecimal cost;
+        private BigDecimal taxPaid = BigDecimal.ZERO;
+
+        private LotState(Etf etf, EtfTransaction buy) {
+            this.held = buy.getUnitsPurchased();
+            this.cost = PositionFold.paid(buy);
+            this.lot = new ExitTaxProjection.Lot();
+            lot.setEtfId(etf.getId());
+            lot.setTicker(etf.getTicker());
+            lot.setTransactionId(buy.getId());
+            lot.setPurchaseDate(buy.getTransactionDate());
+            lot.setUnits(buy.getUnitsPurchased());
+            lot.setCost(money(cost));
+        }
+    }
+}
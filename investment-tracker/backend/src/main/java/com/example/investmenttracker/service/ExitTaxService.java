@@ -0,0 +1,138 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import com.example.investmenttracker.dto.ExitTaxProjection;
+import com.example.investmenttracker.dto.ExitTaxProjection.PriceSource;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfPriceHistory;
+import com.example.investmenttracker.persistence.EtfPriceHistoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Projects a user's deemed disposal exit tax with {@link ExitTaxCalculator}.
+ *
+ * Past deemed disposals are valued at the stored close on (or before) the
+ * date, falling back to the current price; future ones at the current
+ * price. Only stored prices are used, so the projection never calls the
+ * provider. Results are kept per user until one of their transactions or a
+ * price of one of their tickers changes, or the day, tax rate or base
+ * currency changes.
+ */
+@Service
+public class ExitTaxService {
+
+    private final EtfService etfService;
+    private final UserService userService;
+    private final SettingsService settingsService;
+    private final EtfPriceService etfPriceService;
+    private final FxRateService fxRateService;
+    private final EtfPriceHistoryRepository historyRepository;
+    private final int projectionYears;
+    private final UserCache<Projection> projections = new UserCache<>();
+
+    public ExitTaxService(EtfService etfService, UserService userService, SettingsService settingsService,
+            EtfPriceService etfPriceService, FxRateService fxRateService,
+            EtfPriceHistoryRepository historyRepository,
+            @Value("${app.tax.projection-years:24}") int projectionYears) {
+        this.etfService = etfService;
+        this.userService = userService;
+        this.settingsService = settingsService;
+        this.etfPriceService = etfPriceService;
+        this.fxRateService = fxRateService;
+        this.historyRepository = historyRepository;
+        this.projectionYears = projectionYears;
+    }
+
+    @Transactional(readOnly = true)
+    public ExitTaxProjection getProjection(String userEmail) {
+        LocalDate today = LocalDate.now();
+        BigDecimal taxRate = taxRate();
+        String baseCurrency = userService.getBaseCurrency(userEmail);
+        Projection cached = projections.get(userEmail);
+        if (cached != null && cached.asOf().equals(today) && cached.taxRate().compareTo(taxRate) == 0
+                && cached.baseCurrency().equals(baseCurrency)) {
+            return cached.result();
+        }
+
+        long seen = projections.stamp();
+        List<Etf> etfs = etfService.getAllEtfs(userEmail);
+        Set<String> tickers = new HashSet<>();
+        for (Etf etf : etfs) {
+            if (etf.getTicker() != null) {
+                tickers.add(etf.getTicker());
+            }
+        }
+        ExitTaxCalculator calculator = new ExitTaxCalculator(taxRate, today, today.plusYears(projectionYears),
+                prices(tickers, baseCurrency, today));
+        ExitTaxProjection result = calculator.calculate(etfs, baseCurrency);
+
+        Set<String> keys = new HashSet<>();
+        for (String ticker : tickers) {
+            keys.add(ticker.toUpperCase(Locale.ROOT));
+        }
+        projections.put(userEmail, seen, new Projection(result, keys, today, taxRate, baseCurrency));
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        projections.invalidate(event.userEmail());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        String ticker = event.ticker().toUpperCase(Locale.ROOT);
+        projections.changeAll(projection -> projection.tickers().contains(ticker) ? null : projection);
+    }
+
+    private ExitTaxCalculator.PriceLookup prices(Set<String> tickers, String baseCurrency, LocalDate today) {
+        Map<String, BigDecimal> current = new HashMap<>();
+        for (EtfPriceResponse price : fxRateService.toBaseCurrency(etfPriceService.getStoredPrices(tickers),
+                baseCurrency)) {
+            BigDecimal value = price.getPriceInBaseCurrency() != null ? price.getPriceInBaseCurrency()
+                    : price.getPrice();
+            if (value != null) {
+                current.put(price.getTicker(), value);
+            }
+        }
+        return (ticker, date) -> {
+            if (!date.isAfter(today)) {
+                Optional<EtfPriceHistory> close = historyRepository
+                        .findFirstByTickerAndPriceDateLessThanEqualOrderByPriceDateDesc(ticker, date);
+                BigDecimal converted = close
+                        .map(bar -> fxRateService.convert(bar.getClosePrice(), bar.getCurrency(), baseCurrency))
+                        .orElse(null);
+                if (converted != null) {
+                    return new ExitTaxCalculator.Quote(converted, PriceSource.HISTORICAL);
+                }
+            }
+            BigDecimal price = current.get(ticker);
+            return price != null ? new ExitTaxCalculator.Quote(price, PriceSource.CURRENT) : null;
+        };
+    }
+
+    private BigDecimal taxRate() {
+        Double percentage = settingsService.getSettings().getEtfExitTaxPercentage();
+        return BigDecimal.valueOf(percentage != null ? percentage : 0.0);
+    }
+
+    /**
+     * A cached result with what it depends on.
+     */
+    private record Projection(ExitTaxProjection result, Set<String> tickers, LocalDate asOf, BigDecimal taxRate,
+            String baseCurrency) {
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import com.example.investmenttracker.dto.YahooFinanceResponse;
+import com.example.investmenttracker.persistence.EtfPriceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts amounts between currencies using rates cached in memory.
+ *
+ * All rates are held against a single pivot (EUR, units of the currency per
+ * euro), so any pair is one division and the matrix grows linearly with the
+ * number of currencies. Rates come from the price provider as Yahoo currency
+ * pairs (e.g. EURUSD=X): a currency is fetched the first time it is needed,
+ * and every known currency is refreshed on a fixed schedule. Readers never
+ * block on a refresh; they see the previous matrix until the new one is
+ * swapped in.
+ */
+@Service
+public class FxRateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxRateService.class);
+    private static final String PIVOT = "EUR";
+    private static final int PRICE_SCALE = 4;
+    private static final int RATE_SCALE = 8;
+
+    // Yahoo quotes some exchanges in minor units, e.g. London prices in pence
+    private static final Map<String, MinorUnit> MINOR_UNITS = Map.of(
+            "GBp", new MinorUnit("GBP", 100),
+            "GBX", new MinorUnit("GBP", 100),
+            "ZAc", new MinorUnit("ZAR", 100),
+            "ZAC", new MinorUnit("ZAR", 100),
+            "ILA", new MinorUnit("ILS", 100));
+
+    private final PriceProvider priceProvider;
+    private final EtfPriceRepository etfPriceRepository;
+
+    // Units of each currency per euro; replaced as a whole, never mutated
+    private volatile Map<String, Double> perPivot = Map.of(PIVOT, 1.0);
+
+    public FxRateService(PriceProvider priceProvider, EtfPriceRepository etfPriceRepository) {
+        this.priceProvider = priceProvider;
+        this.etfPriceRepository = etfPriceRepository;
+    }
+
+    /**
+     * Refresh every currency seen so far, plus the quote currencies of all
+     * stored prices. Currencies that fail keep their previous rate.
+     */
+    @Scheduled(fixedDelayString = "${yahoo.finance.fx-refresh-minutes:60}",
+            initialDelayString = "${yahoo.finance.fx-refresh-minutes:60}", timeUnit = TimeUnit.MINUTES)
+    public void refreshRates() {
+        Set<String> currencies = new TreeSet<>(perPivot.keySet());
+        for (String currency : etfPriceRepository.findDistinctCurrencies()) {
+            currencies.add(normalize(currency).currency());
+        }
+        currencies.remove(PIVOT);
+
+        Map<String, Double> rates = new HashMap<>();
+        int refreshed = 0;
+        for (String currency : currencies) {
+            Double rate = fetchRate(currency, RequestPriority.BULK);
+            if (rate != null) {
+                rates.put(currency, rate);
+                refreshed++;
+            }
+        }
+        publish(rates);
+        logger.info("Refreshed {} of {} FX rate(s)", refreshed, currencies.size());
+    }
+
+    /**
+     * Convert an amount, or return null when no rate is available. Minor
+     * units such as GBp are handled.
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to) {
+        return multiply(amount, rate(from, to));
+    }
+
+    /**
+     * Like {@link #convert}, but only from rates already cached: never calls
+     * the provider, so it is safe on write paths. Returns null when a rate
+     * has not been loaded yet.
+     */
+    public BigDecimal convertCached(BigDecimal amount, String from, String to) {
+        return multiply(amount, rate(from, to, perPivot));
+    }
+
+    /**
+     * Rate to multiply an amount in {@code from} by to get {@code to}, or
+     * null when either currency cannot be priced.
+     */
+    public BigDecimal rate(String from, String to) {
+        return rate(from, to, ratesFor(List.of(normalize(from).currency(), normalize(to).currency())));
+    }
+
+    private static BigDecimal multiply(BigDecimal amount, BigDecimal rate) {
+        return amount != null && rate != null
+                ? amount.multiply(rate).setScale(PRICE_SCALE, RoundingMode.HALF_UP)
+                : null;
+    }
+
+    private static BigDecimal rate(String from, String to, Map<String, Double> rates) {
+        MinorUnit source = normalize(from);
+        MinorUnit target = normalize(to);
+        Double sourcePerPivot = rates.get(source.currency());
+        Double targetPerPivot = rates.get(target.currency());
+        if (sourcePerPivot == null || targetPerPivot == null) {
+            return null;
+        }
+        double rate = targetPerPivot / sourcePerPivot * target.divisor() / source.divisor();
+        return BigDecimal.valueOf(rate).setScale(RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Copy of each price with base currency fields filled in. The matrix is
+     * read once for the whole list and each missing currency is fetched at
+     * most once, so converting N prices costs no extra provider calls per ETF.
+     */
+    public List<EtfPriceResponse> toBaseCurrency(Collection<EtfPriceResponse> prices, String baseCurrency) {
+        List<String> needed = new ArrayList<>();
+        needed.add(normalize(baseCurrency).currency());
+        for (EtfPriceResponse price : prices) {
+            if (price.getCurrency() != null) {
+                needed.add(normalize(price.getCurrency()).currency());
+            }
+        }
+        Map<String, Double> rates = ratesFor(needed);
+        MinorUnit target = normalize(baseCurrency);
+        Double targetPerPivot = rates.get(target.currency());
+
+        List<EtfPriceResponse> converted = new ArrayList<>(prices.size());
+        for (EtfPriceResponse price : prices) {
+            EtfPriceResponse copy = new EtfPriceResponse(price);
+            copy.setBaseCurrency(baseCurrency);
+            if (price.getCurrency() != null && price.getPrice() != null && targetPerPivot != null) {
+                MinorUnit source = normalize(price.getCurrency());
+                Double sourcePerPivot = rates.get(source.currency());
+                if (sourcePerPivot != null) {
+                    double rate = targetPerPivot / sourcePerPivot * target.divisor() / source.divisor();
+                    BigDecimal fxRate = BigDecimal.valueOf(rate).setScale(RATE_SCALE, RoundingMode.HALF_UP);
+                    copy.setFxRate(fxRate);
+                    copy.setPriceInBaseCurrency(
+                            price.getPrice().multiply(fxRate).setScale(PRICE_SCALE, RoundingMode.HALF_UP));
+                }
+            }
+            converted.add(copy);
+        }
+        return converted;
+    }
+
+    public EtfPriceResponse toBaseCurrency(EtfPriceResponse price, String baseCurrency) {
+        return toBaseCurrency(List.of(price), baseCurrency).get(0);
+    }
+
+    /**
+     * Rates for the given currencies, loading the ones not cached yet and
+     * publishing them in a new matrix.
+     */
+    private Map<String, Double> ratesFor(Collection<String> currencies) {
+        Map<String, Double> current = perPivot;
+        Map<String, Double> loaded = null;
+        for (String currency : new TreeSet<>(currencies)) {
+            if (current.containsKey(currency)) {
+                continue;
+            }
+            Double rate = fetchRate(currency, RequestPriority.INTERACTIVE);
+            if (rate != null) {
+                if (loaded == null) {
+                    loaded = new HashMap<>();
+                }
+                loaded.put(currency, rate);
+            }
+        }
+        return loaded == null ? current : publish(loaded);
+    }
+
+    /**
+     * Merge new rates into a fresh copy of the matrix and swap it in.
+     */
+    private synchronized Map<String, Double> publish(Map<String, Double> rates) {
+        Map<String, Double> merged = new HashMap<>(perPivot);
+        merged.putAll(rates);
+        perPivot = Map.copyOf(merged);
+        return perPivot;
+    }
+
+    private Double fetchRate(String currency, RequestPriority priority) {
+        String pair = PIVOT + currency + "=X";
+        try {
+            YahooFinanceResponse response = priceProvider.fetchPrice(pair, pair, priority);
+            YahooFinanceResponse.Meta meta = response.getChart().getResult().get(0).getMeta();
+            Double rate = meta != null ? meta.getRegularMarketPrice() : null;
+            if (rate == null || rate <= 0) {
+                logger.warn("No FX rate in response for {}", pair);
+                return null;
+            }
+            return rate;
+        } catch (Exception e) {
+            logger.warn("Could not fetch FX rate {}: {}", pair, e.getMessage());
+            return null;
+        }
+    }
+
+    static MinorUnit normalize(String currency) {
+        if (currency == null || currency.isBlank()) {
+            return new MinorUnit(PIVOT, 1);
+        }
+        MinorUnit minor = MINOR_UNITS.get(currency);
+        return minor != null ? minor : new MinorUnit(currency.toUpperCase(), 1);
+    }
+
+    record MinorUnit(String currency, int divisor) {
+    }
+}
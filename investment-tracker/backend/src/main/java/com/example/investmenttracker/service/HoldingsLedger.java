@@ -0,0 +1,113 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.HoldingPosition;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user's transactions folded into running positions, one series per ETF.
+ *
+ * Each series holds the transaction dates in order and, at the same index,
+ * the position right after that transaction (units, cost of the units held,
+ * fees attributed to them). The position on any date is therefore a binary
+ * search for the last transaction on or before it, not a replay. The
+ * positions are those of {@link PositionFold}.
+ *
+ * Instances are immutable; a change to the ledger means building a new one.
+ */
+class HoldingsLedger {
+
+    private final List<Series> series;
+
+    private HoldingsLedger(List<Series> series) {
+        this.series = series;
+    }
+
+    static HoldingsLedger build(List<Etf> etfs) {
+        List<Series> series = new ArrayList<>(etfs.size());
+        for (Etf etf : etfs) {
+            List<EtfTransaction> transactions = PositionFold.ordered(etf.getTransactions());
+            if (transactions.isEmpty()) {
+                continue;
+            }
+            series.add(Series.of(etf, transactions));
+        }
+        return new HoldingsLedger(series);
+    }
+
+    /**
+     * Positions held at the end of {@code date}; ETFs not yet bought or fully
+     * sold by then are left out.
+     */
+    List<HoldingPosition> positionsAt(LocalDate date) {
+        long day = date.toEpochDay();
+        List<HoldingPosition> positions = new ArrayList<>();
+        for (Series s : series) {
+            int index = s.lastIndexOnOrBefore(day);
+            if (index >= 0 && s.units[index].signum() > 0) {
+                positions.add(new HoldingPosition(s.etfId, s.ticker, s.name, s.units[index], s.cost[index],
+                        s.fees[index], index + 1));
+            }
+        }
+        return positions;
+    }
+
+    private static final class Series {
+
+        private final Long etfId;
+        private final String ticker;
+        private final String name;
+        private final long[] days;
+        private final BigDecimal[] units;
+        private final BigDecimal[] cost;
+        private final BigDecimal[] fees;
+
+        private Series(Etf etf, int size) {
+            this.etfId = etf.getId();
+            this.ticker = etf.getTicker();
+            this.name = etf.getName();
+            this.days = new long[size];
+            this.units = new BigDecimal[size];
+            this.cost = new BigDecimal[size];
+            this.fees = new BigDecimal[size];
+        }
+
+        static Series of(Etf etf, List<EtfTransaction> transactions) {
+            Series s = new Series(etf, transactions.size());
+            PositionFold fold = new PositionFold();
+            for (int i = 0; i < transactions.size(); i++) {
+                EtfTransaction transaction = transactions.get(i);
+                fold.apply(transaction);
+                s.days[i] = transaction.getTransactionDate().toEpochDay();
+                s.units[i] = fold.units();
+                s.cost[i] = fold.cost();
+                s.fees[i] = fold.fees();
+            }
+            return s;
+        }
+
+        /**
+         * Index of the last transaction on or before {@code day}, or -1.
+         */
+        int lastIndexOnOrBefore(long day) {
+            int low = 0;
+            int high = days.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] <= day) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.PortfolioHoldings;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+
+/**
+ * Rebuilds a user's ETF holdings as of any date from the transaction ledger.
+ *
+ * Each user's transactions are folded once into a {@link HoldingsLedger},
+ * kept until the next committed portfolio change, so a query is a binary
+ * search per ETF. The transactions are the source of truth; snapshots are
+ * not needed to answer "what did I hold on date X".
+ */
+@Service
+public class HoldingsService {
+
+    private final EtfService etfService;
+    private final UserCache<HoldingsLedger> ledgers = new UserCache<>();
+
+    public HoldingsService(EtfService etfService) {
+        this.etfService = etfService;
+    }
+
+    /**
+     * Holdings at the end of {@code asOf}, or today when null.
+     */
+    @Transactional(readOnly = true)
+    public PortfolioHoldings getHoldings(String userEmail, LocalDate asOf) {
+        LocalDate date = asOf != null ? asOf : LocalDate.now();
+        return new PortfolioHoldings(date, ledgerFor(userEmail).positionsAt(date));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        ledgers.invalidate(event.userEmail());
+    }
+
+    HoldingsLedger ledgerFor(String userEmail) {
+        HoldingsLedger ledger = ledgers.get(userEmail);
+        if (ledger != null) {
+            return ledger;
+        }
+        long seen = ledgers.stamp();
+        return ledgers.put(userEmail, seen, HoldingsLedger.build(etfService.getAllEtfs(userEmail)));
+    }
+}
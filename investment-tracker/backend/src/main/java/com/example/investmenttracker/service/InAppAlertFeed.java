@@ -0,0 +1,49 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.AlertNotification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the most recent notifications per user for the in-app feed. The feed
+ * lives in memory only; triggered alerts themselves are persisted on
+ * {@link com.example.investmenttracker.model.PriceAlert}.
+ */
+@Component
+public class InAppAlertFeed implements AlertSink {
+
+    private static final int MAX_PER_USER = 50;
+
+    private final Map<String, Deque<AlertNotification>> feeds = new ConcurrentHashMap<>();
+
+    @Override
+    public void deliver(AlertNotification notification) {
+        Deque<AlertNotification> feed = feeds.computeIfAbsent(notification.getUserEmail(),
+                email -> new ArrayDeque<>());
+        synchronized (feed) {
+            feed.addFirst(notification);
+            while (feed.size() > MAX_PER_USER) {
+                feed.removeLast();
+            }
+        }
+    }
+
+    /**
+     * Newest first.
+     */
+    public List<AlertNotification> getRecent(String userEmail) {
+        Deque<AlertNotification> feed = feeds.get(userEmail);
+        if (feed == null) {
+            return List.of();
+        }
+        synchronized (feed) {
+            return new ArrayList<>(feed);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.AlertNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoggingAlertSink implements AlertSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingAlertSink.class);
+
+    @Override
+    public void deliver(AlertNotification notification) {
+        logger.info("Price alert {} fired for {}: {} {} {} at price {}", notification.getAlertId(),
+                notification.getUserEmail(), notification.getTicker(), notification.getMetric(),
+                notification.getDirection() + " " + notification.getThreshold(), notification.getPrice());
+    }
+}
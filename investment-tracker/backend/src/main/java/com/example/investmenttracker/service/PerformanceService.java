@@ -0,0 +1,299 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import com.example.investmenttracker.dto.PerformanceReport;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfPriceHistory;
+import com.example.investmenttracker.model.EtfTransaction;
+import com.example.investmenttracker.persistence.EtfPriceHistoryRepository;
+import com.example.investmenttracker.util.ReturnMath;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Money-weighted (XIRR) and time-weighted returns of a user's ETFs and of
+ * the ETF portfolio as a whole, computed with {@link ReturnMath}.
+ *
+ * Each ETF is turned into primitive series once: its cash flows (buys in,
+ * sales out) and the units held after each transaction date, both from
+ * {@link PositionFold}, and its unit prices. Prices are the stored daily closes, the trade price on
+ * transaction dates without a close, and the stored current price today,
+ * all in the base currency. The portfolio is valued on every date any of
+ * its ETFs traded, which is all the time-weighted return needs.
+ */
+@Service
+public class PerformanceService {
+
+    private final EtfService etfService;
+    private final UserService userService;
+    private final EtfPriceService etfPriceService;
+    private final FxRateService fxRateService;
+    private final EtfPriceHistoryRepository historyRepository;
+
+    public PerformanceService(EtfService etfService, UserService userService, EtfPriceService etfPriceService,
+            FxRateService fxRateService, EtfPriceHistoryRepository historyRepository) {
+        this.etfService = etfService;
+        this.userService = userService;
+        this.etfPriceService = etfPriceService;
+        this.fxRateService = fxRateService;
+        this.historyRepository = historyRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public PerformanceReport getPerformance(String userEmail) {
+        LocalDate today = LocalDate.now();
+        String baseCurrency = userService.getBaseCurrency(userEmail);
+        List<Etf> etfs = etfService.getAllEtfs(userEmail);
+        Map<String, Double> currentPrices = currentPrices(etfs, baseCurrency);
+
+        PerformanceReport report = new PerformanceReport(today, baseCurrency);
+        List<Series> all = new ArrayList<>();
+        for (Etf etf : etfs) {
+            Series series = Series.of(etf, today);
+            if (series == null) {
+                continue;
+            }
+            series.setMarks(marks(etf, series, today, baseCurrency, currentPrices.get(etf.getTicker())));
+            all.add(series);
+            PerformanceReport.Performance performance = performance(List.of(series), today);
+            performance.setEtfId(etf.getId());
+            performance.setTicker(etf.getTicker());
+            report.getEtfs().add(performance);
+        }
+        report.setPortfolio(performance(all, today));
+        return report;
+    }
+
+    private Map<String, Double> currentPrices(List<Etf> etfs, String baseCurrency) {
+        Set<String> tickers = new HashSet<>();
+        for (Etf etf : etfs) {
+            if (etf.getTicker() != null) {
+                tickers.add(etf.getTicker());
+            }
+        }
+        Map<String, Double> prices = new HashMap<>();
+        for (EtfPriceResponse price : fxRateService.toBaseCurrency(etfPriceService.getStoredPrices(tickers),
+                baseCurrency)) {
+            if (price.getPriceInBaseCurrency() != null) {
+                prices.put(price.getTicker(), price.getPriceInBaseCurrency().doubleValue());
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * Unit prices by epoch day: trade prices, overridden by stored closes,
+     * and the current price today.
+     */
+    private TreeMap<Integer, Double> marks(Etf etf, Series series, LocalDate today, String baseCurrency,
+            Double currentPrice) {
+        TreeMap<Integer, Double> marks = new TreeMap<>();
+        for (EtfTransaction transaction : etf.getTransactions()) {
+            BigDecimal units = transaction.getUnitsPurchased();
+            BigDecimal cost = transaction.getTransactionCost();
+            if (transaction.getTransactionDate() != null && units != null && units.signum() > 0 && cost != null
+                    && cost.signum() > 0) {
+                marks.put((int) transaction.getTransactionDate().toEpochDay(),
+                        cost.doubleValue() / units.doubleValue());
+            }
+        }
+        Map<String, Double> rates = new HashMap<>();
+        for (EtfPriceHistory bar : historyRepository.findByTickerAndPriceDateBetweenOrderByPriceDateAsc(
+                etf.getTicker(), LocalDate.ofEpochDay(series.firstDay()), today)) {
+            Double rate = rates.computeIfAbsent(bar.getCurrency(), currency -> {
+                BigDecimal r = fxRateService.rate(currency, baseCurrency);
+                return r != null ? r.doubleValue() : null;
+            });
+            if (rate != null) {
+                marks.put((int) bar.getPriceDate().toEpochDay(), bar.getClosePrice().doubleValue() * rate);
+            }
+        }
+        if (currentPrice != null) {
+            marks.put((int) today.toEpochDay(), currentPrice);
+        }
+        return marks;
+    }
+
+    private static PerformanceReport.Performance performance(List<Series> series, LocalDate today) {
+        int todayDay = (int) today.toEpochDay();
+        PerformanceReport.Performance performance = new PerformanceReport.Performance();
+        if (series.isEmpty()) {
+            return performance;
+        }
+
+        // Money-weighted: every cash flow plus the value today as the final inflow
+        int flows = 1;
+        for (Series s : series) {
+            flows += s.flowCount;
+        }
+        int[] days = new int[flows];
+        double[] amounts = new double[flows];
+        int n = 0;
+        int firstDay = Integer.MAX_VALUE;
+        double finalValue = 0;
+        for (Series s : series) {
+            System.arraycopy(s.flowDays, 0, days, n, s.flowCount);
+            System.arraycopy(s.flowAmounts, 0, amounts, n, s.flowCount);
+            n += s.flowCount;
+            firstDay = Math.min(firstDay, s.firstDay());
+            finalValue += s.valueAt(todayDay);
+        }
+        days[n] = todayDay;
+        amounts[n] = finalValue;
+        performance.setStartDate(LocalDate.ofEpochDay(firstDay));
+        performance.setCashFlows(n);
+        performance.setXirr(finite(ReturnMath.xirr(days, amounts, n + 1)));
+
+        // Time-weighted: value the whole set on each trading date and today
+        int[] dates = new int[n + 1];
+        int count = 0;
+        for (Series s : series) {
+            System.arraycopy(s.unitDays, 0, dates, count, s.unitDays.length);
+            count += s.unitDays.length;
+        }
+        dates[count++] = todayDay;
+        Arrays.sort(dates, 0, count);
+        double[] values = new double[count];
+        double[] contributions = new double[count];
+        int points = 0;
+        for (int i = 0; i < count; i++) {
+            if (points > 0 && dates[points - 1] == dates[i]) {
+                continue;
+            }
+            int day = dates[i];
+            double value = 0;
+            double contribution = 0;
+            for (Series s : series) {
+                value += s.valueAt(day);
+                contribution += s.contributionOn(day);
+            }
+            dates[points] = day;
+            values[points] = value;
+            contributions[points] = contribution;
+            points++;
+        }
+        double twr = ReturnMath.twr(values, contributions, points);
+        performance.setTwr(finite(twr));
+        performance.setTwrAnnualized(finite(ReturnMath.annualize(twr, todayDay - firstDay)));
+        return performance;
+    }
+
+    private static Double finite(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+
+    /**
+     * One ETF as primitive arrays: cash flows from the investor's side
+     * (negative in, positive out), units held and net contribution per
+     * transaction date, and unit prices per day.
+     */
+    private static final class Series {
+
+        private final int[] flowDays;
+        private final double[] flowAmounts;
+        private final int flowCount;
+        private final int[] unitDays;
+        private final double[] units;
+        private final double[] contributions;
+        private int[] markDays = new int[0];
+        private double[] marks = new double[0];
+
+        private Series(int[] flowDays, double[] flowAmounts, int[] unitDays, double[] units,
+                double[] contributions) {
+            this.flowDays = flowDays;
+            this.flowAmounts = flowAmounts;
+            this.flowCount = flowDays.length;
+            this.unitDays = unitDays;
+            this.units = units;
+            this.contributions = contributions;
+        }
+
+        /**
+         * Series of the transactions up to {@code today}, or null if there
+         * are none.
+         */
+        static Series of(Etf etf, LocalDate today) {
+            List<EtfTransaction> transactions = PositionFold.ordered(etf.getTransactions());
+            transactions.removeIf(t -> t.getTransactionDate().isAfter(today));
+            if (transactions.isEmpty()) {
+                return null;
+            }
+
+            int size = transactions.size();
+            int[] flowDays = new int[size];
+            double[] flowAmounts = new double[size];
+            int[] unitDays = new int[size];
+            double[] units = new double[size];
+            double[] contributions = new double[size];
+            int dates = 0;
+            PositionFold fold = new PositionFold();
+            for (int i = 0; i < size; i++) {
+                EtfTransaction transaction = transactions.get(i);
+                int day = (int) transaction.getTransactionDate().toEpochDay();
+                fold.apply(transaction);
+                double contribution = PositionFold.invested(transaction).doubleValue();
+                flowDays[i] = day;
+                flowAmounts[i] = -contribution;
+                if (dates > 0 && unitDays[dates - 1] == day) {
+                    contributions[dates - 1] += contribution;
+                } else {
+                    unitDays[dates] = day;
+                    contributions[dates] = contribution;
+                    dates++;
+                }
+                units[dates - 1] = fold.units().doubleValue();
+            }
+            return new Series(flowDays, flowAmounts, Arrays.copyOf(unitDays, dates), Arrays.copyOf(units, dates),
+                    Arrays.copyOf(contributions, dates));
+        }
+
+        void setMarks(TreeMap<Integer, Double> byDay) {
+            markDays = new int[byDay.size()];
+            marks = new double[byDay.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Double> entry : byDay.entrySet()) {
+                markDays[i] = entry.getKey();
+                marks[i] = entry.getValue();
+                i++;
+            }
+        }
+
+        int firstDay() {
+            return unitDays[0];
+        }
+
+        /**
+         * Units held times the last price on or before {@code day}; NaN when
+         * units are held but no price is known.
+         */
+        double valueAt(int day) {
+            int index = lastOnOrBefore(unitDays, unitDays.length, day);
+            if (index < 0 || units[index] == 0) {
+                return 0;
+            }
+            int mark = lastOnOrBefore(markDays, markDays.length, day);
+            return mark >= 0 ? units[index] * marks[mark] : Double.NaN;
+        }
+
+        double contributionOn(int day) {
+            int index = Arrays.binarySearch(unitDays, day);
+            return index >= 0 ? contributions[index] : 0;
+        }
+
+        private static int lastOnOrBefore(int[] days, int length, int day) {
+            int index = Arrays.binarySearch(days, 0, length, day);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.model.TriggerAction;
+
+import java.time.Instant;
+
+/**
+ * Published by the services whenever a user's ETFs, transactions or assets
+ * change. A snapshot is built from it once the change has committed.
+ */
+public record PortfolioChangedEvent(String userEmail, TriggerAction action, String details, Instant occurredAt) {
+
+    public PortfolioChangedEvent(String userEmail, TriggerAction action, String details) {
+        this(userEmail, action, details, Instant.now());
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.model.TriggerAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds portfolio snapshots in the background once a change has committed,
+ * so the request that made the change does not wait for the portfolio to be
+ * reloaded and serialized.
+ *
+ * Changes are debounced per user: a snapshot is only queued once the user
+ * has been quiet for the configured window, or the oldest pending change
+ * has waited the maximum delay, so a burst of edits (e.g. an import) yields
+ * one snapshot listing every change. Snapshots are built one at a time from
+ * a bounded queue. When the queue is full the snapshot is built on the
+ * calling thread instead of being dropped; each snapshot is saved in a
+ * transaction of its own, since the calling thread may be finishing the
+ * commit that reported the change. On shutdown pending changes are flushed
+ * and the queue is drained before the database goes away.
+ */
+@Component
+public class PortfolioSnapshotListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSnapshotListener.class);
+
+    // Stop after the web server has stopped accepting requests, before the beans are destroyed
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final PortfolioSnapshotService snapshotService;
+    private final TransactionTemplate requiresNew;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService debouncer;
+    private final Map<String, PendingChanges> pending = new HashMap<>();
+    private final Duration quietWindow;
+    private final Duration maxDelay;
+    private final Duration shutdownTimeout;
+    private final Timer lag;
+    private final Timer buildTime;
+    private final Counter failures;
+    private final Counter coalesced;
+    private volatile boolean running;
+
+    public PortfolioSnapshotListener(PortfolioSnapshotService snapshotService,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.snapshots.queue-capacity:500}") int queueCapacity,
+            @Value("${app.snapshots.quiet-window-millis:2000}") long quietWindowMillis,
+            @Value("${app.snapshots.max-delay-millis:30000}") long maxDelayMillis,
+            @Value("${app.snapshots.shutdown-timeout-seconds:30}") long shutdownTimeoutSeconds) {
+        this.snapshotService = snapshotService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.quietWindow = Duration.ofMillis(quietWindowMillis);
+        this.maxDelay = Duration.ofMillis(Math.max(maxDelayMillis, quietWindowMillis));
+        this.shutdownTimeout = Duration.ofSeconds(shutdownTimeoutSeconds);
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                new CustomizableThreadFactory("snapshot-debounce-"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.debouncer = scheduler;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("snapshot-"),
+                (task, pool) -> {
+                    logger.debug("Snapshot queue full, building on the calling thread");
+                    task.run();
+                });
+
+        Gauge.builder("portfolio.snapshots.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Snapshots waiting to be built")
+                .register(meterRegistry);
+        Gauge.builder("portfolio.snapshots.pending.users", this, listener -> listener.pendingUsers())
+                .description("Users with changes waiting for their quiet window")
+                .register(meterRegistry);
+        this.lag = Timer.builder("portfolio.snapshots.lag")
+                .description("Time from the oldest change in a snapshot until it starts building")
+                .register(meterRegistry);
+        this.buildTime = Timer.builder("portfolio.snapshots.build")
+                .description("Time to build and save a snapshot")
+                .register(meterRegistry);
+        this.failures = Counter.builder("portfolio.snapshots.failures")
+                .description("Snapshots that could not be built")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("portfolio.snapshots.coalesced")
+                .description("Changes merged into another change's snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a change after it commits and (re)start the user's quiet
+     * window. Services that change data outside a transaction (file storage)
+     * are recorded right away.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        boolean debounced = false;
+        if (!quietWindow.isZero()) {
+            // stop() shuts the debouncer down under the same lock, so a change is
+            // either pending before the final flush or built right away
+            synchronized (pending) {
+                if (!debouncer.isShutdown()) {
+                    debounce(event);
+                    debounced = true;
+                }
+            }
+        }
+        if (!debounced) {
+            executor.execute(() -> build(List.of(event)));
+        }
+    }
+
+    /**
+     * Add a change to the user's pending ones and reschedule their flush.
+     * Called holding the {@code pending} lock.
+     */
+    private void debounce(PortfolioChangedEvent event) {
+        PendingChanges changes = pending.get(event.userEmail());
+        if (changes == null) {
+            changes = new PendingChanges(event.occurredAt());
+        } else {
+            changes.flush.cancel(false);
+            coalesced.increment();
+        }
+        changes.events.add(event);
+
+        Instant deadline = changes.firstAt.plus(maxDelay);
+        Instant quietUntil = Instant.now().plus(quietWindow);
+        long delayMillis = Math.max(0, Duration.between(Instant.now(),
+                quietUntil.isBefore(deadline) ? quietUntil : deadline).toMillis());
+        changes.flush = debouncer.schedule(() -> flush(event.userEmail()), delayMillis, TimeUnit.MILLISECONDS);
+        // Only tracked once a flush is scheduled, so an entry never lacks one
+        pending.put(event.userEmail(), changes);
+    }
+
+    private void flush(String userEmail) {
+        PendingChanges changes;
+        synchronized (pending) {
+            changes = pending.remove(userEmail);
+        }
+        if (changes != null) {
+            executor.execute(() -> build(changes.events));
+        }
+    }
+
+    private void build(List<PortfolioChangedEvent> events) {
+        PortfolioChangedEvent first = events.get(0);
+        lag.record(Duration.between(first.occurredAt(), Instant.now()));
+        Timer.Sample sample = Timer.start();
+        TriggerAction action = first.action();
+        List<String> details = new ArrayList<>(events.size());
+        for (PortfolioChangedEvent event : events) {
+            if (event.action() != action) {
+                action = TriggerAction.MULTIPLE_CHANGES;
+            }
+            details.add(events.size() > 1
+                    ? event.action().getDisplayName() + ": " + event.details()
+                    : event.details());
+        }
+        try {
+            TriggerAction trigger = action;
+            // Never join the caller's transaction: inline builds run in an after-commit callback
+            requiresNew.executeWithoutResult(status -> snapshotService.createSnapshot(first.userEmail(), trigger,
+                    String.join("\n", details)));
+        } catch (Exception e) {
+            failures.increment();
+            logger.warn("Failed to create portfolio snapshot for {}: {}", action, e.getMessage());
+        } finally {
+            sample.stop(buildTime);
+        }
+    }
+
+    private int pendingUsers() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Let queued snapshots finish; whatever is still queued after the
+     * timeout is built on the stopping thread.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        List<String> users;
+        synchronized (pending) {
+            debouncer.shutdownNow();
+            users = new ArrayList<>(pending.keySet());
+        }
+        users.forEach(this::flush);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                List<Runnable> pending = new ArrayList<>();
+                executor.getQueue().drainTo(pending);
+                logger.warn("Snapshot worker still busy after {}, building {} queued snapshot(s) inline",
+                        shutdownTimeout, pending.size());
+                pending.forEach(Runnable::run);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private static final class PendingChanges {
+
+        private final Instant firstAt;
+        private final List<PortfolioChangedEvent> events = new ArrayList<>();
+        private ScheduledFuture<?> flush;
+
+        private PendingChanges(Instant firstAt) {
+            this.firstAt = firstAt;
+        }
+    }
+}
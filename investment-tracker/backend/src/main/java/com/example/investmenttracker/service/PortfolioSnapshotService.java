@@ -1,51 +1,103 @@
 package com.example.investmenttracker.service;
 
+import com.example.investmenttracker.dto.PortfolioSnapshotPage;
+import com.example.investmenttracker.dto.PortfolioSnapshotSummary;
+import com.example.investmenttracker.dto.SnapshotArchiveEntry;
+import com.example.investmenttracker.dto.SnapshotDiff;
+import com.example.investmenttracker.exception.ValidationException;
 import com.example.investmenttracker.model.PortfolioSnapshot;
+import com.example.investmenttracker.model.PortfolioSnapshotPayload;
 import com.example.investmenttracker.model.TriggerAction;
 import com.example.investmenttracker.model.User;
+import com.example.investmenttracker.persistence.PortfolioSnapshotPayloadRepository;
 import com.example.investmenttracker.persistence.PortfolioSnapshotRepository;
+import com.example.investmenttracker.util.JsonPatch;
+import com.example.investmenttracker.util.VersionIdGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+/**
+ * Creates and reads portfolio snapshots.
+ *
+ * Snapshots are stored as a chain: a keyframe holds the full portfolio JSON,
+ * and each following snapshot holds only a JSON Patch against the one before
+ * it, until a new keyframe is written every {@code keyframeInterval}
+ * versions. Reading a snapshot applies at most that many patches to one
+ * keyframe; clients always receive the full JSON.
+ *
+ * Payloads are deflated into a separate table and only read when a single
+ * snapshot is requested; listings return metadata only.
+ */
 @Service
 @Transactional
 public class PortfolioSnapshotService {
 
     private static final Logger logger = LoggerFactory.getLogger(PortfolioSnapshotService.class);
-    private static final String VERSION_FORMAT = "yyyyMMddHHmmss";
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    // Open bounds for unfiltered queries; keeps the page query free of null checks
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     private final PortfolioSnapshotRepository snapshotRepository;
+    private final PortfolioSnapshotPayloadRepository payloadRepository;
     private final UserService userService;
     private final EtfService etfService;
     private final AssetService assetService;
     private final ObjectMapper objectMapper;
+    private final VersionIdGenerator versionIds;
+    private final int keyframeInterval;
 
     public PortfolioSnapshotService(PortfolioSnapshotRepository snapshotRepository,
+            PortfolioSnapshotPayloadRepository payloadRepository,
             UserService userService,
             EtfService etfService,
             AssetService assetService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            VersionIdGenerator versionIds,
+            @Value("${app.snapshots.keyframe-interval:20}") int keyframeInterval) {
         this.snapshotRepository = snapshotRepository;
+        this.payloadRepository = payloadRepository;
         this.userService = userService;
         this.etfService = etfService;
         this.assetService = assetService;
         this.objectMapper = objectMapper;
+        this.versionIds = versionIds;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
     }
 
     /**
-     * Generate a version identifier timestamp
+     * Generate a unique, time-ordered version identifier
      */
     public String generateVersionId() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern(VERSION_FORMAT));
+        return versionIds.next();
     }
 
     /**
@@ -56,18 +108,46 @@ public class PortfolioSnapshotService {
         String versionId = generateVersionId();
 
         try {
-            Map<String, Object> portfolioData = buildPortfolioData(userEmail);
-            String portfolioJson = objectMapper.writeValueAsString(portfolioData);
+            JsonNode portfolio = objectMapper.valueToTree(buildPortfolioData(userEmail));
+            String portfolioJson = objectMapper.writeValueAsString(portfolio);
 
-            PortfolioSnapshot snapshot = new PortfolioSnapshot(user, versionId, portfolioJson, triggerAction,
-                    changeDetails);
-            return snapshotRepository.save(snapshot);
+            return store(new PortfolioSnapshot(user, versionId, portfolioJson, triggerAction, changeDetails),
+                    portfolio);
         } catch (Exception e) {
             logger.error("Failed to create portfolio snapshot for user {}: {}", userEmail, e.getMessage());
             throw new RuntimeException("snapshot.failed", e);
         }
     }
 
+    /**
+     * Add a snapshot from a history export to a user's history, keeping its
+     * creation time. A version already in this user's history is skipped
+     * (returns null), so an import can be repeated; one taken by another
+     * user gets a new version id.
+     */
+    public PortfolioSnapshot importSnapshot(User user, SnapshotArchiveEntry entry) {
+        String versionId = entry.getVersionId();
+        if (versionId == null || versionId.isBlank()) {
+            versionId = generateVersionId();
+        } else {
+            Optional<PortfolioSnapshot> existing = snapshotRepository.findByVersionId(versionId);
+            if (existing.isPresent()) {
+                if (existing.get().getUser().getId().equals(user.getId())) {
+                    return null;
+                }
+                versionId = generateVersionId();
+            }
+        }
+        JsonNode portfolio = entry.getPortfolio();
+        PortfolioSnapshot snapshot = new PortfolioSnapshot(user, versionId, portfolio.toString(),
+                entry.getTriggerAction() != null ? entry.getTriggerAction() : TriggerAction.MANUAL_EXPORT,
+                entry.getChangeDetails());
+        if (entry.getCreatedAt() != null) {
+            snapshot.setCreatedAt(entry.getCreatedAt());
+        }
+        return store(snapshot, portfolio);
+    }
+
     /**
      * Create a snapshot with a specific version ID (for manual exports)
      */
@@ -79,23 +159,58 @@ public class PortfolioSnapshotService {
         if (snapshotRepository.findByVersionId(versionId).isPresent()) {
             // Update existing
             PortfolioSnapshot existing = snapshotRepository.findByVersionId(versionId).get();
+            rebaseDependents(existing);
+            existing.markKeyframe();
             existing.setPortfolioJson(portfolioJson);
             existing.setTriggerAction(triggerAction);
             existing.setChangeDetails(changeDetails);
+            writePayload(existing, portfolioJson);
             return snapshotRepository.save(existing);
         }
 
-        PortfolioSnapshot snapshot = new PortfolioSnapshot(user, versionId, portfolioJson, triggerAction,
-                changeDetails);
-        return snapshotRepository.save(snapshot);
+        PortfolioSnapshot snapshot = snapshotRepository.save(new PortfolioSnapshot(user, versionId, portfolioJson,
+                triggerAction, changeDetails));
+        writePayload(snapshot, portfolioJson);
+        return snapshot;
     }
 
     /**
-     * Get all snapshots for a user
+     * Get one page of a user's snapshot metadata, newest first.
+     *
+     * @param cursor  {@code nextCursor} of the previous page, or null for the first page
+     * @param actions trigger actions to include; all when null or empty
+     * @param from    first day to include, or null
+     * @param to      last day to include, or null
      */
-    public List<PortfolioSnapshot> getUserSnapshots(String userEmail) {
+    public PortfolioSnapshotPage getUserSnapshots(String userEmail, String cursor, int limit,
+            Collection<TriggerAction> actions, LocalDate from, LocalDate to) {
         User user = userService.getCurrentUser(userEmail);
-        return snapshotRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        LocalDateTime cursorTime = MAX_TIME;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            cursorTime = LocalDateTime.parse(position[0]);
+            cursorId = Long.parseLong(position[1]);
+        }
+
+        // One extra row tells whether another page exists without counting
+        boolean allActions = actions == null || actions.isEmpty();
+        List<PortfolioSnapshotSummary> rows = snapshotRepository.findSummaryPage(user.getId(), cursorTime, cursorId,
+                from != null ? from.atStartOfDay() : MIN_TIME,
+                to != null ? to.plusDays(1).atStartOfDay() : MAX_TIME,
+                allActions, allActions ? EnumSet.allOf(TriggerAction.class) : actions,
+                PageRequest.of(0, size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<PortfolioSnapshotSummary> items = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            PortfolioSnapshotSummary last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new PortfolioSnapshotPage(items, nextCursor, hasMore);
     }
 
     /**
@@ -103,14 +218,45 @@ public class PortfolioSnapshotService {
      */
     public PortfolioSnapshot getSnapshotById(Long id, String userEmail) {
         User user = userService.getCurrentUser(userEmail);
-        return snapshotRepository.findByIdAndUserId(id, user.getId()).orElse(null);
+        return snapshotRepository.findByIdAndUserId(id, user.getId())
+                .map(this::withPortfolioJson)
+                .orElse(null);
     }
 
     /**
      * Get a snapshot by version ID
      */
     public PortfolioSnapshot getSnapshotByVersionId(String versionId) {
-        return snapshotRepository.findByVersionId(versionId).orElse(null);
+        return snapshotRepository.findByVersionId(versionId)
+                .map(this::withPortfolioJson)
+                .orElse(null);
+    }
+
+    /**
+     * Structural diff between two of a user's snapshots. When both belong to
+     * the same delta chain, the chain is read and patched once for both
+     * sides instead of being expanded separately for each.
+     */
+    public SnapshotDiff diffSnapshots(Long fromId, Long toId, String userEmail) {
+        User user = userService.getCurrentUser(userEmail);
+        PortfolioSnapshot from = snapshotRepository.findByIdAndUserId(fromId, user.getId())
+                .orElseThrow(() -> new ValidationException("snapshot.not.found"));
+        PortfolioSnapshot to = snapshotRepository.findByIdAndUserId(toId, user.getId())
+                .orElseThrow(() -> new ValidationException("snapshot.not.found"));
+
+        Long fromKeyframe = from.isKeyframe() ? from.getId() : from.getKeyframeSnapshotId();
+        Long toKeyframe = to.isKeyframe() ? to.getId() : to.getKeyframeSnapshotId();
+        JsonNode fromPortfolio;
+        JsonNode toPortfolio;
+        if (fromKeyframe.equals(toKeyframe)) {
+            Map<Long, JsonNode> chain = materializeChain(fromKeyframe, Math.max(from.getId(), to.getId()));
+            fromPortfolio = chain.get(from.getId());
+            toPortfolio = chain.get(to.getId());
+        } else {
+            fromPortfolio = materialize(from);
+            toPortfolio = materialize(to);
+        }
+        return SnapshotDiffer.diff(from.getId(), fromPortfolio, to.getId(), toPortfolio);
     }
 
     /**
@@ -140,6 +286,318 @@ public class PortfolioSnapshotService {
     public void deleteSnapshot(Long id, String userEmail) {
         User user = userService.getCurrentUser(userEmail);
         snapshotRepository.findByIdAndUserId(id, user.getId())
-                .ifPresent(snapshotRepository::delete);
+                .ifPresent(snapshot -> {
+                    rebaseDependents(snapshot);
+                    payloadRepository.deleteById(snapshot.getId());
+                    snapshotRepository.delete(snapshot);
+                });
+    }
+
+    /**
+     * Delete a batch of a user's snapshots in one transaction, as the
+     * retention job does. Each chain that loses a member is materialized once
+     * and its surviving later members are re-encoded from the new state, so
+     * no delta is left without its base.
+     */
+    public Reclaimed deleteSnapshots(Long userId, Collection<Long> ids) {
+        List<PortfolioSnapshot> victims = new ArrayList<>();
+        for (PortfolioSnapshot snapshot : snapshotRepository.findAllById(ids)) {
+            if (snapshot.getUser() != null && userId.equals(snapshot.getUser().getId())) {
+                victims.add(snapshot);
+            }
+        }
+        if (victims.isEmpty()) {
+            return new Reclaimed(0, 0);
+        }
+
+        Set<Long> victimIds = new HashSet<>();
+        Set<Long> keyframeIds = new TreeSet<>();
+        long bytes = 0;
+        for (PortfolioSnapshot victim : victims) {
+            victimIds.add(victim.getId());
+            keyframeIds.add(victim.isKeyframe() ? victim.getId() : victim.getKeyframeSnapshotId());
+            bytes += victim.getPayloadSize() != null ? victim.getPayloadSize() : 0;
+        }
+        for (Long keyframeId : keyframeIds) {
+            bytes += rebuildChain(keyframeId, victimIds);
+        }
+
+        payloadRepository.deleteAllById(victimIds);
+        snapshotRepository.deleteAll(victims);
+        return new Reclaimed(victims.size(), bytes);
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new ValidationException("snapshot.cursor.invalid");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("snapshot.cursor.invalid");
+        }
+    }
+
+    /**
+     * Store a payload read from the old uncompressed column as is (a full
+     * portfolio or a patch, as recorded on the snapshot).
+     */
+    public void migrateLegacyPayload(Long snapshotId, String payload) {
+        snapshotRepository.findById(snapshotId).ifPresent(snapshot -> {
+            writePayload(snapshot, payload);
+            snapshotRepository.save(snapshot);
+        });
+    }
+
+    /**
+     * Full portfolio of a snapshot, for callers that already checked access.
+     */
+    public JsonNode getPortfolio(Long snapshotId) {
+        return snapshotRepository.findById(snapshotId)
+                .map(this::materialize)
+                .orElseThrow(() -> new IllegalStateException("Missing snapshot " + snapshotId));
+    }
+
+    /**
+     * Save a new snapshot, encoded against the user's latest one.
+     */
+    private PortfolioSnapshot store(PortfolioSnapshot snapshot, JsonNode portfolio) {
+        String portfolioJson = snapshot.getPortfolioJson();
+        String payload = snapshotRepository.findFirstByUserIdOrderByIdDesc(snapshot.getUser().getId())
+                .map(latest -> encode(snapshot, portfolio, portfolioJson, latest))
+                .orElse(portfolioJson);
+        PortfolioSnapshot saved = snapshotRepository.save(snapshot);
+        writePayload(saved, payload);
+        return saved;
+    }
+
+    /**
+     * Store the snapshot as a patch against the latest one, unless that
+     * chain is full or the patch would not be smaller than the full JSON.
+     * Returns the payload to store.
+     */
+    private String encode(PortfolioSnapshot snapshot, JsonNode portfolio, String portfolioJson,
+            PortfolioSnapshot latest) {
+        long chainLength = latest.isKeyframe() ? 1 : snapshotRepository.countByKeyframeSnapshotId(
+                latest.getKeyframeSnapshotId()) + 1;
+        if (chainLength >= keyframeInterval) {
+            return portfolioJson;
+        }
+        String patch = JsonPatch.diff(materialize(latest), portfolio).toString();
+        if (patch.length() >= portfolioJson.length()) {
+            return portfolioJson;
+        }
+        snapshot.markDeltaOf(latest);
+        return patch;
+    }
+
+    /**
+     * Before a snapshot is deleted or overwritten, turn the deltas that come
+     * after it in its chain into a chain of their own, starting from a new
+     * keyframe.
+     */
+    private void rebaseDependents(PortfolioSnapshot snapshot) {
+        Long keyframeId = snapshot.isKeyframe() ? snapshot.getId() : snapshot.getKeyframeSnapshotId();
+        List<PortfolioSnapshot> later = snapshotRepository.findByKeyframeSnapshotIdAndIdGreaterThanOrderByIdAsc(
+                keyframeId, snapshot.getId());
+        if (later.isEmpty()) {
+            return;
+        }
+        Map<Long, JsonNode> portfolios = materializeChain(keyframeId, later.get(later.size() - 1).getId());
+
+        PortfolioSnapshot previous = null;
+        for (PortfolioSnapshot dependent : later) {
+            JsonNode portfolio = portfolios.get(dependent.getId());
+            if (previous == null) {
+                dependent.markKeyframe();
+                writePayload(dependent, portfolio.toString());
+            } else {
+                dependent.markDeltaOf(previous);
+                writePayload(dependent, JsonPatch.diff(portfolios.get(previous.getId()), portfolio).toString());
+            }
+            previous = dependent;
+        }
+        snapshotRepository.saveAll(later);
+        logger.debug("Rebased {} snapshot(s) after snapshot {}", later.size(), snapshot.getId());
+    }
+
+    /**
+     * Re-encode the members of a chain that follow its first deleted member:
+     * each survivor becomes a delta of the survivor before it, or a keyframe
+     * when there is none. Returns the change in stored bytes (positive when
+     * the chain shrank).
+     */
+    private long rebuildChain(Long keyframeId, Set<Long> deletedIds) {
+        PortfolioSnapshot keyframe = snapshotRepository.findById(keyframeId)
+                .orElseThrow(() -> new IllegalStateException("Missing keyframe snapshot " + keyframeId));
+        List<PortfolioSnapshot> chain = new ArrayList<>();
+        chain.add(keyframe);
+        chain.addAll(snapshotRepository.findByKeyframeSnapshotIdAndIdGreaterThanOrderByIdAsc(keyframeId, keyframeId));
+
+        int firstDeleted = 0;
+        while (firstDeleted < chain.size() && !deletedIds.contains(chain.get(firstDeleted).getId())) {
+            firstDeleted++;
+        }
+        if (firstDeleted == chain.size()) {
+            return 0;
+        }
+        Map<Long, JsonNode> portfolios = materializeChain(keyframeId, chain.get(chain.size() - 1).getId());
+
+        long reclaimed = 0;
+        PortfolioSnapshot previous = firstDeleted > 0 ? chain.get(firstDeleted - 1) : null;
+        List<PortfolioSnapshot> rewritten = new ArrayList<>();
+        for (PortfolioSnapshot member : chain.subList(firstDeleted, chain.size())) {
+            if (deletedIds.contains(member.getId())) {
+                continue;
+            }
+            int before = member.getPayloadSize() != null ? member.getPayloadSize() : 0;
+            JsonNode portfolio = portfolios.get(member.getId());
+            if (previous == null) {
+                member.markKeyframe();
+                writePayload(member, portfolio.toString());
+            } else {
+                member.markDeltaOf(previous);
+                writePayload(member, JsonPatch.diff(portfolios.get(previous.getId()), portfolio).toString());
+            }
+            reclaimed += before - member.getPayloadSize();
+            rewritten.add(member);
+            previous = member;
+        }
+        snapshotRepository.saveAll(rewritten);
+        return reclaimed;
+    }
+
+    private PortfolioSnapshot withPortfolioJson(PortfolioSnapshot snapshot) {
+        snapshot.setPortfolioJson(materialize(snapshot).toString());
+        return snapshot;
+    }
+
+    /**
+     * Full portfolio of a snapshot: its keyframe plus the deltas leading to it.
+     */
+    private JsonNode materialize(PortfolioSnapshot snapshot) {
+        if (snapshot.isKeyframe()) {
+            return readTree(readPayloads(List.of(snapshot.getId())).get(snapshot.getId()));
+        }
+        return materializeChain(snapshot.getKeyframeSnapshotId(), snapshot.getId()).get(snapshot.getId());
+    }
+
+    /**
+     * Portfolios of a keyframe and of every delta of its chain up to
+     * {@code lastId}. Snapshots and payloads are each loaded with one query.
+     */
+    private Map<Long, JsonNode> materializeChain(Long keyframeId, Long lastId) {
+        PortfolioSnapshot keyframe = snapshotRepository.findById(keyframeId)
+                .orElseThrow(() -> new IllegalStateException("Missing keyframe snapshot " + keyframeId));
+        List<PortfolioSnapshot> chain = new ArrayList<>();
+        chain.add(keyframe);
+        chain.addAll(snapshotRepository.findByKeyframeSnapshotIdAndIdLessThanEqualOrderByIdAsc(keyframeId, lastId));
+
+        List<Long> ids = new ArrayList<>(chain.size());
+        for (PortfolioSnapshot snapshot : chain) {
+            ids.add(snapshot.getId());
+        }
+        Map<Long, String> payloads = readPayloads(ids);
+
+        // Sorted by id, so a base always precedes its deltas
+        Map<Long, JsonNode> portfolios = new HashMap<>();
+        for (PortfolioSnapshot snapshot : chain) {
+            JsonNode payload = readTree(payloads.get(snapshot.getId()));
+            if (snapshot.isKeyframe()) {
+                portfolios.put(snapshot.getId(), payload);
+            } else {
+                JsonNode base = portfolios.get(snapshot.getBaseSnapshotId());
+                if (base == null) {
+                    throw new IllegalStateException("Missing base snapshot " + snapshot.getBaseSnapshotId());
+                }
+                portfolios.put(snapshot.getId(), JsonPatch.apply(base, payload));
+            }
+        }
+        return portfolios;
+    }
+
+    private void writePayload(PortfolioSnapshot snapshot, String payload) {
+        byte[] raw = payload.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = deflate(raw);
+        payloadRepository.save(new PortfolioSnapshotPayload(snapshot.getId(), compressed, raw.length));
+        snapshot.setPayloadSize(compressed.length);
+    }
+
+    private Map<Long, String> readPayloads(List<Long> snapshotIds) {
+        Map<Long, String> payloads = new HashMap<>();
+        for (PortfolioSnapshotPayload payload : payloadRepository.findAllById(snapshotIds)) {
+            payloads.put(payload.getSnapshotId(),
+                    new String(inflate(payload.getData(), payload.getRawSize()), StandardCharsets.UTF_8));
+        }
+        for (Long id : snapshotIds) {
+            if (!payloads.containsKey(id)) {
+                throw new IllegalStateException("Missing payload for snapshot " + id);
+            }
+        }
+        return payloads;
+    }
+
+    /**
+     * Snapshots deleted and compressed payload bytes freed by a deletion.
+     */
+    public record Reclaimed(int snapshots, long bytes) {
+    }
+
+    static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(byte[] compressed, int rawSize) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawSize];
+            int read = 0;
+            while (read < rawSize && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawSize - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawSize) {
+                throw new IllegalStateException("Corrupt snapshot payload: expected " + rawSize + " bytes, got "
+                        + read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt snapshot payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt snapshot payload", e);
+        }
     }
 }
@@ -0,0 +1,134 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import com.example.investmenttracker.dto.HoldingPosition;
+import com.example.investmenttracker.dto.PortfolioSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the portfolio summary shown above the ETF list in one pass over
+ * the user's current positions.
+ *
+ * Positions come from the {@link EtfPositionProjection}, and prices are the
+ * stored ones, read in a single query and converted to the base currency
+ * together; only tickers that were never priced are fetched from the
+ * provider. A price older than the freshness window is still used and
+ * flagged as stale.
+ */
+@Service
+public class PortfolioSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSummaryService.class);
+    private static final int MONEY_SCALE = 2;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final EtfPositionProjection positionProjection;
+    private final EtfPriceService etfPriceService;
+    private final FxRateService fxRateService;
+    private final UserService userService;
+
+    public PortfolioSummaryService(EtfPositionProjection positionProjection, EtfPriceService etfPriceService,
+            FxRateService fxRateService, UserService userService) {
+        this.positionProjection = positionProjection;
+        this.etfPriceService = etfPriceService;
+        this.fxRateService = fxRateService;
+        this.userService = userService;
+    }
+
+    public PortfolioSummary getSummary(String userEmail) {
+        String baseCurrency = userService.getBaseCurrency(userEmail);
+        List<HoldingPosition> positions = positionProjection.positionsFor(userEmail);
+        Map<String, EtfPriceResponse> prices = pricesFor(positions, baseCurrency);
+
+        List<PortfolioSummary.EtfSummary> etfs = new ArrayList<>(positions.size());
+        BigDecimal totalInvestment = BigDecimal.ZERO;
+        BigDecimal totalFees = BigDecimal.ZERO;
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal totalGain = BigDecimal.ZERO;
+        for (HoldingPosition position : positions) {
+            PortfolioSummary.EtfSummary etf = new PortfolioSummary.EtfSummary();
+            etf.setEtfId(position.getEtfId());
+            etf.setTicker(position.getTicker());
+            etf.setName(position.getName());
+            etf.setTransactionCount(position.getTransactionCount());
+            etf.setTotalUnits(position.getUnits());
+            etf.setCostBasis(money(position.getCostBasis()));
+            etf.setFees(money(position.getFees()));
+            BigDecimal investment = position.getCostBasis().add(position.getFees());
+            etf.setTotalInvestment(money(investment));
+            totalInvestment = totalInvestment.add(investment);
+            totalFees = totalFees.add(position.getFees());
+
+            EtfPriceResponse price = prices.get(position.getTicker());
+            BigDecimal unitPrice = price == null ? null
+                    : price.getPriceInBaseCurrency() != null ? price.getPriceInBaseCurrency() : price.getPrice();
+            if (unitPrice != null) {
+                BigDecimal value = position.getUnits().multiply(unitPrice);
+                BigDecimal gain = value.subtract(investment);
+                etf.setCurrentPrice(unitPrice);
+                etf.setPriceUpdatedAt(price.getLastUpdated());
+                etf.setPriceStale(price.isStale());
+                etf.setCurrentValue(money(value));
+                etf.setGain(money(gain));
+                etf.setGainPercentage(percentage(gain, investment));
+                totalValue = totalValue.add(value);
+                totalGain = totalGain.add(gain);
+            }
+            etfs.add(etf);
+        }
+        return new PortfolioSummary(baseCurrency, etfs, money(totalInvestment), money(totalFees), money(totalValue),
+                money(totalGain), percentage(totalGain, totalInvestment));
+    }
+
+    /**
+     * Base currency prices by ticker: stored prices in one query, plus a
+     * provider fetch for tickers that have none yet.
+     */
+    private Map<String, EtfPriceResponse> pricesFor(List<HoldingPosition> positions, String baseCurrency) {
+        Set<String> tickers = new LinkedHashSet<>();
+        for (HoldingPosition position : positions) {
+            if (position.getTicker() != null) {
+                tickers.add(position.getTicker());
+            }
+        }
+        List<EtfPriceResponse> found = new ArrayList<>(etfPriceService.getStoredPrices(tickers));
+        Set<String> missing = new LinkedHashSet<>(tickers);
+        for (EtfPriceResponse price : found) {
+            missing.remove(price.getTicker());
+        }
+        for (String ticker : missing) {
+            try {
+                found.add(etfPriceService.getPrice(ticker));
+            } catch (Exception e) {
+                logger.debug("No price for {} in summary: {}", ticker, e.getMessage());
+            }
+        }
+
+        Map<String, EtfPriceResponse> byTicker = new HashMap<>();
+        for (EtfPriceResponse price : fxRateService.toBaseCurrency(found, baseCurrency)) {
+            byTicker.put(price.getTicker(), price);
+        }
+        return byTicker;
+    }
+
+    private static BigDecimal money(BigDecimal amount) {
+        return amount.setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal percentage(BigDecimal gain, BigDecimal investment) {
+        return investment.signum() > 0
+                ? gain.multiply(HUNDRED).divide(investment, MONEY_SCALE, RoundingMode.HALF_UP)
+                : null;
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import com.example.investmenttracker.dto.PortfolioTimeseries;
+import com.example.investmenttracker.exception.ValidationException;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfPriceHistory;
+import com.example.investmenttracker.model.EtfTransaction;
+import com.example.investmenttracker.model.TriggerAction;
+import com.example.investmenttracker.persistence.EtfPriceHistoryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Daily market value, invested capital and gain of a user's ETFs.
+ *
+ * A series is built in one pass over the days of the range. The
+ * transactions, sorted by date, carry the units held per ETF as folded by
+ * {@link PositionFold}, and the stored closes, sorted by date, keep a
+ * running price per ETF; each only adjusts the day's total by what changed. Closes are
+ * converted at the current FX rate, a trade date without a close uses the
+ * trade price, and today uses the stored current price.
+ *
+ * Series are cached per user and range. A changed transaction or price
+ * keeps the days before its date, so the next read only sweeps from there.
+ */
+@Service
+public class PortfolioTimeseriesService {
+
+    private static final int MONEY_SCALE = 2;
+    // Distinct ranges kept per user; one more starts the user's cache over
+    private static final int MAX_RANGES_PER_USER = 16;
+    // Transactions report the date they change; assets are not part of the series
+    private static final Set<TriggerAction> IGNORED_ACTIONS = EnumSet.of(TriggerAction.TRANSACTION_ADDED,
+            TriggerAction.TRANSACTION_UPDATED, TriggerAction.TRANSACTION_DELETED, TriggerAction.ASSET_CREATED,
+            TriggerAction.ASSET_UPDATED, TriggerAction.ASSET_DELETED, TriggerAction.MANUAL_EXPORT);
+
+    private final EtfService etfService;
+    private final UserService userService;
+    private final EtfPriceService etfPriceService;
+    private final FxRateService fxRateService;
+    private final EtfPriceHistoryRepository historyRepository;
+    // Each user's ranges, replaced as a whole on every change
+    private final UserCache<Map<Range, Cached>> series = new UserCache<>();
+
+    public PortfolioTimeseriesService(EtfService etfService, UserService userService,
+            EtfPriceService etfPriceService, FxRateService fxRateService,
+            EtfPriceHistoryRepository historyRepository) {
+        this.etfService = etfService;
+        this.userService = userService;
+        this.etfPriceService = etfPriceService;
+        this.fxRateService = fxRateService;
+        this.historyRepository = historyRepository;
+    }
+
+    /**
+     * Daily points from {@code from} (the first transaction date when null)
+     * to {@code to} (today when null or later).
+     */
+    @Transactional(readOnly = true)
+    public PortfolioTimeseries getTimeseries(String userEmail, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate end = to == null || to.isAfter(today) ? today : to;
+        if (from != null && from.isAfter(end)) {
+            throw new ValidationException("portfolio.timeseries.invalid.range", from, end);
+        }
+        String baseCurrency = userService.getBaseCurrency(userEmail);
+        Range range = new Range(from, end, baseCurrency);
+        Map<Range, Cached> ranges = series.get(userEmail);
+        Cached cached = ranges != null ? ranges.get(range) : null;
+        if (cached != null && cached.resumeFrom() == null) {
+            return cached.series();
+        }
+
+        long seen = series.stamp();
+        List<Etf> etfs = etfService.getAllEtfs(userEmail);
+        LocalDate start = from != null ? from : firstTransactionDate(etfs, end);
+        List<PortfolioTimeseries.Point> points = new ArrayList<>();
+        LocalDate sweepFrom = start;
+        if (cached != null && cached.series().getFrom().equals(start)) {
+            points.addAll(cached.series().getPoints());
+            sweepFrom = cached.resumeFrom();
+        }
+        points.addAll(sweep(etfs, sweepFrom, end, today, baseCurrency));
+        PortfolioTimeseries result = new PortfolioTimeseries(start, end, baseCurrency, points);
+
+        Cached fresh = new Cached(result, tickersOf(etfs), null);
+        series.update(userEmail, seen, current -> {
+            Map<Range, Cached> updated = new HashMap<>();
+            if (current != null && (current.size() < MAX_RANGES_PER_USER || current.containsKey(range))) {
+                updated.putAll(current);
+            }
+            updated.put(range, fresh);
+            return Map.copyOf(updated);
+        });
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (IGNORED_ACTIONS.contains(event.action())) {
+            return;
+        }
+        series.invalidate(event.userEmail());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.from() == null) {
+            series.invalidate(event.userEmail());
+        } else {
+            series.change(event.userEmail(), ranges -> truncate(ranges, event.from(), null));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        String ticker = event.ticker().toUpperCase(Locale.ROOT);
+        series.changeAll(ranges -> truncate(ranges, event.from(), ticker));
+    }
+
+    /**
+     * The ranges cut at {@code from}, without those left empty; null when
+     * none is left.
+     */
+    private static Map<Range, Cached> truncate(Map<Range, Cached> ranges, LocalDate from, String ticker) {
+        Map<Range, Cached> kept = new HashMap<>();
+        for (Map.Entry<Range, Cached> entry : ranges.entrySet()) {
+            Cached truncated = entry.getValue().truncatedAt(from, ticker);
+            if (truncated != null) {
+                kept.put(entry.getKey(), truncated);
+            }
+        }
+        return kept.isEmpty() ? null : Map.copyOf(kept);
+    }
+
+    private List<PortfolioTimeseries.Point> sweep(List<Etf> etfs, LocalDate from, LocalDate to, LocalDate today,
+            String baseCurrency) {
+        Map<String, Integer> indexByTicker = new HashMap<>();
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < etfs.size(); i++) {
+            Etf etf = etfs.get(i);
+            if (etf.getTicker() != null) {
+                indexByTicker.put(etf.getTicker(), i);
+            }
+            PositionFold fold = new PositionFold();
+            for (EtfTransaction transaction : PositionFold.ordered(etf.getTransactions())) {
+                if (transaction.getTransactionDate().isAfter(to)) {
+                    break;
+                }
+                fold.apply(transaction);
+                trades.add(Trade.of(i, transaction, fold));
+            }
+        }
+        // Stable, so the trades of one ETF on one day stay in fold order
+        trades.sort(Comparator.comparingInt(Trade::day));
+
+        Ledger ledger = new Ledger(etfs.size());
+        int fromDay = (int) from.toEpochDay();
+        int next = 0;
+        while (next < trades.size() && trades.get(next).day() < fromDay) {
+            ledger.apply(trades.get(next++));
+        }
+        Map<String, Double> rates = new HashMap<>();
+        // Price of what is held when the range starts, unless a later trade priced it
+        for (Map.Entry<String, Integer> entry : indexByTicker.entrySet()) {
+            int etf = entry.getValue();
+            if (!ledger.holds(etf)) {
+                continue;
+            }
+            historyRepository.findFirstByTickerAndPriceDateLessThanEqualOrderByPriceDateDesc(entry.getKey(),
+                    from.minusDays(1)).ifPresent(bar -> {
+                        int day = (int) bar.getPriceDate().toEpochDay();
+                        double price = convert(bar, baseCurrency, rates);
+                        if (!Double.isNaN(price) && day >= ledger.markDay(etf)) {
+                            ledger.mark(etf, day, price);
+                        }
+                    });
+        }
+        List<EtfPriceHistory> closes = indexByTicker.isEmpty()
+                ? List.of()
+                : historyRepository.findByTickerInAndPriceDateBetweenOrderByPriceDateAsc(indexByTicker.keySet(),
+                        from, to);
+        Map<Integer, Double> current = to.equals(today) ? currentPrices(indexByTicker, baseCurrency) : Map.of();
+
+        int toDay = (int) to.toEpochDay();
+        int todayDay = (int) today.toEpochDay();
+        List<PortfolioTimeseries.Point> points = new ArrayList<>(Math.max(0, toDay - fromDay + 1));
+        int close = 0;
+        for (int day = fromDay; day <= toDay; day++) {
+            while (next < trades.size() && trades.get(next).day() == day) {
+                ledger.apply(trades.get(next++));
+            }
+            while (close < closes.size() && closes.get(close).getPriceDate().toEpochDay() == day) {
+                EtfPriceHistory bar = closes.get(close++);
+                Integer etf = indexByTicker.get(bar.getTicker());
+                double price = convert(bar, baseCurrency, rates);
+                if (etf != null && !Double.isNaN(price)) {
+                    ledger.mark(etf, day, price);
+                }
+            }
+            if (day == todayDay) {
+                for (Map.Entry<Integer, Double> entry : current.entrySet()) {
+                    ledger.mark(entry.getKey(), day, entry.getValue());
+                }
+            }
+            points.add(ledger.point(LocalDate.ofEpochDay(day)));
+        }
+        return points;
+    }
+
+    private Map<Integer, Double> currentPrices(Map<String, Integer> indexByTicker, String baseCurrency) {
+        Map<Integer, Double> prices = new HashMap<>();
+        for (EtfPriceResponse price : fxRateService.toBaseCurrency(
+                etfPriceService.getStoredPrices(indexByTicker.keySet()), baseCurrency)) {
+            Integer etf = indexByTicker.get(price.getTicker());
+            if (etf != null && price.getPriceInBaseCurrency() != null) {
+                prices.put(etf, price.getPriceInBaseCurrency().doubleValue());
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * Close in the base currency, or NaN when the currency cannot be
+     * converted. Rates are looked up once per currency and sweep.
+     */
+    private double convert(EtfPriceHistory bar, String baseCurrency, Map<String, Double> rates) {
+        Double rate = rates.get(bar.getCurrency());
+        if (rate == null) {
+            BigDecimal found = fxRateService.rate(bar.getCurrency(), baseCurrency);
+            rate = found != null ? found.doubleValue() : Double.NaN;
+            rates.put(bar.getCurrency(), rate);
+        }
+        return bar.getClosePrice().doubleValue() * rate;
+    }
+
+    private static LocalDate firstTransactionDate(List<Etf> etfs, LocalDate end) {
+        LocalDate first = end;
+        for (Etf etf : etfs) {
+            if (etf.getTransactions() == null) {
+                continue;
+            }
+            for (EtfTransaction transaction : etf.getTransactions()) {
+                if (transaction.getTransactionDate() != null && transaction.getTransactionDate().isBefore(first)) {
+                    first = transaction.getTransactionDate();
+                }
+            }
+        }
+        return first;
+    }
+
+    private static Set<String> tickersOf(List<Etf> etfs) {
+        Set<String> tickers = new HashSet<>();
+        for (Etf etf : etfs) {
+            if (etf.getTicker() != null) {
+                tickers.add(etf.getTicker().toUpperCase(Locale.ROOT));
+            }
+        }
+        return tickers;
+    }
+
+    private static BigDecimal money(double amount) {
+        return BigDecimal.valueOf(amount).setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Cache key: {@code from} is null for "since the first transaction".
+     */
+    private record Range(LocalDate from, LocalDate to, String baseCurrency) {
+    }
+
+    /**
+     * A cached series with the tickers it was built from. When
+     * {@code resumeFrom} is set, only the points before it are still valid.
+     */
+    private record Cached(PortfolioTimeseries series, Set<String> tickers, LocalDate resumeFrom) {
+
+        /**
+         * This series without the days from {@code date} on, or null if no
+         * day is left. A {@code ticker} the series does not hold changes
+         * nothing.
+         */
+        Cached truncatedAt(LocalDate date, String ticker) {
+            if (ticker != null && !tickers.contains(ticker) || date.isAfter(series.getTo())
+                    || resumeFrom != null && !resumeFrom.isAfter(date)) {
+                return this;
+            }
+            if (!date.isAfter(series.getFrom())) {
+                return null;
+            }
+            List<PortfolioTimeseries.Point> points = series.getPoints();
+            int kept = (int) Math.min(points.size(), ChronoUnit.DAYS.between(series.getFrom(), date));
+            PortfolioTimeseries prefix = new PortfolioTimeseries(series.getFrom(), date.minusDays(1),
+                    series.getBaseCurrency(), new ArrayList<>(points.subList(0, kept)));
+            return new Cached(prefix, tickers, date);
+        }
+    }
+
+    /**
+     * One transaction for the sweep: the ETF's index, the day, the units
+     * held after it, the change in invested capital and the trade price
+     * (NaN when unknown).
+     */
+    private record Trade(int etf, int day, double units, double invested, double price) {
+
+        /**
+         * {@code fold} has just applied {@code transaction}.
+         */
+        static Trade of(int etf, EtfTransaction transaction, PositionFold fold) {
+            BigDecimal cost = transaction.getTransactionCost();
+            double price = cost != null && cost.signum() > 0
+                    ? cost.doubleValue() / transaction.getUnitsPurchased().doubleValue()
+                    : Double.NaN;
+            return new Trade(etf, (int) transaction.getTransactionDate().toEpochDay(), fold.units().doubleValue(),
+                    PositionFold.invested(transaction).doubleValue(), price);
+        }
+    }
+
+    /**
+     * Units and price per ETF during the sweep, with the total value of the
+     * priced holdings and the number of holdings without a price.
+     */
+    private static final class Ledger {
+
+        private final double[] units;
+        private final double[] marks;
+        private final int[] markDays;
+        private double value;
+        private int unpriced;
+        private double invested;
+
+        Ledger(int size) {
+            units = new double[size];
+            marks = new double[size];
+            markDays = new int[size];
+            Arrays.fill(marks, Double.NaN);
+            Arrays.fill(markDays, Integer.MIN_VALUE);
+        }
+
+        void apply(Trade trade) {
+            int etf = trade.etf();
+            remove(etf);
+            units[etf] = trade.units();
+            invested += trade.invested();
+            if (!Double.isNaN(trade.price())) {
+                marks[etf] = trade.price();
+                markDays[etf] = trade.day();
+            }
+            add(etf);
+        }
+
+        void mark(int etf, int day, double price) {
+            remove(etf);
+            marks[etf] = price;
+            markDays[etf] = day;
+            add(etf);
+        }
+
+        boolean holds(int etf) {
+            return units[etf] > 0;
+        }
+
+        int markDay(int etf) {
+            return markDays[etf];
+        }
+
+        PortfolioTimeseries.Point point(LocalDate date) {
+            BigDecimal investedAmount = money(invested);
+            if (unpriced > 0) {
+                return new PortfolioTimeseries.Point(date, null, investedAmount, null);
+            }
+            BigDecimal marketValue = money(value);
+            return new PortfolioTimeseries.Point(date, marketValue, investedAmount,
+                    marketValue.subtract(investedAmount));
+        }
+
+        private void remove(int etf) {
+            if (units[etf] > 0) {
+                if (Double.isNaN(marks[etf])) {
+                    unpriced--;
+                } else {
+                    value -= units[etf] * marks[etf];
+                }
+            }
+        }
+
+        private void add(int etf) {
+            if (units[etf] > 0) {
+                if (Double.isNaN(marks[etf])) {
+                    unpriced++;
+                } else {
+                    value += units[etf] * marks[etf];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.model.EtfTransaction;
+import com.example.investmenttracker.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The running position of one ETF, folded from its transactions in order.
+ *
+ * Buys add their units, cost and fees. A sale takes cost and fees off at
+ * the running average, in proportion to the units sold, and at most empties
+ * the position. Everything that reports units held, cost basis or the cash
+ * a transaction moved goes through this class, so it agrees on the order
+ * of transactions, on which ones count and on fees: they add to what a buy
+ * cost and come off what a sale returned.
+ */
+final class PositionFold {
+
+    // Same-day transactions in the order they were entered
+    private static final Comparator<EtfTransaction> ORDER = Comparator
+            .comparing(EtfTransaction::getTransactionDate)
+            .thenComparing(EtfTransaction::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private BigDecimal units = BigDecimal.ZERO;
+    private BigDecimal cost = BigDecimal.ZERO;
+    private BigDecimal fees = BigDecimal.ZERO;
+    private int transactions;
+
+    /**
+     * The transactions that move a position, oldest first: those with a
+     * date and a positive number of units.
+     */
+    static List<EtfTransaction> ordered(Collection<EtfTransaction> transactions) {
+        List<EtfTransaction> ordered = transactions != null ? new ArrayList<>(transactions) : new ArrayList<>();
+        ordered.removeIf(t -> t.getTransactionDate() == null || t.getUnitsPurchased() == null
+                || t.getUnitsPurchased().signum() <= 0);
+        ordered.sort(ORDER);
+        return ordered;
+    }
+
+    /**
+     * Position after all of {@code transactions}.
+     */
+    static PositionFold of(Collection<EtfTransaction> transactions) {
+        PositionFold fold = new PositionFold();
+        for (EtfTransaction transaction : ordered(transactions)) {
+            fold.apply(transaction);
+        }
+        return fold;
+    }
+
+    /**
+     * Apply the next transaction; callers pass them in {@link #ordered} order.
+     */
+    void apply(EtfTransaction transaction) {
+        transactions++;
+        BigDecimal transactionUnits = transaction.getUnitsPurchased();
+        if (!isSale(transaction)) {
+            units = units.add(transactionUnits);
+            cost = cost.add(orZero(transaction.getTransactionCost()));
+            fees = fees.add(orZero(transaction.getTransactionFees()));
+            return;
+        }
+        if (units.signum() <= 0) {
+            return;
+        }
+        BigDecimal remaining = units.subtract(transactionUnits);
+        if (remaining.signum() > 0) {
+            BigDecimal kept = remaining.divide(units, MathContext.DECIMAL64);
+            cost = cost.multiply(kept, MathContext.DECIMAL64);
+            fees = fees.multiply(kept, MathContext.DECIMAL64);
+            units = remaining;
+        } else {
+            units = BigDecimal.ZERO;
+            cost = BigDecimal.ZERO;
+            fees = BigDecimal.ZERO;
+        }
+    }
+
+    BigDecimal units() {
+        return units;
+    }
+
+    /**
+     * Cost of the units held, fees excluded.
+     */
+    BigDecimal cost() {
+        return cost;
+    }
+
+    /**
+     * Fees attributed to the units held.
+     */
+    BigDecimal fees() {
+        return fees;
+    }
+
+    int transactions() {
+        return transactions;
+    }
+
+    /**
+     * Cost and fees per unit held, or null when nothing is held.
+     */
+    BigDecimal averageCost() {
+        return units.signum() > 0 ? cost.add(fees).divide(units, MathContext.DECIMAL64) : null;
+    }
+
+    static boolean isSale(EtfTransaction transaction) {
+        return transaction.getTransactionType() == TransactionType.SELL;
+    }
+
+    /**
+     * Cash a buy took, fees included.
+     */
+    static BigDecimal paid(EtfTransaction buy) {
+        return orZero(buy.getTransactionCost()).add(orZero(buy.getTransactionFees()));
+    }
+
+    /**
+     * Cash a sale returned, fees deducted.
+     */
+    static BigDecimal proceeds(EtfTransaction sale) {
+        return orZero(sale.getTransactionCost()).subtract(orZero(sale.getTransactionFees()));
+    }
+
+    /**
+     * Net cash put in by a transaction: what a buy took, or minus what a
+     * sale returned.
+     */
+    static BigDecimal invested(EtfTransaction transaction) {
+        return isSale(transaction) ? proceeds(transaction).negate() : paid(transaction);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.model.AlertDirection;
+import com.example.investmenttracker.model.AlertMetric;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Active alerts grouped by ticker, each group keeping its thresholds sorted.
+ *
+ * A price update only touches the alerts of its own ticker. Within a ticker,
+ * the alerts that fire are exactly a prefix or suffix of a sorted map (e.g.
+ * every "above" level at or below the new price), so evaluation costs
+ * O(log n + fired) instead of a scan. Fired alerts are removed in the same
+ * step, which makes them one-shot even under concurrent updates.
+ *
+ * Cost basis alerts are stored as price levels, resolved when indexed; daily
+ * change alerts are compared against the move versus the previous close.
+ */
+class PriceAlertIndex {
+
+    /**
+     * An indexed alert. {@code level} is the price (quote currency) for price
+     * and cost basis alerts, and the percentage for daily change alerts.
+     */
+    record Entry(long alertId, String userEmail, String ticker, AlertMetric metric, AlertDirection direction,
+            BigDecimal threshold, double level) {
+    }
+
+    private final Map<String, TickerAlerts> byTicker = new ConcurrentHashMap<>();
+
+    void add(Entry entry) {
+        byTicker.computeIfAbsent(entry.ticker().toUpperCase(), key -> new TickerAlerts()).add(entry);
+    }
+
+    void remove(String ticker, long alertId) {
+        TickerAlerts alerts = byTicker.get(ticker.toUpperCase());
+        if (alerts != null) {
+            alerts.remove(alertId);
+        }
+    }
+
+    /**
+     * Drop one user's alerts of the given metric for a ticker, so they can be
+     * indexed again with new levels.
+     */
+    void removeAll(String ticker, AlertMetric metric, String userEmail) {
+        TickerAlerts alerts = byTicker.get(ticker.toUpperCase());
+        if (alerts != null) {
+            alerts.removeAll(metric, userEmail);
+        }
+    }
+
+    /**
+     * Remove and return the alerts that fire for a new price. Pass NaN as the
+     * daily change when there is no previous close.
+     */
+    List<Entry> evaluate(String ticker, double price, double dailyChangePercent) {
+        TickerAlerts alerts = byTicker.get(ticker.toUpperCase());
+        return alerts != null ? alerts.evaluate(price, dailyChangePercent) : List.of();
+    }
+
+    int size() {
+        int size = 0;
+        for (TickerAlerts alerts : byTicker.values()) {
+            size += alerts.size();
+        }
+        return size;
+    }
+
+    private static final class TickerAlerts {
+
+        private final NavigableMap<Double, List<Entry>> priceAbove = new TreeMap<>();
+        private final NavigableMap<Double, List<Entry>> priceBelow = new TreeMap<>();
+        private final NavigableMap<Double, List<Entry>> changeAbove = new TreeMap<>();
+        private final NavigableMap<Double, List<Entry>> changeBelow = new TreeMap<>();
+        private final Map<Long, Entry> byId = new HashMap<>();
+
+        synchronized void add(Entry entry) {
+            Entry previous = byId.put(entry.alertId(), entry);
+            if (previous != null) {
+                unlink(previous);
+            }
+            mapFor(entry).computeIfAbsent(entry.level(), level -> new ArrayList<>(1)).add(entry);
+        }
+
+        synchronized void remove(long alertId) {
+            Entry entry = byId.remove(alertId);
+            if (entry != null) {
+                unlink(entry);
+            }
+        }
+
+        synchronized void removeAll(AlertMetric metric, String userEmail) {
+            List<Entry> matching = new ArrayList<>();
+            for (Entry entry : byId.values()) {
+                if (entry.metric() == metric && userEmail.equals(entry.userEmail())) {
+                    matching.add(entry);
+                }
+            }
+            for (Entry entry : matching) {
+                byId.remove(entry.alertId());
+                unlink(entry);
+            }
+        }
+
+        synchronized List<Entry> evaluate(double price, double dailyChangePercent) {
+            List<Entry> fired = new ArrayList<>();
+            drain(priceAbove.headMap(price, true), fired);
+            drain(priceBelow.tailMap(price, true), fired);
+            if (!Double.isNaN(dailyChangePercent)) {
+                drain(changeAbove.headMap(dailyChangePercent, true), fired);
+                drain(changeBelow.tailMap(dailyChangePercent, true), fired);
+            }
+            return fired;
+        }
+
+        synchronized int size() {
+            return byId.size();
+        }
+
+        private void drain(NavigableMap<Double, List<Entry>> range, List<Entry> fired) {
+            if (range.isEmpty()) {
+                return;
+            }
+            for (List<Entry> entries : range.values()) {
+                for (Entry entry : entries) {
+                    byId.remove(entry.alertId());
+                    fired.add(entry);
+                }
+            }
+            range.clear();
+        }
+
+        private void unlink(Entry entry) {
+            NavigableMap<Double, List<Entry>> map = mapFor(entry);
+            List<Entry> entries = map.get(entry.level());
+            if (entries != null) {
+                entries.removeIf(e -> e.alertId() == entry.alertId());
+                if (entries.isEmpty()) {
+                    map.remove(entry.level());
+                }
+            }
+        }
+
+        private NavigableMap<Double, List<Entry>> mapFor(Entry entry) {
+            boolean above = entry.direction() == AlertDirection.ABOVE;
+            if (entry.metric() == AlertMetric.DAILY_CHANGE_PERCENT) {
+                return above ? changeAbove : changeBelow;
+            }
+            return above ? priceAbove : priceBelow;
+        }
+    }
+}
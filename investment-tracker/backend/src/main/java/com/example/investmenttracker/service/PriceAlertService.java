@@ -0,0 +1,299 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.AlertNotification;
+import com.example.investmenttracker.exception.ValidationException;
+import com.example.investmenttracker.model.AlertMetric;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfPrice;
+import com.example.investmenttracker.model.PriceAlert;
+import com.example.investmenttracker.model.User;
+import com.example.investmenttracker.persistence.EtfPriceRepository;
+import com.example.investmenttracker.persistence.EtfRepository;
+import com.example.investmenttracker.persistence.EtfTransactionRepository;
+import com.example.investmenttracker.persistence.JpaEtfRepository;
+import com.example.investmenttracker.persistence.PriceAlertRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Manages price alerts and evaluates them as prices are saved.
+ *
+ * Active alerts live in a {@link PriceAlertIndex} built on first use and kept
+ * in sync after each committed change. A saved price only evaluates the
+ * alerts of its ticker; the ones that fire are deactivated in the database
+ * and handed to every {@link AlertSink}.
+ */
+@Service
+@Transactional
+public class PriceAlertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceAlertService.class);
+    private static final int PERCENT_SCALE = 4;
+
+    private final PriceAlertRepository alertRepository;
+    private final UserService userService;
+    private final EtfRepository etfRepository;
+    private final EtfTransactionRepository transactionRepository;
+    private final EtfPriceRepository etfPriceRepository;
+    private final FxRateService fxRateService;
+    private final List<AlertSink> sinks;
+    private final PriceAlertIndex index = new PriceAlertIndex();
+    private volatile boolean loaded;
+
+    public PriceAlertService(PriceAlertRepository alertRepository, UserService userService,
+            EtfRepository etfRepository, EtfTransactionRepository transactionRepository,
+            EtfPriceRepository etfPriceRepository, FxRateService fxRateService, List<AlertSink> sinks) {
+        this.alertRepository = alertRepository;
+        this.userService = userService;
+        this.etfRepository = etfRepository;
+        this.transactionRepository = transactionRepository;
+        this.etfPriceRepository = etfPriceRepository;
+        this.fxRateService = fxRateService;
+        this.sinks = sinks;
+    }
+
+    public List<PriceAlert> getAlerts(String userEmail) {
+        User user = userService.getCurrentUser(userEmail);
+        return alertRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+    }
+
+    public PriceAlert createAlert(PriceAlert alert, String userEmail) {
+        if (alert.getTicker() == null || alert.getTicker().isBlank() || alert.getMetric() == null
+                || alert.getDirection() == null || alert.getThreshold() == null) {
+            throw new ValidationException("alert.invalid");
+        }
+        User user = userService.getCurrentUser(userEmail);
+        alert.setId(null);
+        alert.setUser(user);
+        alert.setTicker(alert.getTicker().trim().toUpperCase());
+        alert.setActive(true);
+        alert.setTriggeredAt(null);
+        alert.setTriggeredPrice(null);
+        if (alert.getMetric() == AlertMetric.COST_BASIS_CHANGE_PERCENT
+                && findOwnedEtf(alert.getTicker(), user.getId()).isEmpty()) {
+            throw new ValidationException("alert.cost.basis.unavailable", alert.getTicker());
+        }
+
+        PriceAlert saved = alertRepository.save(alert);
+        afterCommitIfLoaded(() -> indexAlert(saved));
+        return saved;
+    }
+
+    /**
+     * Reactivate a fired alert so it can fire again.
+     */
+    public PriceAlert rearmAlert(Long id, String userEmail) {
+        PriceAlert alert = getOwnedAlert(id, userEmail);
+        alert.setActive(true);
+        alert.setTriggeredAt(null);
+        alert.setTriggeredPrice(null);
+        PriceAlert saved = alertRepository.save(alert);
+        afterCommitIfLoaded(() -> indexAlert(saved));
+        return saved;
+    }
+
+    public void deleteAlert(Long id, String userEmail) {
+        PriceAlert alert = getOwnedAlert(id, userEmail);
+        alertRepository.delete(alert);
+        afterCommitIfLoaded(() -> index.remove(alert.getTicker(), alert.getId()));
+    }
+
+    /**
+     * Evaluate the alerts of a ticker against a newly saved price, once the
+     * surrounding transaction commits.
+     */
+    public void onPriceUpdate(String ticker, BigDecimal price, BigDecimal previousClose) {
+        afterCommit(() -> {
+            try {
+                evaluate(ticker, price, previousClose);
+            } catch (Exception e) {
+                logger.warn("Could not evaluate price alerts for {}: {}", ticker, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Cost basis alerts are indexed as price levels; recompute the user's
+     * alerts on a ticker after its transactions changed. This runs on the
+     * write path, so levels are converted from cached FX rates only; an
+     * alert whose rate is not cached yet stays unindexed until it is
+     * indexed again.
+     */
+    public void onHoldingsChanged(String ticker, User user) {
+        if (ticker == null || user == null) {
+            return;
+        }
+        Long userId = user.getId();
+        String userEmail = user.getEmail();
+        afterCommitIfLoaded(() -> {
+            index.removeAll(ticker, AlertMetric.COST_BASIS_CHANGE_PERCENT, userEmail);
+            for (PriceAlert alert : alertRepository.findActiveWithUser(ticker.toUpperCase(),
+                    AlertMetric.COST_BASIS_CHANGE_PERCENT, userId)) {
+                indexAlert(alert, true);
+            }
+        });
+    }
+
+    private void evaluate(String ticker, BigDecimal price, BigDecimal previousClose) {
+        ensureLoaded();
+        double dailyChange = Double.NaN;
+        BigDecimal dailyChangePercent = null;
+        if (previousClose != null && previousClose.signum() > 0) {
+            dailyChangePercent = price.subtract(previousClose)
+                    .multiply(BigDecimal.valueOf(100))
+                    .divide(previousClose, PERCENT_SCALE, RoundingMode.HALF_UP);
+            dailyChange = dailyChangePercent.doubleValue();
+        }
+
+        List<PriceAlertIndex.Entry> fired = index.evaluate(ticker, price.doubleValue(), dailyChange);
+        if (fired.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>(fired.size());
+        for (PriceAlertIndex.Entry entry : fired) {
+            ids.add(entry.alertId());
+        }
+        alertRepository.markTriggered(ids, now, price);
+        logger.debug("{} alert(s) fired for {} at {}", fired.size(), ticker, price);
+
+        for (PriceAlertIndex.Entry entry : fired) {
+            AlertNotification notification = new AlertNotification(entry.alertId(), entry.userEmail(),
+                    entry.ticker(), entry.metric(), entry.direction(), entry.threshold(), price,
+                    dailyChangePercent, now);
+            for (AlertSink sink : sinks) {
+                try {
+                    sink.deliver(notification);
+                } catch (Exception e) {
+                    logger.warn("Alert sink {} failed for alert {}: {}", sink.getClass().getSimpleName(),
+                            entry.alertId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void indexAlert(PriceAlert alert) {
+        indexAlert(alert, false);
+    }
+
+    private void indexAlert(PriceAlert alert, boolean cachedRatesOnly) {
+        if (!alert.isActive()) {
+            return;
+        }
+        double level;
+        if (alert.getMetric() == AlertMetric.COST_BASIS_CHANGE_PERCENT) {
+            BigDecimal costLevel = costBasisLevel(alert, cachedRatesOnly);
+            if (costLevel == null) {
+                logger.debug("No cost basis for alert {} on {}, not indexed", alert.getId(), alert.getTicker());
+                return;
+            }
+            level = costLevel.doubleValue();
+        } else {
+            level = alert.getThreshold().doubleValue();
+        }
+        index.add(new PriceAlertIndex.Entry(alert.getId(), alert.getUser().getEmail(), alert.getTicker(),
+                alert.getMetric(), alert.getDirection(), alert.getThreshold(), level));
+    }
+
+    /**
+     * Price (in the quote currency) at which a cost basis alert fires: the
+     * average cost per unit, converted from the user's base currency, moved
+     * by the threshold percentage. With {@code cachedRatesOnly} the provider
+     * is never asked for a missing rate.
+     */
+    private BigDecimal costBasisLevel(PriceAlert alert, boolean cachedRatesOnly) {
+        User user = alert.getUser();
+        Optional<Etf> etf = findOwnedEtf(alert.getTicker(), user.getId());
+        if (etf.isEmpty()) {
+            return null;
+        }
+        BigDecimal averageCost = PositionFold.of(transactionRepository.findByEtfId(etf.get().getId())).averageCost();
+        if (averageCost == null) {
+            return null;
+        }
+        String quoteCurrency = etfPriceRepository.findByTicker(alert.getTicker())
+                .map(EtfPrice::getCurrency)
+                .orElse(user.getBaseCurrency());
+        BigDecimal converted = cachedRatesOnly
+                ? fxRateService.convertCached(averageCost, user.getBaseCurrency(), quoteCurrency)
+                : fxRateService.convert(averageCost, user.getBaseCurrency(), quoteCurrency);
+        if (converted == null) {
+            return null;
+        }
+        BigDecimal factor = BigDecimal.ONE.add(alert.getThreshold().movePointLeft(2));
+        return converted.multiply(factor);
+    }
+
+    private Optional<Etf> findOwnedEtf(String ticker, Long userId) {
+        // If using JPA repository, use the user-specific query
+        if (etfRepository instanceof JpaEtfRepository) {
+            return ((JpaEtfRepository) etfRepository).findFirstByUserIdAndTickerIgnoreCase(userId, ticker);
+        }
+
+        // Fallback for file-based repository - filter in memory
+        return etfRepository.findAll().stream()
+                .filter(etf -> ticker.equalsIgnoreCase(etf.getTicker()))
+                .filter(etf -> etf.getUser() != null && userId.equals(etf.getUser().getId()))
+                .findFirst();
+    }
+
+    private PriceAlert getOwnedAlert(Long id, String userEmail) {
+        User user = userService.getCurrentUser(userEmail);
+        return alertRepository.findByIdAndUserId(id, user.getId())
+                .orElseThrow(() -> new ValidationException("alert.not.found", id));
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                for (PriceAlert alert : alertRepository.findActiveWithUser()) {
+                    indexAlert(alert);
+                }
+                loaded = true;
+                logger.debug("Indexed {} active price alert(s)", index.size());
+            }
+        }
+    }
+
+    /**
+     * Apply index changes once the surrounding transaction commits, and only
+     * if the index has been built; otherwise the initial load picks them up.
+     */
+    private void afterCommitIfLoaded(Runnable change) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (loaded) {
+                    change.run();
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.investmenttracker.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a stored price or price history bar of a ticker changes,
+ * so results computed from prices can be dropped. {@code from} is the first
+ * date whose price changed (today for the current price).
+ */
+public record PriceChangedEvent(String ticker, LocalDate from) {
+}
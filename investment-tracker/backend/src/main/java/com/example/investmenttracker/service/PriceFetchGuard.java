@@ -0,0 +1,249 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.config.YahooFinanceProperties;
+import com.example.investmenttracker.exception.PriceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Protects the upstream price provider from repeated failing calls.
+ *
+ * Two mechanisms are combined:
+ * - a short-lived negative cache per ticker with exponential backoff, for
+ * tickers the provider does not know or cannot price;
+ * - a global circuit breaker that opens after consecutive upstream failures
+ * (timeouts, connection errors, 5xx, 429) and rejects calls until a trial
+ * call succeeds.
+ *
+ * Rejected calls throw {@link PriceUnavailableException} immediately so the
+ * caller can fall back to the last known price instead of waiting for a
+ * timeout.
+ */
+@Component
+public class PriceFetchGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceFetchGuard.class);
+    private static final int MAX_TRACKED_TICKERS = 1000;
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final YahooFinanceProperties properties;
+    private final LongSupplier nanoClock;
+    private final Cache<String, TickerFailure> tickerFailures;
+
+    private final Counter circuitOpenRejections;
+    private final Counter tickerBackoffRejections;
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+
+    private final Object lock = new Object();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    @Autowired
+    public PriceFetchGuard(YahooFinanceProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    PriceFetchGuard(YahooFinanceProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.tickerFailures = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_TICKERS)
+                .expireAfterWrite(Duration.ofSeconds(2L * properties.getFailureBackoffMaxSeconds()))
+                .build();
+
+        this.circuitOpenRejections = Counter.builder("yahoo.finance.rejections")
+                .description("Price requests rejected without calling Yahoo Finance")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        this.tickerBackoffRejections = Counter.builder("yahoo.finance.rejections")
+                .description("Price requests rejected without calling Yahoo Finance")
+                .tag("reason", "ticker_backoff")
+                .register(meterRegistry);
+        for (State s : State.values()) {
+            transitions.put(s, Counter.builder("yahoo.finance.circuit.transitions")
+                    .description("Circuit breaker state changes")
+                    .tag("state", s.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("yahoo.finance.circuit.state", this, guard -> guard.getState().ordinal())
+                .description("Circuit breaker state (0=closed, 1=open, 2=half-open)")
+                .register(meterRegistry);
+        Gauge.builder("yahoo.finance.ticker.backoff.size", tickerFailures, Cache::estimatedSize)
+                .description("Tickers currently tracked by the failure backoff cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run an upstream call for the given ticker, rejecting it up front when
+     * the ticker is backing off or the circuit is open.
+     */
+    public <T> T execute(String ticker, Supplier<T> call) {
+        String key = ticker.toUpperCase();
+        checkTickerBackoff(key);
+        acquirePermission(key);
+
+        try {
+            T result = call.get();
+            tickerFailures.invalidate(key);
+            onUpstreamSuccess();
+            return result;
+        } catch (PriceUnavailableException e) {
+            // Rejected before reaching the provider (e.g. rate limited): no outcome to record
+            releasePermission();
+            throw e;
+        } catch (RuntimeException e) {
+            if (isUpstreamFailure(e)) {
+                onUpstreamFailure();
+            } else {
+                // Upstream answered, it just has nothing usable for this ticker
+                onUpstreamSuccess();
+                recordTickerFailure(key);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reject a call up front, without taking a permit, when the ticker is
+     * backing off or the circuit is open, so callers that first queue for a
+     * rate limiter token do not wait only to be rejected.
+     */
+    public void checkAvailable(String ticker) {
+        checkTickerBackoff(ticker.toUpperCase());
+        synchronized (lock) {
+            long openNanos = Duration.ofSeconds(properties.getCircuitBreakerOpenSeconds()).toNanos();
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos < openNanos) {
+                circuitOpenRejections.increment();
+                throw new PriceUnavailableException("price.circuit.open", ticker);
+            }
+        }
+    }
+
+    public State getState() {
+        synchronized (lock) {
+            return state;
+        }
+    }
+
+    private void checkTickerBackoff(String ticker) {
+        TickerFailure failure = tickerFailures.getIfPresent(ticker);
+        if (failure != null && nanoClock.getAsLong() < failure.retryAtNanos) {
+            tickerBackoffRejections.increment();
+            throw new PriceUnavailableException("price.ticker.backoff", ticker);
+        }
+    }
+
+    private void acquirePermission(String ticker) {
+        synchronized (lock) {
+            if (state == State.OPEN) {
+                long openNanos = Duration.ofSeconds(properties.getCircuitBreakerOpenSeconds()).toNanos();
+                if (nanoClock.getAsLong() - openedAtNanos < openNanos) {
+                    circuitOpenRejections.increment();
+                    throw new PriceUnavailableException("price.circuit.open", ticker);
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialInFlight) {
+                    circuitOpenRejections.increment();
+                    throw new PriceUnavailableException("price.circuit.open", ticker);
+                }
+                trialInFlight = true;
+            }
+        }
+    }
+
+    private void releasePermission() {
+        synchronized (lock) {
+            trialInFlight = false;
+        }
+    }
+
+    private void onUpstreamSuccess() {
+        synchronized (lock) {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            if (state != State.CLOSED) {
+                transitionTo(State.CLOSED);
+            }
+        }
+    }
+
+    private void onUpstreamFailure() {
+        synchronized (lock) {
+            trialInFlight = false;
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN
+                    || (state == State.CLOSED
+                            && consecutiveFailures >= properties.getCircuitBreakerFailureThreshold())) {
+                openedAtNanos = nanoClock.getAsLong();
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    private void recordTickerFailure(String ticker) {
+        TickerFailure previous = tickerFailures.getIfPresent(ticker);
+        int failures = previous != null ? previous.failures + 1 : 1;
+        long backoffSeconds = Math.min(
+                (long) properties.getFailureBackoffInitialSeconds() << Math.min(failures - 1, 20),
+                properties.getFailureBackoffMaxSeconds());
+        long retryAt = nanoClock.getAsLong() + Duration.ofSeconds(backoffSeconds).toNanos();
+        tickerFailures.put(ticker, new TickerFailure(failures, retryAt));
+        logger.debug("Backing off {} for {}s after {} failure(s)", ticker, backoffSeconds, failures);
+    }
+
+    private void transitionTo(State next) {
+        logger.info("Yahoo Finance circuit breaker {} -> {}", state, next);
+        state = next;
+        transitions.get(next).increment();
+    }
+
+    /**
+     * Timeouts, connection errors, throttling and server errors say the
+     * provider itself is unhealthy; anything else is specific to the ticker.
+     */
+    static boolean isUpstreamFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof WebClientResponseException response) {
+                int status = response.getStatusCode().value();
+                return status == 429 || status >= 500;
+            }
+            if (t instanceof WebClientRequestException || t instanceof TimeoutException
+                    || t instanceof IOException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private record TickerFailure(int failures, long retryAtNanos) {
+    }
+}
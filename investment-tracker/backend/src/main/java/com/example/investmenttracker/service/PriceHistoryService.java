@@ -0,0 +1,212 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.config.YahooFinanceProperties;
+import com.example.investmenttracker.dto.YahooFinanceResponse;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfPriceHistory;
+import com.example.investmenttracker.persistence.EtfPriceHistoryRepository;
+import com.example.investmenttracker.persistence.EtfRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ingests daily price history from the Yahoo chart endpoint.
+ *
+ * The first run for a ticker requests its configured range; later runs only
+ * request the dates after the last stored bar (and before the first one, if
+ * the configured range was widened), so history is never downloaded twice.
+ */
+@Service
+public class PriceHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryService.class);
+    private static final String DEFAULT_CURRENCY = "EUR";
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final int BACKFILL_TOLERANCE_DAYS = 7;
+    private static final int PRICE_SCALE = 4;
+    private static final Pattern RANGE_PATTERN = Pattern.compile("(\\d+)(d|wk|mo|y)");
+
+    private final EtfPriceHistoryRepository historyRepository;
+    private final EtfRepository etfRepository;
+    private final PriceProvider priceProvider;
+    private final YahooFinanceProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PriceHistoryService(EtfPriceHistoryRepository historyRepository, EtfRepository etfRepository,
+            PriceProvider priceProvider, YahooFinanceProperties properties,
+            ApplicationEventPublisher eventPublisher) {
+        this.historyRepository = historyRepository;
+        this.etfRepository = etfRepository;
+        this.priceProvider = priceProvider;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Scheduled ingestion of every ticker held by any user.
+     */
+    @Scheduled(cron = "${yahoo.finance.history-ingestion-cron:0 30 22 * * MON-FRI}")
+    public void ingestAll() {
+        Set<String> tickers = new TreeSet<>();
+        for (Etf etf : etfRepository.findAll()) {
+            if (etf.getTicker() != null) {
+                tickers.add(etf.getTicker());
+            }
+        }
+        logger.info("Ingesting price history for {} tickers", tickers.size());
+
+        int stored = 0;
+        for (String ticker : tickers) {
+            try {
+                stored += ingest(ticker);
+            } catch (Exception e) {
+                logger.warn("Skipping history for {}: {}", ticker, e.getMessage());
+            }
+        }
+        logger.info("Price history ingestion stored {} bars", stored);
+    }
+
+    /**
+     * Bring the stored history of one ticker up to date, requesting only the
+     * dates that are missing. Returns the number of bars written.
+     */
+    public int ingest(String ticker) {
+        String range = properties.getHistoryRanges().getOrDefault(ticker, properties.getHistoryRange());
+        String interval = properties.getHistoryIntervals().getOrDefault(ticker, properties.getHistoryInterval());
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        Optional<LocalDate> first = historyRepository.findFirstPriceDate(ticker);
+        Optional<LocalDate> last = historyRepository.findLastPriceDate(ticker);
+        if (first.isEmpty() || last.isEmpty()) {
+            logger.debug("No history for {}, requesting range {}", ticker, range);
+            return store(ticker, priceProvider.fetchHistory(ticker, range, interval, RequestPriority.BULK));
+        }
+
+        int stored = 0;
+        LocalDate rangeStart = rangeStart(range, today);
+        // Ranges rarely start on a trading day; only backfill when the range was really widened
+        if (rangeStart != null && rangeStart.plusDays(BACKFILL_TOLERANCE_DAYS).isBefore(first.get())) {
+            logger.debug("Backfilling {} from {} to {}", ticker, rangeStart, first.get());
+            stored += store(ticker, priceProvider.fetchHistory(ticker, startOfDay(rangeStart),
+                    startOfDay(first.get()), interval, RequestPriority.BULK));
+        }
+        if (last.get().isBefore(today)) {
+            // Request the last stored date again: its bar may have been captured intraday
+            logger.debug("Updating {} from {}", ticker, last.get());
+            stored += store(ticker, priceProvider.fetchHistory(ticker, startOfDay(last.get()),
+                    Instant.now(), interval, RequestPriority.BULK));
+        }
+        return stored;
+    }
+
+    public List<EtfPriceHistory> getHistory(String ticker, LocalDate from, LocalDate to) {
+        return historyRepository.findByTickerAndPriceDateBetweenOrderByPriceDateAsc(ticker, from, to);
+    }
+
+    private int store(String ticker, YahooFinanceResponse response) {
+        YahooFinanceResponse.Result result = response.getChart().getResult().get(0);
+        long[] timestamps = result.getTimestamp();
+        double[] closes = result.getClose();
+        if (timestamps == null || closes == null || timestamps.length == 0) {
+            return 0;
+        }
+
+        YahooFinanceResponse.Meta meta = result.getMeta();
+        int gmtOffset = meta != null ? meta.getGmtoffset() : 0;
+        String currency = meta != null && meta.getCurrency() != null ? meta.getCurrency() : DEFAULT_CURRENCY;
+
+        // Collapse bars to one close per trading date (the last one wins), still on primitives
+        int n = Math.min(timestamps.length, closes.length);
+        long[] days = new long[n];
+        double[] dayCloses = new double[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(closes[i])) {
+                continue;
+            }
+            long epochDay = Math.floorDiv(timestamps[i] + gmtOffset, SECONDS_PER_DAY);
+            if (count > 0 && days[count - 1] == epochDay) {
+                dayCloses[count - 1] = closes[i];
+            } else {
+                days[count] = epochDay;
+                dayCloses[count] = closes[i];
+                count++;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        LocalDate from = LocalDate.ofEpochDay(days[0]);
+        LocalDate to = LocalDate.ofEpochDay(days[count - 1]);
+        Map<LocalDate, EtfPriceHistory> existing = new HashMap<>();
+        for (EtfPriceHistory bar : historyRepository.findByTickerAndPriceDateBetweenOrderByPriceDateAsc(ticker,
+                from, to)) {
+            existing.put(bar.getPriceDate(), bar);
+        }
+
+        List<EtfPriceHistory> toSave = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate date = LocalDate.ofEpochDay(days[i]);
+            BigDecimal close = BigDecimal.valueOf(dayCloses[i]).setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+            EtfPriceHistory bar = existing.get(date);
+            if (bar == null) {
+                toSave.add(new EtfPriceHistory(ticker, date, close, currency));
+            } else if (bar.getClosePrice().compareTo(close) != 0 || !Objects.equals(bar.getCurrency(), currency)) {
+                bar.setClosePrice(close);
+                bar.setCurrency(currency);
+                toSave.add(bar);
+            }
+        }
+        historyRepository.saveAll(toSave);
+        if (!toSave.isEmpty()) {
+            eventPublisher.publishEvent(new PriceChangedEvent(ticker, toSave.get(0).getPriceDate()));
+        }
+        logger.debug("Stored {} history bar(s) for {} ({} to {})", toSave.size(), ticker, from, to);
+        return toSave.size();
+    }
+
+    /**
+     * First date covered by a Yahoo range string, or null for "max" and
+     * unrecognised ranges (no head backfill in that case).
+     */
+    static LocalDate rangeStart(String range, LocalDate today) {
+        if ("ytd".equalsIgnoreCase(range)) {
+            return today.withDayOfYear(1);
+        }
+        Matcher matcher = RANGE_PATTERN.matcher(range == null ? "" : range.toLowerCase());
+        if (!matcher.matches()) {
+            return null;
+        }
+        int amount = Integer.parseInt(matcher.group(1));
+        return switch (matcher.group(2)) {
+            case "d" -> today.minusDays(amount);
+            case "wk" -> today.minusWeeks(amount);
+            case "mo" -> today.minusMonths(amount);
+            default -> today.minusYears(amount);
+        };
+    }
+
+    private static Instant startOfDay(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
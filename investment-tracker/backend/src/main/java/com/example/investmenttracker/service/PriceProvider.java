@@ -0,0 +1,36 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.YahooFinanceResponse;
+
+import java.time.Instant;
+
+/**
+ * Source of chart data (latest quote and daily history) for a ticker.
+ *
+ * Exactly one implementation is active, selected by
+ * {@code yahoo.finance.provider}: {@link YahooFinanceService} calls the live
+ * API, {@link ReplayPriceProvider} serves recorded responses from disk.
+ * Implementations fail with a
+ * {@link com.example.investmenttracker.exception.PriceUnavailableException}
+ * when the call was rejected by the backoff, circuit breaker or rate limiter.
+ */
+public interface PriceProvider {
+
+    /**
+     * Fetch the latest chart for a ticker, using the given Yahoo symbol when
+     * it is not blank instead of the mapped one.
+     */
+    YahooFinanceResponse fetchPrice(String ticker, String explicitYahooTicker, RequestPriority priority);
+
+    /**
+     * Fetch the timestamp/close series for a Yahoo range such as "5y" or "6mo".
+     */
+    YahooFinanceResponse fetchHistory(String ticker, String range, String interval, RequestPriority priority);
+
+    /**
+     * Fetch the timestamp/close series between two instants (from inclusive,
+     * to exclusive).
+     */
+    YahooFinanceResponse fetchHistory(String ticker, Instant from, Instant to, String interval,
+            RequestPriority priority);
+}
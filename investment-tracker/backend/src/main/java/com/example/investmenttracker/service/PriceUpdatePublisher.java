@@ -0,0 +1,127 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Fans out saved price changes to Server-Sent Event subscribers.
+ *
+ * There is one hot sink per ticker, so an update is only delivered to the
+ * connections holding that ticker, and a single shared heartbeat keeps idle
+ * connections open. An idle subscriber therefore holds no thread and no timer
+ * of its own. A ticker's sink lives only while it has subscribers, so
+ * subscribing to made-up tickers cannot grow the map. Events carry no id: updates are best effort and are not
+ * replayed, so there is nothing for a reconnecting client to resume from.
+ */
+@Component
+public class PriceUpdatePublisher {
+
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+    private static final Sinks.EmitFailureHandler RETRY_CONCURRENT_EMIT = Sinks.EmitFailureHandler
+            .busyLooping(Duration.ofMillis(100));
+
+    private final Map<String, TickerSink> sinks = new ConcurrentHashMap<>();
+    private final Flux<ServerSentEvent<EtfPriceResponse>> heartbeat;
+
+    @Autowired
+    public PriceUpdatePublisher() {
+        this(Flux.interval(HEARTBEAT_INTERVAL));
+    }
+
+    PriceUpdatePublisher(Flux<Long> heartbeatTicks) {
+        this.heartbeat = heartbeatTicks
+                .map(tick -> ServerSentEvent.<EtfPriceResponse>builder().comment("keepalive").build())
+                .share();
+    }
+
+    /**
+     * Stream price events for the given tickers, interleaved with heartbeats.
+     * Each price passes through {@code view} for this subscriber only, e.g.
+     * to convert it to the user's base currency.
+     */
+    public Flux<ServerSentEvent<EtfPriceResponse>> subscribe(Collection<String> tickers,
+            UnaryOperator<EtfPriceResponse> view) {
+        List<Flux<EtfPriceResponse>> sources = new ArrayList<>();
+        for (String ticker : tickers) {
+            sources.add(pricesOf(ticker.toUpperCase()));
+        }
+        Flux<ServerSentEvent<EtfPriceResponse>> prices = Flux.merge(sources)
+                .map(price -> ServerSentEvent.builder(view.apply(price))
+                        .event("price")
+                        .build());
+        return Flux.merge(prices, heartbeat);
+    }
+
+    /**
+     * Publish a changed price once the surrounding transaction commits (or
+     * immediately when there is none).
+     */
+    public void publish(EtfPriceResponse price) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emit(price);
+                }
+            });
+        } else {
+            emit(price);
+        }
+    }
+
+    public int getSubscriberCount(String ticker) {
+        TickerSink sink = sinks.get(ticker.toUpperCase());
+        return sink != null ? sink.prices.currentSubscriberCount() : 0;
+    }
+
+    int getTickerCount() {
+        return sinks.size();
+    }
+
+    private void emit(EtfPriceResponse price) {
+        TickerSink sink = sinks.get(price.getTicker().toUpperCase());
+        if (sink != null) {
+            // Best effort: a slow or vanished subscriber simply misses this update
+            sink.prices.emitNext(price, RETRY_CONCURRENT_EMIT);
+        }
+    }
+
+    /**
+     * Prices of one ticker. Subscribers are counted inside the map's atomic
+     * updates rather than read from the sink, so a subscriber joining while
+     * the last one leaves never ends up on a sink that was already removed.
+     */
+    private Flux<EtfPriceResponse> pricesOf(String key) {
+        return Flux.defer(() -> {
+            TickerSink sink = sinks.compute(key, (k, existing) -> {
+                TickerSink joined = existing != null ? existing : new TickerSink();
+                joined.subscribers++;
+                return joined;
+            });
+            return sink.prices.asFlux()
+                    .doFinally(signal -> sinks.computeIfPresent(key,
+                            (k, existing) -> --existing.subscribers > 0 ? existing : null));
+        });
+    }
+
+    private static final class TickerSink {
+
+        private final Sinks.Many<EtfPriceResponse> prices = Sinks.many().multicast().directBestEffort();
+        // Only changed inside the map's compute functions
+        private int subscribers;
+    }
+}
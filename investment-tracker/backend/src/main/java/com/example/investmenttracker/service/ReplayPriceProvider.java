@@ -0,0 +1,192 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.config.YahooFinanceProperties;
+import com.example.investmenttracker.dto.YahooChartDecoder;
+import com.example.investmenttracker.dto.YahooFinanceResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves recorded Yahoo chart responses from local files instead of calling
+ * the API, for load tests and offline development.
+ *
+ * Each ticker is read from {@code <replay-directory>/<TICKER>.json} (or the
+ * file named after its Yahoo symbol), a verbatim response of the chart
+ * endpoint. History requests are answered from the same file, sliced to the
+ * requested period. Calls still pass through {@link PriceFetchGuard} and
+ * {@link YahooRateLimiter}, and the configured latency and error rate are
+ * applied, so caching, bulk refresh and circuit breaker behaviour can be
+ * measured without network access. Jitter and errors are drawn from a seeded
+ * random source, so runs are repeatable.
+ */
+@Service
+@ConditionalOnProperty(name = "yahoo.finance.provider", havingValue = "replay")
+public class ReplayPriceProvider implements PriceProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayPriceProvider.class);
+
+    private final YahooFinanceProperties properties;
+    private final PriceFetchGuard fetchGuard;
+    private final YahooRateLimiter rateLimiter;
+    private final TickerSymbolIndex symbolIndex;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Random random;
+    private final Map<String, Optional<byte[]>> recordings = new ConcurrentHashMap<>();
+
+    public ReplayPriceProvider(YahooFinanceProperties properties, PriceFetchGuard fetchGuard,
+            YahooRateLimiter rateLimiter, TickerSymbolIndex symbolIndex, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.fetchGuard = fetchGuard;
+        this.rateLimiter = rateLimiter;
+        this.symbolIndex = symbolIndex;
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(properties.getReplayDirectory());
+        this.random = new Random(properties.getReplaySeed());
+        logger.info("Serving prices from recorded responses in {}", directory.toAbsolutePath());
+    }
+
+    @Override
+    public YahooFinanceResponse fetchPrice(String ticker, String explicitYahooTicker, RequestPriority priority) {
+        return replay(ticker, explicitYahooTicker, priority, false, null, null);
+    }
+
+    @Override
+    public YahooFinanceResponse fetchHistory(String ticker, String range, String interval,
+            RequestPriority priority) {
+        LocalDate start = PriceHistoryService.rangeStart(range, LocalDate.now(ZoneOffset.UTC));
+        Instant from = start != null ? start.atStartOfDay(ZoneOffset.UTC).toInstant() : null;
+        return replay(ticker, null, priority, true, from, null);
+    }
+
+    @Override
+    public YahooFinanceResponse fetchHistory(String ticker, Instant from, Instant to, String interval,
+            RequestPriority priority) {
+        return replay(ticker, null, priority, true, from, to);
+    }
+
+    private YahooFinanceResponse replay(String ticker, String explicitYahooTicker, RequestPriority priority,
+            boolean includeSeries, Instant from, Instant to) {
+        // Queue for a token before taking a permit, so a half-open trial is not held while waiting
+        fetchGuard.checkAvailable(ticker);
+        rateLimiter.acquire(ticker, priority);
+        return fetchGuard.execute(ticker, () -> {
+            simulateNetwork(ticker);
+            YahooFinanceResponse response = read(ticker, explicitYahooTicker, includeSeries);
+            return includeSeries ? slice(response, from, to) : response;
+        });
+    }
+
+    private void simulateNetwork(String ticker) {
+        long latency = properties.getReplayLatencyMillis();
+        double roll;
+        synchronized (random) {
+            if (properties.getReplayLatencyJitterMillis() > 0) {
+                latency += (long) (random.nextDouble() * properties.getReplayLatencyJitterMillis());
+            }
+            roll = random.nextDouble();
+        }
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while replaying price for " + ticker, e);
+            }
+        }
+        if (roll < properties.getReplayErrorRate()) {
+            logger.debug("Injecting simulated upstream error for {}", ticker);
+            throw WebClientResponseException.create(503, "Service Unavailable (replay)", HttpHeaders.EMPTY,
+                    new byte[0], StandardCharsets.UTF_8);
+        }
+    }
+
+    private YahooFinanceResponse read(String ticker, String explicitYahooTicker, boolean includeSeries) {
+        byte[] body = recording(ticker)
+                .or(() -> explicitYahooTicker != null && !explicitYahooTicker.isBlank()
+                        ? recording(explicitYahooTicker) : Optional.empty())
+                .or(() -> {
+                    String symbol = symbolIndex.getYahooSymbol(ticker);
+                    return symbol != null ? recording(symbol) : Optional.empty();
+                })
+                .orElseThrow(() -> new RuntimeException("No recorded response for ticker: " + ticker));
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            YahooFinanceResponse response = YahooChartDecoder.decode(parser, includeSeries);
+            if (response.getChart() == null || response.getChart().getResult() == null
+                    || response.getChart().getResult().isEmpty()) {
+                throw new RuntimeException("No price data available for ticker: " + ticker);
+            }
+            return response;
+        } catch (IOException e) {
+            // Not an upstream failure: a broken recording should back off this ticker only
+            throw new RuntimeException("Invalid recorded response for ticker " + ticker + ": " + e.getMessage());
+        }
+    }
+
+    private Optional<byte[]> recording(String name) {
+        return recordings.computeIfAbsent(name.toUpperCase(), key -> {
+            Path file = directory.resolve(key + ".json");
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(Files.readAllBytes(file));
+            } catch (IOException e) {
+                throw new RuntimeException("Could not read recorded response " + file + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Keep only the bars with from <= timestamp < to (either bound optional).
+     */
+    private static YahooFinanceResponse slice(YahooFinanceResponse response, Instant from, Instant to) {
+        YahooFinanceResponse.Result result = response.getChart().getResult().get(0);
+        long[] timestamps = result.getTimestamp();
+        double[] closes = result.getClose();
+        if (timestamps == null || closes == null) {
+            return response;
+        }
+
+        long lower = from != null ? from.getEpochSecond() : Long.MIN_VALUE;
+        long upper = to != null ? to.getEpochSecond() : Long.MAX_VALUE;
+        int n = Math.min(timestamps.length, closes.length);
+        int start = 0;
+        while (start < n && timestamps[start] < lower) {
+            start++;
+        }
+        int end = start;
+        while (end < n && timestamps[end] < upper) {
+            end++;
+        }
+
+        YahooFinanceResponse.Quote quote = new YahooFinanceResponse.Quote();
+        quote.setClose(Arrays.copyOfRange(closes, start, end));
+        YahooFinanceResponse.Indicators indicators = new YahooFinanceResponse.Indicators();
+        indicators.setQuote(List.of(quote));
+        result.setTimestamp(Arrays.copyOfRange(timestamps, start, end));
+        result.setIndicators(indicators);
+        return response;
+    }
+}
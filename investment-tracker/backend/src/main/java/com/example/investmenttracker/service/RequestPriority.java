@@ -0,0 +1,11 @@
+package com.example.investmenttracker.service;
+
+/**
+ * Priority of an outbound price request. Interactive requests (a user waiting
+ * on a single ticker) are served before bulk work such as refreshing every
+ * ticker or ingesting history.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BULK
+}
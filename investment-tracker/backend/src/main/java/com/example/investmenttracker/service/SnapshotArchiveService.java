@@ -0,0 +1,180 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.SnapshotArchiveEntry;
+import com.example.investmenttracker.dto.SnapshotPayloadRow;
+import com.example.investmenttracker.exception.ValidationException;
+import com.example.investmenttracker.model.User;
+import com.example.investmenttracker.persistence.PortfolioSnapshotRepository;
+import com.example.investmenttracker.util.JsonPatch;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Exports and imports a user's whole snapshot history as newline-delimited
+ * JSON, one {@link SnapshotArchiveEntry} per line, each with its full
+ * portfolio.
+ *
+ * The export reads snapshots and payloads from a database cursor in id
+ * order and writes each line as soon as it is decoded. Deltas are applied to
+ * the portfolio of their base, kept in a small LRU of recent portfolios, so
+ * memory depends on the chain length, not on the history size.
+ *
+ * The import reads the body line by line and commits every
+ * {@code batchSize} snapshots. Versions already present are skipped, so a
+ * failed import can simply be retried.
+ */
+@Service
+public class SnapshotArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotArchiveService.class);
+    private static final int RECENT_PORTFOLIOS = 32;
+
+    private final PortfolioSnapshotRepository snapshotRepository;
+    private final PortfolioSnapshotService snapshotService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int batchSize;
+
+    public SnapshotArchiveService(PortfolioSnapshotRepository snapshotRepository,
+            PortfolioSnapshotService snapshotService, UserService userService, ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.snapshots.import-batch-size:100}") int batchSize) {
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotService = snapshotService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Write the user's history to {@code out}, oldest first. Returns the
+     * number of snapshots written.
+     */
+    public int exportHistory(String userEmail, OutputStream out) {
+        User user = userService.getCurrentUser(userEmail);
+        Integer written = readOnlyTransaction.execute(status -> {
+            Map<Long, JsonNode> recent = new LinkedHashMap<>(RECENT_PORTFOLIOS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, JsonNode> eldest) {
+                    return size() > RECENT_PORTFOLIOS;
+                }
+            };
+            int count = 0;
+            try (Stream<SnapshotPayloadRow> rows = snapshotRepository.streamWithPayloads(user.getId())) {
+                for (SnapshotPayloadRow row : (Iterable<SnapshotPayloadRow>) rows::iterator) {
+                    JsonNode portfolio = decode(row, recent);
+                    recent.put(row.getId(), portfolio);
+                    out.write(objectMapper.writeValueAsBytes(new SnapshotArchiveEntry(row.getVersionId(),
+                            row.getCreatedAt(), row.getTriggerAction(), row.getChangeDetails(), portfolio)));
+                    out.write('\n');
+                    count++;
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        logger.info("Exported {} snapshot(s) for user {}", written, userEmail);
+        return written != null ? written : 0;
+    }
+
+    /**
+     * Add every snapshot read from {@code in} to the user's history. Lines
+     * whose version is already there are skipped. A malformed line stops the
+     * import; the batches before it stay committed.
+     */
+    public ImportResult importHistory(String userEmail, InputStream in) {
+        User user = userService.getCurrentUser(userEmail);
+        int imported = 0;
+        int skipped = 0;
+        long line = 0;
+        try (MappingIterator<SnapshotArchiveEntry> entries = objectMapper.readerFor(SnapshotArchiveEntry.class)
+                .readValues(in)) {
+            while (hasNext(entries, line + 1)) {
+                List<SnapshotArchiveEntry> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && hasNext(entries, line + 1)) {
+                    SnapshotArchiveEntry entry = next(entries, ++line);
+                    if (entry.getPortfolio() == null || !entry.getPortfolio().isObject()) {
+                        throw new ValidationException("snapshot.import.invalid", line);
+                    }
+                    batch.add(entry);
+                }
+                Integer added = transactionTemplate.execute(status -> {
+                    int count = 0;
+                    for (SnapshotArchiveEntry entry : batch) {
+                        if (snapshotService.importSnapshot(user, entry) != null) {
+                            count++;
+                        }
+                    }
+                    return count;
+                });
+                int batchImported = added != null ? added : 0;
+                imported += batchImported;
+                skipped += batch.size() - batchImported;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("Imported {} snapshot(s) for user {}, skipped {}", imported, userEmail, skipped);
+        return new ImportResult(imported, skipped);
+    }
+
+    /**
+     * Snapshots added and snapshots skipped because their version was
+     * already in the history.
+     */
+    public record ImportResult(int imported, int skipped) {
+    }
+
+    private JsonNode decode(SnapshotPayloadRow row, Map<Long, JsonNode> recent) throws IOException {
+        JsonNode payload = objectMapper.readTree(new String(
+                PortfolioSnapshotService.inflate(row.getData(), row.getRawSize()), StandardCharsets.UTF_8));
+        if (row.getBaseSnapshotId() == null) {
+            return payload;
+        }
+        JsonNode base = recent.get(row.getBaseSnapshotId());
+        if (base == null) {
+            base = snapshotService.getPortfolio(row.getBaseSnapshotId());
+        }
+        return JsonPatch.apply(base, payload);
+    }
+
+    private static boolean hasNext(MappingIterator<SnapshotArchiveEntry> entries, long line) {
+        try {
+            return entries.hasNextValue();
+        } catch (IOException e) {
+            throw new ValidationException("snapshot.import.invalid", line);
+        }
+    }
+
+    private static SnapshotArchiveEntry next(MappingIterator<SnapshotArchiveEntry> entries, long line) {
+        try {
+            return entries.nextValue();
+        } catch (IOException e) {
+            throw new ValidationException("snapshot.import.invalid", line);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.SnapshotDiff;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes a {@link SnapshotDiff} between two portfolio documents.
+ *
+ * Entities are aligned by id through a hash map, so the cost is linear in
+ * the size of the two documents whatever the order of the arrays. Audit
+ * timestamps are not reported as changes.
+ */
+final class SnapshotDiffer {
+
+    private static final Set<String> IGNORED_FIELDS = Set.of("id", "createdAt", "updatedAt");
+    private static final String TRANSACTIONS = "transactions";
+
+    private SnapshotDiffer() {
+    }
+
+    static SnapshotDiff diff(Long fromId, JsonNode from, Long toId, JsonNode to) {
+        return new SnapshotDiff(fromId, toId,
+                diffSection(from.path("etfs"), to.path("etfs"), "ticker", true),
+                diffSection(from.path("assets"), to.path("assets"), "name", false));
+    }
+
+    private static SnapshotDiff.Section diffSection(JsonNode before, JsonNode after, String labelField,
+            boolean withTransactions) {
+        Map<String, JsonNode> remaining = index(before);
+        SnapshotDiff.Section section = new SnapshotDiff.Section();
+        int position = 0;
+        for (JsonNode entity : after) {
+            String key = key(entity, position++);
+            JsonNode previous = remaining.remove(key);
+            if (previous == null) {
+                section.getAdded().add(entity);
+            } else if (!previous.equals(entity)) {
+                SnapshotDiff.EntityChange change = diffEntity(key, previous, entity, labelField, withTransactions);
+                if (change != null) {
+                    section.getChanged().add(change);
+                }
+            }
+        }
+        section.getRemoved().addAll(remaining.values());
+        return section;
+    }
+
+    private static SnapshotDiff.EntityChange diffEntity(String key, JsonNode before, JsonNode after,
+            String labelField, boolean withTransactions) {
+        SnapshotDiff.EntityChange change = new SnapshotDiff.EntityChange(key,
+                after.path(labelField).asText(before.path(labelField).asText(null)));
+
+        Set<String> fields = new LinkedHashSet<>();
+        before.fieldNames().forEachRemaining(fields::add);
+        after.fieldNames().forEachRemaining(fields::add);
+        for (String field : fields) {
+            if (IGNORED_FIELDS.contains(field) || (withTransactions && TRANSACTIONS.equals(field))) {
+                continue;
+            }
+            JsonNode from = before.get(field);
+            JsonNode to = after.get(field);
+            if (from == null ? to != null : !from.equals(to)) {
+                change.getFields().add(new SnapshotDiff.FieldChange(field, from, to));
+            }
+        }
+
+        if (withTransactions) {
+            SnapshotDiff.Section transactions = diffSection(before.path(TRANSACTIONS), after.path(TRANSACTIONS),
+                    "transactionDate", false);
+            if (!transactions.isEmpty()) {
+                change.setTransactions(transactions);
+            }
+        }
+        return change.getFields().isEmpty() && change.getTransactions() == null ? null : change;
+    }
+
+    private static Map<String, JsonNode> index(JsonNode entities) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        int position = 0;
+        for (Iterator<JsonNode> it = entities.elements(); it.hasNext(); ) {
+            JsonNode entity = it.next();
+            byKey.put(key(entity, position++), entity);
+        }
+        return byKey;
+    }
+
+    /**
+     * Match key of an entity: its id, or its position when it has none.
+     */
+    private static String key(JsonNode entity, int position) {
+        JsonNode id = entity.get("id");
+        return id != null && !id.isNull() ? id.asText() : "#" + position;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.PortfolioSnapshotSummary;
+import com.example.investmenttracker.model.TriggerAction;
+import com.example.investmenttracker.persistence.PortfolioSnapshotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thins out old portfolio snapshots on a schedule.
+ *
+ * Every snapshot younger than {@code keepAllDays} is kept. Older ones are
+ * reduced to one representative per hour up to {@code hourlyDays}, per day
+ * up to {@code dailyDays}, and per ISO week beyond that. The representative
+ * is the latest snapshot of its period, i.e. the state the period ended in.
+ * Manual exports are never removed.
+ *
+ * The scheduled run is off unless {@code app.snapshots.retention.enabled}
+ * is set, since it permanently deletes snapshots.
+ *
+ * The job works one user at a time and deletes in batches of
+ * {@code batchSize}, each batch in its own transaction, so locks are held
+ * briefly and a failure only loses the current batch.
+ */
+@Service
+public class SnapshotRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotRetentionService.class);
+
+    private final PortfolioSnapshotRepository snapshotRepository;
+    private final PortfolioSnapshotService snapshotService;
+    private final boolean enabled;
+    private final int keepAllDays;
+    private final int hourlyDays;
+    private final int dailyDays;
+    private final int batchSize;
+    private final Counter rowsReclaimed;
+    private final Counter bytesReclaimed;
+
+    public SnapshotRetentionService(PortfolioSnapshotRepository snapshotRepository,
+            PortfolioSnapshotService snapshotService, MeterRegistry meterRegistry,
+            @Value("${app.snapshots.retention.enabled:false}") boolean enabled,
+            @Value("${app.snapshots.retention.keep-all-days:7}") int keepAllDays,
+            @Value("${app.snapshots.retention.hourly-days:30}") int hourlyDays,
+            @Value("${app.snapshots.retention.daily-days:365}") int dailyDays,
+            @Value("${app.snapshots.retention.batch-size:100}") int batchSize) {
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotService = snapshotService;
+        this.enabled = enabled;
+        this.keepAllDays = Math.max(0, keepAllDays);
+        this.hourlyDays = Math.max(this.keepAllDays, hourlyDays);
+        this.dailyDays = Math.max(this.hourlyDays, dailyDays);
+        this.batchSize = Math.max(1, batchSize);
+        this.rowsReclaimed = Counter.builder("portfolio.snapshots.compaction.rows")
+                .description("Snapshots deleted by the retention job")
+                .register(meterRegistry);
+        this.bytesReclaimed = Counter.builder("portfolio.snapshots.compaction.bytes")
+                .description("Compressed payload bytes freed by the retention job")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.snapshots.retention.cron:0 30 3 * * *}")
+    public void compactScheduled() {
+        if (enabled) {
+            compact(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Apply the retention policy to every user's snapshots as of {@code now}.
+     */
+    public PortfolioSnapshotService.Reclaimed compact(LocalDateTime now) {
+        LocalDateTime keepAllFrom = now.minusDays(keepAllDays);
+        int rows = 0;
+        long bytes = 0;
+        for (Long userId : snapshotRepository.findUserIdsWithSnapshotsBefore(keepAllFrom)) {
+            try {
+                List<Long> expired = selectExpired(snapshotRepository.findSummariesBefore(userId, keepAllFrom), now);
+                for (int start = 0; start < expired.size(); start += batchSize) {
+                    List<Long> batch = expired.subList(start, Math.min(start + batchSize, expired.size()));
+                    PortfolioSnapshotService.Reclaimed reclaimed = snapshotService.deleteSnapshots(userId, batch);
+                    rows += reclaimed.snapshots();
+                    bytes += reclaimed.bytes();
+                    rowsReclaimed.increment(reclaimed.snapshots());
+                    bytesReclaimed.increment(Math.max(0, reclaimed.bytes()));
+                }
+            } catch (Exception e) {
+                logger.warn("Snapshot compaction failed for user {}: {}", userId, e.getMessage());
+            }
+        }
+        logger.info("Snapshot compaction removed {} snapshot(s), reclaimed {} byte(s)", rows, bytes);
+        return new PortfolioSnapshotService.Reclaimed(rows, bytes);
+    }
+
+    /**
+     * Ids of the snapshots the policy drops. {@code snapshots} must be sorted
+     * oldest first, so the last one seen in each period is its representative.
+     */
+    List<Long> selectExpired(List<PortfolioSnapshotSummary> snapshots, LocalDateTime now) {
+        LocalDateTime keepAllFrom = now.minusDays(keepAllDays);
+        LocalDateTime hourlyFrom = now.minusDays(hourlyDays);
+        LocalDateTime dailyFrom = now.minusDays(dailyDays);
+
+        Map<LocalDateTime, Long> representatives = new LinkedHashMap<>();
+        List<Long> expired = new ArrayList<>();
+        for (PortfolioSnapshotSummary snapshot : snapshots) {
+            LocalDateTime createdAt = snapshot.getCreatedAt();
+            if (!createdAt.isBefore(keepAllFrom) || snapshot.getTriggerAction() == TriggerAction.MANUAL_EXPORT) {
+                continue;
+            }
+            LocalDateTime period;
+            if (!createdAt.isBefore(hourlyFrom)) {
+                period = createdAt.truncatedTo(ChronoUnit.HOURS);
+            } else if (!createdAt.isBefore(dailyFrom)) {
+                period = createdAt.truncatedTo(ChronoUnit.DAYS);
+            } else {
+                period = createdAt.truncatedTo(ChronoUnit.DAYS)
+                        .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            }
+            Long replaced = representatives.put(period, snapshot.getId());
+            if (replaced != null) {
+                expired.add(replaced);
+            }
+        }
+        return expired;
+    }
+}
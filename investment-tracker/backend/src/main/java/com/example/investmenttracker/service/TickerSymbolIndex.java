@@ -0,0 +1,138 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.persistence.EtfRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of ticker to Yahoo Finance symbol overrides
+ * ({@link Etf#getYahooFinanceTicker()}).
+ *
+ * Built from the repository on first use, then kept up to date by
+ * {@link EtfService} after each committed create, update or delete, so symbol
+ * resolution never has to load ETFs.
+ *
+ * ETFs belong to users, and several users can hold the same ticker, so each
+ * ticker keeps the override of every ETF by id. A change to one ETF only
+ * touches its own entry; a lookup uses the ETF with the lowest id.
+ */
+@Component
+public class TickerSymbolIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TickerSymbolIndex.class);
+
+    private final EtfRepository etfRepository;
+    private final Map<String, NavigableMap<Long, String>> overrides = new ConcurrentHashMap<>();
+    // Ticker each indexed ETF is filed under, to find its entry after a rename
+    private final Map<Long, String> tickerByEtf = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public TickerSymbolIndex(EtfRepository etfRepository) {
+        this.etfRepository = etfRepository;
+    }
+
+    /**
+     * Return the explicit Yahoo symbol configured for the ticker, or null when
+     * the default mapping applies.
+     */
+    public String getYahooSymbol(String ticker) {
+        if (ticker == null) {
+            return null;
+        }
+        ensureLoaded();
+        NavigableMap<Long, String> symbols = overrides.get(ticker.toUpperCase());
+        Map.Entry<Long, String> first = symbols != null ? symbols.firstEntry() : null;
+        return first != null ? first.getValue() : null;
+    }
+
+    /**
+     * Record the current override of a saved ETF, replacing its previous
+     * entry (under its old ticker if it was renamed).
+     */
+    public void onEtfSaved(Etf etf) {
+        Long etfId = etf.getId();
+        String ticker = etf.getTicker();
+        String yahooSymbol = etf.getYahooFinanceTicker();
+        if (etfId != null) {
+            afterCommit(() -> {
+                remove(etfId);
+                apply(etfId, ticker, yahooSymbol);
+            });
+        }
+    }
+
+    public void onEtfDeleted(Etf etf) {
+        Long etfId = etf.getId();
+        if (etfId != null) {
+            afterCommit(() -> remove(etfId));
+        }
+    }
+
+    private void apply(Long etfId, String ticker, String yahooSymbol) {
+        if (etfId == null || ticker == null || yahooSymbol == null || yahooSymbol.trim().isEmpty()) {
+            return;
+        }
+        String key = ticker.toUpperCase();
+        overrides.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>()).put(etfId, yahooSymbol.trim());
+        tickerByEtf.put(etfId, key);
+    }
+
+    private void remove(Long etfId) {
+        String ticker = tickerByEtf.remove(etfId);
+        if (ticker != null) {
+            overrides.computeIfPresent(ticker, (key, symbols) -> {
+                symbols.remove(etfId);
+                return symbols.isEmpty() ? null : symbols;
+            });
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                for (Etf etf : etfRepository.findAll()) {
+                    apply(etf.getId(), etf.getTicker(), etf.getYahooFinanceTicker());
+                }
+                loaded = true;
+                logger.debug("Loaded {} Yahoo symbol override(s)", tickerByEtf.size());
+            }
+        }
+    }
+
+    /**
+     * Apply index changes only once the surrounding transaction commits, and
+     * only if the index has been built; otherwise the initial load picks them
+     * up from the repository.
+     */
+    private void afterCommit(Runnable change) {
+        Runnable guarded = () -> {
+            synchronized (this) {
+                if (loaded) {
+                    change.run();
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+}
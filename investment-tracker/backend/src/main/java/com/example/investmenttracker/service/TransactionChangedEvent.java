@@ -0,0 +1,11 @@
+package com.example.investmenttracker.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published when an ETF transaction is created, updated or deleted.
+ * {@code from} is the first date the change affects: the transaction date,
+ * or the earlier of the old and new dates when a date is moved.
+ */
+public record TransactionChangedEvent(String userEmail, String ticker, LocalDate from) {
+}
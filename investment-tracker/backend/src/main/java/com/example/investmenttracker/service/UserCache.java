@@ -0,0 +1,94 @@
+package com.example.investmenttracker.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Values computed from a user's data, kept until a committed change makes
+ * them stale.
+ *
+ * Values are built outside any lock, so a change can commit while one is
+ * being built from data read before it. Every change bumps a generation;
+ * a caller takes a {@link #stamp()} before reading, and what it built is
+ * only kept if no change was reported since. It is still returned to that
+ * caller. Values are replaced, never modified, so a value holding several
+ * entries is copied on write.
+ */
+final class UserCache<V> {
+
+    private final Map<String, V> values = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    V get(String user) {
+        return values.get(user);
+    }
+
+    /**
+     * Take before reading the data a value is built from.
+     */
+    long stamp() {
+        return generation.get();
+    }
+
+    /**
+     * Keep {@code value} for the user unless a change was reported since
+     * {@code stamp}. Returns {@code value}.
+     */
+    V put(String user, long stamp, V value) {
+        update(user, stamp, current -> value);
+        return value;
+    }
+
+    /**
+     * Replace the user's value (null when none) with {@code update} of it,
+     * unless a change was reported since {@code stamp}.
+     */
+    void update(String user, long stamp, UnaryOperator<V> update) {
+        // Checked under the entry's lock: a change either sees the new value or is seen here
+        values.compute(user, (key, current) -> generation.get() == stamp ? update.apply(current) : current);
+    }
+
+    /**
+     * Drop the user's value.
+     */
+    void invalidate(String user) {
+        generation.incrementAndGet();
+        values.remove(user);
+    }
+
+    /**
+     * Replace the user's value with {@code change} of it; null drops it.
+     */
+    void change(String user, UnaryOperator<V> change) {
+        generation.incrementAndGet();
+        values.computeIfPresent(user, (key, current) -> change.apply(current));
+    }
+
+    /**
+     * Replace every user's value with {@code change} of it; null drops it.
+     */
+    void changeAll(UnaryOperator<V> change) {
+        generation.incrementAndGet();
+        for (String user : values.keySet()) {
+            values.computeIfPresent(user, (key, current) -> change.apply(current));
+        }
+    }
+
+    Set<String> users() {
+        return new HashSet<>(values.keySet());
+    }
+
+    /**
+     * Drop every user's value. Returns the number of users dropped.
+     */
+    int clear() {
+        generation.incrementAndGet();
+        int dropped = values.size();
+        values.clear();
+        return dropped;
+    }
+}
@@ -5,6 +5,8 @@ import com.example.investmenttracker.exception.ValidationException;
 import com.example.investmenttracker.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.Currency;
+
 @Service
 public class UserService {
 
@@ -34,4 +36,24 @@ public class UserService {
         return userRepository.findByEmail(email)
                 .orElse(null);
     }
+
+    /**
+     * Base currency of the user, or the default when the user is unknown.
+     */
+    public String getBaseCurrency(String email) {
+        User user = getUserInfo(email);
+        return user != null ? user.getBaseCurrency() : User.DEFAULT_BASE_CURRENCY;
+    }
+
+    public User updateBaseCurrency(String email, String baseCurrency) {
+        String code = baseCurrency != null ? baseCurrency.trim().toUpperCase() : "";
+        try {
+            Currency.getInstance(code);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("user.base.currency.invalid", baseCurrency);
+        }
+        User user = getCurrentUser(email);
+        user.setBaseCurrency(code);
+        return userRepository.save(user);
+    }
 }
@@ -1,29 +1,49 @@
 package com.example.investmenttracker.service;
 
 import com.example.investmenttracker.config.YahooFinanceProperties;
+import com.example.investmenttracker.dto.YahooChartDecoder;
 import com.example.investmenttracker.dto.YahooFinanceResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
-public class YahooFinanceService {
+@ConditionalOnProperty(name = "yahoo.finance.provider", havingValue = "yahoo", matchIfMissing = true)
+public class YahooFinanceService implements PriceProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(YahooFinanceService.class);
-    private static final String YAHOO_FINANCE_BASE_URL = "https://query1.finance.yahoo.com";
 
     private final WebClient webClient;
     private final YahooFinanceProperties properties;
-
-    public YahooFinanceService(YahooFinanceProperties properties, WebClient.Builder webClientBuilder) {
+    private final PriceFetchGuard fetchGuard;
+    private final YahooRateLimiter rateLimiter;
+    private final TickerSymbolIndex symbolIndex;
+    private final ObjectMapper objectMapper;
+
+    public YahooFinanceService(YahooFinanceProperties properties, WebClient yahooWebClient,
+            PriceFetchGuard fetchGuard, YahooRateLimiter rateLimiter, TickerSymbolIndex symbolIndex,
+            ObjectMapper objectMapper) {
         this.properties = properties;
-        this.webClient = webClientBuilder
-                .baseUrl(YAHOO_FINANCE_BASE_URL)
-                .build();
+        this.fetchGuard = fetchGuard;
+        this.rateLimiter = rateLimiter;
+        this.symbolIndex = symbolIndex;
+        this.objectMapper = objectMapper;
+        // Pooled, instrumented client configured in YahooFinanceHttpClientConfig
+        this.webClient = yahooWebClient;
     }
 
     public YahooFinanceResponse fetchPrice(String ticker) {
@@ -31,23 +51,78 @@ public class YahooFinanceService {
     }
 
     public YahooFinanceResponse fetchPrice(String ticker, String explicitYahooTicker) {
-        try {
-            // Use explicit Yahoo ticker if provided, otherwise map it
-            String yahooTicker = (explicitYahooTicker != null && !explicitYahooTicker.trim().isEmpty())
-                    ? explicitYahooTicker
-                    : mapTickerToYahooSymbol(ticker);
+        return fetchPrice(ticker, explicitYahooTicker, RequestPriority.INTERACTIVE);
+    }
 
-            logger.debug("Fetching price for ticker: {} (Yahoo symbol: {})", ticker, yahooTicker);
+    /**
+     * Fetch the chart for a ticker. Fails fast with a
+     * {@link com.example.investmenttracker.exception.PriceUnavailableException}
+     * while the ticker is backing off or the circuit breaker is open, or when
+     * no rate limiter token could be obtained in time for the given priority.
+     */
+    @Override
+    public YahooFinanceResponse fetchPrice(String ticker, String explicitYahooTicker, RequestPriority priority) {
+        // Use explicit Yahoo ticker if provided, otherwise map it
+        String yahooTicker = (explicitYahooTicker != null && !explicitYahooTicker.trim().isEmpty())
+                ? explicitYahooTicker
+                : mapTickerToYahooSymbol(ticker);
+
+        return fetchChart(ticker, yahooTicker, Map.of(), false, priority);
+    }
 
-            YahooFinanceResponse response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/v8/finance/chart/{symbol}")
-                            .build(yahooTicker))
+    /**
+     * Fetch the timestamp/close series for a Yahoo range such as "5y" or "6mo".
+     */
+    @Override
+    public YahooFinanceResponse fetchHistory(String ticker, String range, String interval,
+            RequestPriority priority) {
+        Map<String, String> query = new LinkedHashMap<>();
+        query.put("range", range);
+        query.put("interval", interval);
+        return fetchChart(ticker, mapTickerToYahooSymbol(ticker), query, true, priority);
+    }
+
+    /**
+     * Fetch the timestamp/close series between two instants (period1 inclusive,
+     * period2 exclusive), used to backfill only missing dates.
+     */
+    @Override
+    public YahooFinanceResponse fetchHistory(String ticker, Instant from, Instant to, String interval,
+            RequestPriority priority) {
+        Map<String, String> query = new LinkedHashMap<>();
+        query.put("period1", String.valueOf(from.getEpochSecond()));
+        query.put("period2", String.valueOf(to.getEpochSecond()));
+        query.put("interval", interval);
+        return fetchChart(ticker, mapTickerToYahooSymbol(ticker), query, true, priority);
+    }
+
+    private YahooFinanceResponse fetchChart(String ticker, String yahooTicker, Map<String, String> query,
+            boolean includeSeries, RequestPriority priority) {
+        // Queue for a token before taking a permit, so a half-open trial is not held while waiting
+        fetchGuard.checkAvailable(ticker);
+        rateLimiter.acquire(ticker, priority);
+        return fetchGuard.execute(ticker, () -> requestChart(ticker, yahooTicker, query, includeSeries));
+    }
+
+    private YahooFinanceResponse requestChart(String ticker, String yahooTicker, Map<String, String> query,
+            boolean includeSeries) {
+        try {
+            logger.debug("Fetching chart for ticker: {} (Yahoo symbol: {}, query: {})", ticker, yahooTicker,
+                    query);
+
+            DataBuffer body = DataBufferUtils.join(webClient.get()
+                    .uri(uriBuilder -> {
+                        uriBuilder.path("/v8/finance/chart/{symbol}");
+                        query.forEach(uriBuilder::queryParam);
+                        return uriBuilder.build(yahooTicker);
+                    })
                     .retrieve()
-                    .bodyToMono(YahooFinanceResponse.class)
+                    .bodyToFlux(DataBuffer.class), properties.getHttpMaxResponseBytes())
                     .timeout(Duration.ofSeconds(properties.getTimeout()))
                     .block();
 
+            YahooFinanceResponse response = body != null ? decode(body, includeSeries) : null;
+
             if (response == null || response.getChart() == null) {
                 logger.warn("Invalid response for {}", ticker);
                 throw new RuntimeException("Invalid response from Yahoo Finance for ticker: " + ticker);
@@ -75,7 +150,25 @@ public class YahooFinanceService {
         }
     }
 
+    /**
+     * Stream the joined body through the lean decoder; the buffer is released
+     * when the stream is closed.
+     */
+    private YahooFinanceResponse decode(DataBuffer body, boolean includeSeries) throws IOException {
+        try (InputStream in = body.asInputStream(true);
+                JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            return YahooChartDecoder.decode(parser, includeSeries);
+        }
+    }
+
     private String mapTickerToYahooSymbol(String ticker) {
+        // Prefer the Yahoo symbol explicitly configured on the ETF
+        String override = symbolIndex.getYahooSymbol(ticker);
+        if (override != null) {
+            logger.debug("Using custom Yahoo ticker for {}: {}", ticker, override);
+            return override;
+        }
+
         // If ticker doesn't already have an exchange suffix,
         // assume it's a European ticker and add configured default suffix
         String upperTicker = ticker.toUpperCase();
@@ -0,0 +1,127 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.config.YahooFinanceProperties;
+import com.example.investmenttracker.exception.PriceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket shared by all outbound Yahoo Finance calls, so concurrent
+ * users cannot exceed the common quota.
+ *
+ * Callers that find the bucket empty are queued until a token becomes
+ * available or their deadline passes. Interactive requests take precedence:
+ * while any interactive caller is waiting, bulk callers do not take tokens.
+ */
+@Component
+public class YahooRateLimiter {
+
+    private static final long MIN_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final YahooFinanceProperties properties;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition tokenAvailable = lock.newCondition();
+    private final Map<RequestPriority, Counter> rejections = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Timer> waits = new EnumMap<>(RequestPriority.class);
+
+    private double tokens;
+    private long lastRefillNanos;
+    private int interactiveWaiting;
+
+    @Autowired
+    public YahooRateLimiter(YahooFinanceProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    YahooRateLimiter(YahooFinanceProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.tokens = properties.getRateLimitBurst();
+        this.lastRefillNanos = nanoClock.getAsLong();
+        for (RequestPriority priority : RequestPriority.values()) {
+            String tag = priority.name().toLowerCase();
+            rejections.put(priority, Counter.builder("yahoo.finance.rate.limiter.rejections")
+                    .description("Calls that gave up waiting for a rate limiter token")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+            waits.put(priority, Timer.builder("yahoo.finance.rate.limiter.wait")
+                    .description("Time spent queued for a rate limiter token")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Block until a token is available for the given priority, or throw
+     * {@link PriceUnavailableException} once the configured queue deadline
+     * for that priority has passed.
+     */
+    public void acquire(String ticker, RequestPriority priority) {
+        long start = nanoClock.getAsLong();
+        long deadline = start + maxWait(priority).toNanos();
+        boolean interactive = priority == RequestPriority.INTERACTIVE;
+
+        lock.lock();
+        try {
+            if (interactive) {
+                interactiveWaiting++;
+            }
+            try {
+                while (true) {
+                    long now = nanoClock.getAsLong();
+                    refill(now);
+                    boolean mayTake = interactive || interactiveWaiting == 0;
+                    if (mayTake && tokens >= 1) {
+                        tokens -= 1;
+                        waits.get(priority).record(now - start, TimeUnit.NANOSECONDS);
+                        return;
+                    }
+
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        rejections.get(priority).increment();
+                        throw new PriceUnavailableException("price.rate.limited", ticker);
+                    }
+                    long untilNextToken = tokens >= 1
+                            ? remaining
+                            : (long) ((1 - tokens) * TimeUnit.SECONDS.toNanos(1) / properties.getRateLimitPerSecond());
+                    tokenAvailable.awaitNanos(Math.max(MIN_WAIT_NANOS, Math.min(remaining, untilNextToken)));
+                }
+            } finally {
+                if (interactive) {
+                    interactiveWaiting--;
+                }
+                tokenAvailable.signalAll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PriceUnavailableException("price.rate.limited", ticker);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        tokens = Math.min(properties.getRateLimitBurst(), tokens + elapsedSeconds * properties.getRateLimitPerSecond());
+        lastRefillNanos = now;
+    }
+
+    private Duration maxWait(RequestPriority priority) {
+        return priority == RequestPriority.INTERACTIVE
+                ? Duration.ofMillis(properties.getRateLimitInteractiveMaxWaitMillis())
+                : Duration.ofMillis(properties.getRateLimitBulkMaxWaitMillis());
+    }
+}
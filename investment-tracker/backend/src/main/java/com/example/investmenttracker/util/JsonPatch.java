@@ -0,0 +1,190 @@
+package com.example.investmenttracker.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON Patch (RFC 6902) support: computes a patch made of
+ * {@code add}, {@code remove} and {@code replace} operations between two
+ * documents, and applies such a patch.
+ *
+ * Arrays are diffed by trimming the common prefix and suffix and patching
+ * the middle, which keeps the patch small for the usual edits (an element
+ * appended, removed or changed in place) without a full sequence alignment.
+ */
+public final class JsonPatch {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private JsonPatch() {
+    }
+
+    /**
+     * Patch that turns {@code source} into {@code target}.
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = NODES.arrayNode();
+        diff("", source, target, patch);
+        return patch;
+    }
+
+    /**
+     * Apply a patch to a copy of {@code document} and return the copy.
+     */
+    public static JsonNode apply(JsonNode document, JsonNode patch) {
+        JsonNode result = document.deepCopy();
+        for (JsonNode operation : patch) {
+            String op = operation.path("op").asText();
+            String path = operation.path("path").asText();
+            JsonNode value = operation.get("value");
+            if (path.isEmpty()) {
+                if (!"replace".equals(op) && !"add".equals(op)) {
+                    throw new IllegalArgumentException("Cannot " + op + " the document root");
+                }
+                result = value.deepCopy();
+                continue;
+            }
+            int slash = path.lastIndexOf('/');
+            JsonNode parent = resolve(result, path.substring(0, slash));
+            String key = unescape(path.substring(slash + 1));
+            switch (op) {
+                case "add" -> add(parent, key, value.deepCopy());
+                case "remove" -> remove(parent, key);
+                case "replace" -> {
+                    remove(parent, key);
+                    add(parent, key, value.deepCopy());
+                }
+                default -> throw new IllegalArgumentException("Unsupported patch operation: " + op);
+            }
+        }
+        return result;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode patch) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            diffObjects(path, (ObjectNode) source, (ObjectNode) target, patch);
+        } else if (source.isArray() && target.isArray()) {
+            diffArrays(path, (ArrayNode) source, (ArrayNode) target, patch);
+        } else {
+            patch.add(operation("replace", path, target));
+        }
+    }
+
+    private static void diffObjects(String path, ObjectNode source, ObjectNode target, ArrayNode patch) {
+        for (Map.Entry<String, JsonNode> field : source.properties()) {
+            String fieldPath = path + "/" + escape(field.getKey());
+            JsonNode targetValue = target.get(field.getKey());
+            if (targetValue == null) {
+                patch.add(operation("remove", fieldPath, null));
+            } else {
+                diff(fieldPath, field.getValue(), targetValue, patch);
+            }
+        }
+        for (Map.Entry<String, JsonNode> field : target.properties()) {
+            if (!source.has(field.getKey())) {
+                patch.add(operation("add", path + "/" + escape(field.getKey()), field.getValue()));
+            }
+        }
+    }
+
+    private static void diffArrays(String path, ArrayNode source, ArrayNode target, ArrayNode patch) {
+        int prefix = 0;
+        int max = Math.min(source.size(), target.size());
+        while (prefix < max && source.get(prefix).equals(target.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && source.get(source.size() - 1 - suffix).equals(target.get(target.size() - 1 - suffix))) {
+            suffix++;
+        }
+        int sourceEnd = source.size() - suffix;
+        int targetEnd = target.size() - suffix;
+        int common = Math.min(sourceEnd, targetEnd) - prefix;
+
+        // Elements present on both sides are patched in place
+        for (int i = 0; i < common; i++) {
+            diff(path + "/" + (prefix + i), source.get(prefix + i), target.get(prefix + i), patch);
+        }
+        // Surplus source elements are removed back to front so indexes stay valid
+        for (int i = sourceEnd - 1; i >= prefix + common; i--) {
+            patch.add(operation("remove", path + "/" + i, null));
+        }
+        for (int i = prefix + common; i < targetEnd; i++) {
+            patch.add(operation("add", path + "/" + i, target.get(i)));
+        }
+    }
+
+    private static ObjectNode operation(String op, String path, JsonNode value) {
+        ObjectNode operation = NODES.objectNode();
+        operation.put("op", op);
+        operation.put("path", path);
+        if (value != null) {
+            operation.set("value", value);
+        }
+        return operation;
+    }
+
+    private static JsonNode resolve(JsonNode document, String pointer) {
+        JsonNode node = document;
+        if (pointer.isEmpty()) {
+            return node;
+        }
+        for (String token : split(pointer)) {
+            node = node.isArray() ? node.get(Integer.parseInt(token)) : node.get(token);
+            if (node == null) {
+                throw new IllegalArgumentException("Patch path does not exist: " + pointer);
+            }
+        }
+        return node;
+    }
+
+    private static void add(JsonNode parent, String key, JsonNode value) {
+        if (parent instanceof ArrayNode array) {
+            if ("-".equals(key)) {
+                array.add(value);
+            } else {
+                array.insert(Integer.parseInt(key), value);
+            }
+        } else if (parent instanceof ObjectNode object) {
+            object.set(key, value);
+        } else {
+            throw new IllegalArgumentException("Cannot add to a value node");
+        }
+    }
+
+    private static void remove(JsonNode parent, String key) {
+        if (parent instanceof ArrayNode array) {
+            array.remove(Integer.parseInt(key));
+        } else if (parent instanceof ObjectNode object) {
+            object.remove(key);
+        } else {
+            throw new IllegalArgumentException("Cannot remove from a value node");
+        }
+    }
+
+    private static List<String> split(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(unescape(token));
+        }
+        return tokens;
+    }
+
+    private static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static String unescape(String token) {
+        return token.replace("~1", "/").replace("~0", "~");
+    }
+}
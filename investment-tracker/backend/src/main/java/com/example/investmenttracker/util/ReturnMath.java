@@ -0,0 +1,146 @@
+package com.example.investmenttracker.util;
+
+/**
+ * Money-weighted (XIRR) and time-weighted returns over primitive arrays.
+ *
+ * Cash flows are parallel arrays of epoch days and amounts (negative for
+ * money put in, positive for money taken out or the final value), in any
+ * order. The solver works on these arrays directly and allocates nothing,
+ * so thousands of flows take microseconds.
+ *
+ * XIRR uses Newton-Raphson from a 10% guess and falls back to bisection
+ * when Newton leaves the domain, stalls or fails to converge.
+ */
+public final class ReturnMath {
+
+    private static final double DAYS_PER_YEAR = 365.0;
+    private static final double GUESS = 0.1;
+    private static final double TOLERANCE = 1e-10;
+    private static final int MAX_NEWTON_ITERATIONS = 50;
+    private static final int MAX_BISECTION_ITERATIONS = 200;
+    // Just above -100%, where (1 + rate) stops being positive
+    private static final double LOWEST_RATE = -0.9999;
+    private static final double HIGHEST_RATE = 1e9;
+
+    private ReturnMath() {
+    }
+
+    /**
+     * Annual rate at which the first {@code n} flows have a net present
+     * value of zero, or NaN when there is none (e.g. all flows have the
+     * same sign).
+     */
+    public static double xirr(int[] days, double[] amounts, int n) {
+        if (n < 2) {
+            return Double.NaN;
+        }
+        int first = days[0];
+        boolean in = false;
+        boolean out = false;
+        for (int i = 0; i < n; i++) {
+            first = Math.min(first, days[i]);
+            in |= amounts[i] < 0;
+            out |= amounts[i] > 0;
+        }
+        if (!in || !out) {
+            return Double.NaN;
+        }
+
+        double rate = GUESS;
+        for (int iteration = 0; iteration < MAX_NEWTON_ITERATIONS; iteration++) {
+            double logGrowth = Math.log1p(rate);
+            double npv = 0;
+            double slope = 0;
+            for (int i = 0; i < n; i++) {
+                double years = (days[i] - first) / DAYS_PER_YEAR;
+                double discounted = amounts[i] * Math.exp(-years * logGrowth);
+                npv += discounted;
+                slope -= years * discounted;
+            }
+            slope /= 1 + rate;
+            if (slope == 0 || !Double.isFinite(npv) || !Double.isFinite(slope)) {
+                break;
+            }
+            double next = rate - npv / slope;
+            if (!Double.isFinite(next) || next <= LOWEST_RATE) {
+                break;
+            }
+            if (Math.abs(next - rate) < TOLERANCE) {
+                return next;
+            }
+            rate = next;
+        }
+        return bisect(days, amounts, n, first);
+    }
+
+    /**
+     * Net present value of the first {@code n} flows at {@code rate},
+     * discounted to day {@code first}.
+     */
+    public static double npv(int[] days, double[] amounts, int n, int first, double rate) {
+        double logGrowth = Math.log1p(rate);
+        double npv = 0;
+        for (int i = 0; i < n; i++) {
+            npv += amounts[i] * Math.exp(-(days[i] - first) / DAYS_PER_YEAR * logGrowth);
+        }
+        return npv;
+    }
+
+    /**
+     * Time-weighted return over the first {@code n} valuation points, where
+     * {@code values[i]} is the value right after the net contribution
+     * {@code flows[i]} on that date. Periods starting from nothing are
+     * skipped. Returns the cumulative return (0.1 for +10%).
+     */
+    public static double twr(double[] values, double[] flows, int n) {
+        double growth = 1;
+        for (int i = 1; i < n; i++) {
+            double start = values[i - 1];
+            if (start > 0) {
+                growth *= (values[i] - flows[i]) / start;
+            }
+        }
+        return growth - 1;
+    }
+
+    /**
+     * Annual rate equivalent to {@code totalReturn} over {@code days}, or NaN
+     * for an empty period.
+     */
+    public static double annualize(double totalReturn, int days) {
+        return days > 0 ? Math.pow(1 + totalReturn, DAYS_PER_YEAR / days) - 1 : Double.NaN;
+    }
+
+    private static double bisect(int[] days, double[] amounts, int n, int first) {
+        double low = LOWEST_RATE;
+        double lowNpv = npv(days, amounts, n, first, low);
+        // Over long spans the discount factors near -100% overflow; move up until they do not
+        while (!Double.isFinite(lowNpv)) {
+            low /= 2;
+            lowNpv = npv(days, amounts, n, first, low);
+        }
+        double high = 1;
+        double highNpv = npv(days, amounts, n, first, high);
+        while (Math.signum(lowNpv) == Math.signum(highNpv) && high < HIGHEST_RATE) {
+            high *= 10;
+            highNpv = npv(days, amounts, n, first, high);
+        }
+        if (Math.signum(lowNpv) == Math.signum(highNpv)) {
+            return Double.NaN;
+        }
+        for (int iteration = 0; iteration < MAX_BISECTION_ITERATIONS && high - low > TOLERANCE; iteration++) {
+            double mid = (low + high) / 2;
+            double midNpv = npv(days, amounts, n, first, mid);
+            if (midNpv == 0) {
+                return mid;
+            }
+            if (Math.signum(midNpv) == Math.signum(lowNpv)) {
+                low = mid;
+                lowNpv = midNpv;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+}
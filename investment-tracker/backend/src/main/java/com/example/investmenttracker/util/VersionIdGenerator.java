@@ -0,0 +1,73 @@
+package com.example.investmenttracker.util;
+
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates snapshot version ids that are unique, strictly increasing and
+ * sortable as strings, e.g. {@code 20260101141005123-0000K3F9QX}.
+ *
+ * An id is a UTC timestamp to the millisecond, a 16-bit counter and a
+ * random node id chosen at startup. The timestamp and counter form a
+ * hybrid logical clock: the counter orders ids within one millisecond, and
+ * when the wall clock stalls or goes backwards the last timestamp is reused,
+ * moving on to the next millisecond once the counter overflows. The state is
+ * one atomic word, so generation is lock-free across threads; the node id
+ * keeps ids from different instances apart.
+ *
+ * Ids begin with the {@code yyyyMMddHHmmss} form used before, which makes
+ * older ids sort before newer ones.
+ */
+@Component
+public class VersionIdGenerator {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS")
+            .withZone(ZoneOffset.UTC);
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int COUNTER_BITS = 16;
+    private static final int NODE_CHARS = 6;
+
+    private final Clock clock;
+    private final String nodeId;
+    // Logical milliseconds in the high bits, counter in the low COUNTER_BITS
+    private final AtomicLong state = new AtomicLong();
+
+    public VersionIdGenerator() {
+        this(Clock.systemUTC(), randomNodeId());
+    }
+
+    VersionIdGenerator(Clock clock, String nodeId) {
+        this.clock = clock;
+        this.nodeId = nodeId;
+    }
+
+    public String next() {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long now = clock.millis();
+            // Counter overflow carries into the millisecond bits
+            next = now > current >>> COUNTER_BITS ? now << COUNTER_BITS : current + 1;
+        } while (!state.compareAndSet(current, next));
+
+        long millis = next >>> COUNTER_BITS;
+        int counter = (int) (next & ((1L << COUNTER_BITS) - 1));
+        return TIMESTAMP.format(Instant.ofEpochMilli(millis)) + '-' + String.format("%04X", counter) + nodeId;
+    }
+
+    private static String randomNodeId() {
+        SecureRandom random = new SecureRandom();
+        char[] chars = new char[NODE_CHARS];
+        for (int i = 0; i < NODE_CHARS; i++) {
+            chars[i] = CROCKFORD[random.nextInt(CROCKFORD.length)];
+        }
+        return new String(chars);
+    }
+}
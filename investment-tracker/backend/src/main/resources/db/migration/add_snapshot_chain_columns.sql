@@ -0,0 +1,15 @@
+-- Script to add the delta chain columns to existing portfolio snapshots
+--
+-- IMPORTANT: The postgres profile runs with spring.jpa.hibernate.ddl-auto=validate, so the
+-- application will not start against an existing database until these columns exist.
+-- The h2 profile recreates the schema on every start and does not need this script.
+-- Existing snapshots keep NULL in both columns, which marks them as keyframes holding the full portfolio.
+--
+-- How to run:
+-- 1. Stop the application
+-- 2. Connect to the database with psql or your SQL client
+-- 3. Execute the statements below, then start the application
+
+-- For PostgreSQL
+ALTER TABLE portfolio_snapshots ADD COLUMN IF NOT EXISTS base_snapshot_id BIGINT;
+ALTER TABLE portfolio_snapshots ADD COLUMN IF NOT EXISTS keyframe_snapshot_id BIGINT;
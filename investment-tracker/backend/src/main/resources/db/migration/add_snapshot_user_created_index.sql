@@ -0,0 +1,12 @@
+-- Script to add the index behind the paged snapshot listing
+--
+-- IMPORTANT: The postgres profile validates tables and columns but not indexes, so the application
+-- starts without it; the listing just falls back to scanning and sorting each user's snapshots.
+-- The h2 profile recreates the schema on every start and does not need this script.
+--
+-- How to run:
+-- 1. Connect to the database with psql or your SQL client
+-- 2. Execute the statement below (CONCURRENTLY avoids blocking snapshot writes while it builds)
+
+-- For PostgreSQL
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_snapshot_user_created ON portfolio_snapshots (user_id, created_at, id);
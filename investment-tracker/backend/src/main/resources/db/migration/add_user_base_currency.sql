@@ -0,0 +1,14 @@
+-- Script to add the base currency column to existing users
+--
+-- IMPORTANT: The postgres profile runs with spring.jpa.hibernate.ddl-auto=validate, so the
+-- application will not start against an existing database until this column exists.
+-- The h2 profile recreates the schema on every start and does not need this script.
+-- Existing users keep a NULL base currency and fall back to EUR (User.DEFAULT_BASE_CURRENCY).
+--
+-- How to run:
+-- 1. Stop the application
+-- 2. Connect to the database with psql or your SQL client
+-- 3. Execute the statement below, then start the application
+
+-- For PostgreSQL
+ALTER TABLE users ADD COLUMN IF NOT EXISTS base_currency VARCHAR(3);
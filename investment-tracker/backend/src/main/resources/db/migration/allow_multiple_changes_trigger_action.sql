@@ -0,0 +1,18 @@
+-- Script to allow the MULTIPLE_CHANGES trigger action on coalesced portfolio snapshots
+--
+-- IMPORTANT: Schemas generated by Hibernate carry a check constraint listing the trigger actions
+-- that existed at the time, which rejects snapshots recorded for several coalesced changes.
+-- The h2 profile recreates the schema on every start and does not need this script.
+--
+-- How to run:
+-- 1. Stop the application
+-- 2. Connect to the database with psql or your SQL client
+-- 3. Execute the statements below, then start the application
+
+-- For PostgreSQL
+ALTER TABLE portfolio_snapshots DROP CONSTRAINT IF EXISTS portfolio_snapshots_trigger_action_check;
+
+ALTER TABLE portfolio_snapshots ADD CONSTRAINT portfolio_snapshots_trigger_action_check
+    CHECK (trigger_action IN ('ETF_CREATED', 'ETF_UPDATED', 'ETF_DELETED',
+        'TRANSACTION_ADDED', 'TRANSACTION_UPDATED', 'TRANSACTION_DELETED',
+        'ASSET_CREATED', 'ASSET_UPDATED', 'ASSET_DELETED', 'MANUAL_EXPORT', 'MULTIPLE_CHANGES'));
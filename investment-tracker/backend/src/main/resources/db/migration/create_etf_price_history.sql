@@ -0,0 +1,20 @@
+-- Script to create the daily close price history table used by the price history backfill
+--
+-- IMPORTANT: The postgres profile runs with spring.jpa.hibernate.ddl-auto=validate, so the
+-- application will not start against an existing database until this table exists.
+-- The h2 profile recreates the schema on every start and does not need this script.
+--
+-- How to run:
+-- 1. Stop the application
+-- 2. Connect to the database with psql or your SQL client
+-- 3. Execute the statements below, then start the application
+
+-- For PostgreSQL
+CREATE TABLE IF NOT EXISTS etf_price_history (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ticker VARCHAR(255) NOT NULL,
+    price_date DATE NOT NULL,
+    close_price NUMERIC(19,4) NOT NULL,
+    currency VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_price_history_ticker_date UNIQUE (ticker, price_date)
+);
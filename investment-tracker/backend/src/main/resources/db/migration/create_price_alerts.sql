@@ -0,0 +1,30 @@
+-- Script to create the price alerts table and the previous close column used by daily change alerts
+--
+-- IMPORTANT: The postgres profile runs with spring.jpa.hibernate.ddl-auto=validate, so the
+-- application will not start against an existing database until these changes are applied.
+-- The h2 profile recreates the schema on every start and does not need this script.
+-- Existing prices keep a NULL previous close until the next refresh fills it in.
+--
+-- How to run:
+-- 1. Stop the application
+-- 2. Connect to the database with psql or your SQL client
+-- 3. Execute the statements below, then start the application
+
+-- For PostgreSQL
+CREATE TABLE IF NOT EXISTS price_alerts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    ticker VARCHAR(255) NOT NULL,
+    metric VARCHAR(255) NOT NULL
+        CHECK (metric IN ('PRICE', 'COST_BASIS_CHANGE_PERCENT', 'DAILY_CHANGE_PERCENT')),
+    direction VARCHAR(255) NOT NULL CHECK (direction IN ('ABOVE', 'BELOW')),
+    threshold NUMERIC(19,4) NOT NULL,
+    active BOOLEAN NOT NULL,
+    triggered_price NUMERIC(19,4),
+    triggered_at TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_price_alert_active_ticker ON price_alerts (active, ticker);
+
+ALTER TABLE etf_prices ADD COLUMN IF NOT EXISTS previous_close NUMERIC(19,4);
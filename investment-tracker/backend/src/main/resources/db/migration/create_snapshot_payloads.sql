@@ -0,0 +1,27 @@
+-- Script to create the compressed snapshot payload table
+--
+-- IMPORTANT: The postgres profile runs with spring.jpa.hibernate.ddl-auto=validate, so the
+-- application will not start against an existing database until these changes are applied.
+-- The h2 profile recreates the schema on every start and does not need this script.
+-- Run add_snapshot_chain_columns.sql first if it has not been applied yet.
+--
+-- The old portfolio_json column is kept but no longer required, so new snapshots can be saved
+-- without it. On the next start the application copies every existing payload into
+-- portfolio_snapshot_payloads before it accepts requests (see SnapshotPayloadMigration) and
+-- logs when it is done; then run drop_snapshot_portfolio_json.sql.
+--
+-- How to run:
+-- 1. Stop the application
+-- 2. Connect to the database with psql or your SQL client
+-- 3. Execute the statements below, then start the application
+
+-- For PostgreSQL
+CREATE TABLE IF NOT EXISTS portfolio_snapshot_payloads (
+    snapshot_id BIGINT PRIMARY KEY,
+    data BYTEA NOT NULL,
+    raw_size INTEGER NOT NULL
+);
+
+ALTER TABLE portfolio_snapshots ADD COLUMN IF NOT EXISTS payload_size INTEGER;
+
+ALTER TABLE portfolio_snapshots ALTER COLUMN portfolio_json DROP NOT NULL;
@@ -0,0 +1,16 @@
+-- Script to drop the old uncompressed snapshot payload column
+--
+-- IMPORTANT: Only run this after the application has started once with create_snapshot_payloads.sql
+-- applied and logged "Moved ... snapshot payload(s) to compressed storage". The query below must
+-- return 0 first; any row it counts would lose its payload.
+--
+-- How to run:
+-- 1. Connect to the database with psql or your SQL client
+-- 2. Run the check, and if it returns 0 execute the ALTER TABLE statement
+
+-- For PostgreSQL
+SELECT COUNT(*) FROM portfolio_snapshots s
+WHERE s.portfolio_json IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM portfolio_snapshot_payloads p WHERE p.snapshot_id = s.id);
+
+ALTER TABLE portfolio_snapshots DROP COLUMN IF EXISTS portfolio_json;
@@ -0,0 +1,119 @@
+package com.example.investmenttracker.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares data binding of a full chart response with the streaming decoder,
+ * on a 10 year daily payload (about 2,500 bars with open/high/low/close/volume
+ * and adjclose, roughly 250 KB).
+ *
+ * Run with the GC profiler to see bytes allocated per decode
+ * (gc.alloc.rate.norm):
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main YahooChartDecoderBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YahooChartDecoderBenchmark {
+
+    private static final int BARS = 2_520;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        payload = chartPayload(BARS, new Random(7)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public YahooFinanceResponse dataBinding() throws IOException {
+        return objectMapper.readValue(payload, YahooFinanceResponse.class);
+    }
+
+    @Benchmark
+    public YahooFinanceResponse streamingMetaOnly() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            return YahooChartDecoder.decode(parser, false);
+        }
+    }
+
+    @Benchmark
+    public YahooFinanceResponse streamingWithSeries() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            return YahooChartDecoder.decode(parser, true);
+        }
+    }
+
+    /**
+     * Chart response shaped like the real endpoint, including the meta
+     * fields and indicator arrays the application never reads.
+     */
+    static String chartPayload(int bars, Random random) {
+        long start = 1_400_000_000L;
+        StringBuilder timestamps = new StringBuilder();
+        StringBuilder open = new StringBuilder();
+        StringBuilder high = new StringBuilder();
+        StringBuilder low = new StringBuilder();
+        StringBuilder close = new StringBuilder();
+        StringBuilder volume = new StringBuilder();
+        double price = 60.0;
+        for (int i = 0; i < bars; i++) {
+            String sep = i == 0 ? "" : ",";
+            price = Math.max(1.0, price * (1 + (random.nextGaussian() * 0.01)));
+            timestamps.append(sep).append(start + i * 86_400L);
+            open.append(sep).append(format(price * 0.998));
+            high.append(sep).append(format(price * 1.006));
+            low.append(sep).append(format(price * 0.994));
+            // A few bars without a trade, as Yahoo reports them
+            close.append(sep).append(i % 250 == 17 ? "null" : format(price));
+            volume.append(sep).append(random.nextInt(500_000));
+        }
+        return "{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"EUR\",\"symbol\":\"VWCE.DE\","
+                + "\"exchangeName\":\"GER\",\"fullExchangeName\":\"XETRA\",\"instrumentType\":\"ETF\","
+                + "\"firstTradeDate\":1564383600,\"regularMarketTime\":1718722800,\"hasPrePostMarketData\":false,"
+                + "\"gmtoffset\":7200,\"timezone\":\"CEST\",\"exchangeTimezoneName\":\"Europe/Berlin\","
+                + "\"regularMarketPrice\":" + format(price) + ",\"fiftyTwoWeekHigh\":125.1,"
+                + "\"fiftyTwoWeekLow\":98.3,\"regularMarketDayHigh\":119.9,\"regularMarketDayLow\":118.2,"
+                + "\"regularMarketVolume\":178233,\"longName\":\"Vanguard FTSE All-World UCITS ETF\","
+                + "\"shortName\":\"VANGUARD FTSE ALL-WORLD U.ETF\",\"chartPreviousClose\":60.0,"
+                + "\"priceHint\":2,\"currentTradingPeriod\":{"
+                + "\"pre\":{\"timezone\":\"CEST\",\"start\":1718690400,\"end\":1718690400,\"gmtoffset\":7200},"
+                + "\"regular\":{\"timezone\":\"CEST\",\"start\":1718690400,\"end\":1718721000,\"gmtoffset\":7200},"
+                + "\"post\":{\"timezone\":\"CEST\",\"start\":1718721000,\"end\":1718721000,\"gmtoffset\":7200}},"
+                + "\"dataGranularity\":\"1d\",\"range\":\"10y\",\"validRanges\":[\"1d\",\"5d\",\"1mo\","
+                + "\"3mo\",\"6mo\",\"1y\",\"2y\",\"5y\",\"10y\",\"ytd\",\"max\"]},"
+                + "\"timestamp\":[" + timestamps + "],"
+                + "\"indicators\":{\"quote\":[{\"open\":[" + open + "],\"high\":[" + high + "],"
+                + "\"low\":[" + low + "],\"close\":[" + close + "],\"volume\":[" + volume + "]}],"
+                + "\"adjclose\":[{\"adjclose\":[" + close + "]}]}}],\"error\":null}}";
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
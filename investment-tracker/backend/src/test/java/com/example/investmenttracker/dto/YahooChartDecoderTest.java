@@ -0,0 +1,65 @@
+package com.example.investmenttracker.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YahooChartDecoderTest {
+
+    private static final String CHART = """
+            {"chart":{"result":[{"meta":{"currency":"EUR","symbol":"VWCE.DE","gmtoffset":3600,
+              "regularMarketPrice":112.5,"previousClose":null,
+              "currentTradingPeriod":{"pre":{"start":1,"end":2}},"validRanges":["1d","5d"]},
+              "timestamp":[1700000000,1700086400,1700172800],
+              "indicators":{"quote":[{"open":[1,2,3],"close":[110.1,null,112.5],"volume":[10,20,30]}],
+                "adjclose":[{"adjclose":[110.1,111.0,112.5]}]}}],
+              "error":null}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private YahooFinanceResponse decode(String json, boolean includeSeries) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return YahooChartDecoder.decode(parser, includeSeries);
+        }
+    }
+
+    @Test
+    public void readsMetaOnlyWithoutSeries() throws IOException {
+        YahooFinanceResponse.Result result = decode(CHART, false).getChart().getResult().get(0);
+
+        assertEquals("EUR", result.getMeta().getCurrency());
+        assertEquals("VWCE.DE", result.getMeta().getSymbol());
+        assertEquals(112.5, result.getMeta().getRegularMarketPrice());
+        assertNull(result.getMeta().getPreviousClose());
+        assertEquals(3600, result.getMeta().getGmtoffset());
+        assertNull(result.getTimestamp());
+        assertNull(result.getClose());
+    }
+
+    @Test
+    public void readsSeriesWhenRequested() throws IOException {
+        YahooFinanceResponse.Result result = decode(CHART, true).getChart().getResult().get(0);
+
+        assertArrayEquals(new long[] { 1700000000L, 1700086400L, 1700172800L }, result.getTimestamp());
+        double[] closes = result.getClose();
+        assertEquals(3, closes.length);
+        assertEquals(110.1, closes[0]);
+        assertTrue(Double.isNaN(closes[1]));
+        assertEquals(112.5, closes[2]);
+    }
+
+    @Test
+    public void keepsUpstreamError() throws IOException {
+        YahooFinanceResponse response = decode(
+                "{\"chart\":{\"result\":null,\"error\":{\"code\":\"Not Found\",\"description\":\"No data\"}}}",
+                false);
+
+        assertNull(response.getChart().getResult());
+        assertNotNull(response.getChart().getError());
+    }
+}
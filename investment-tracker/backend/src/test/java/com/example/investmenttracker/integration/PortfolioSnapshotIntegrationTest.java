@@ -0,0 +1,166 @@
+package com.example.investmenttracker.integration;
+
+import com.example.investmenttracker.config.TestSecurityConfig;
+import com.example.investmenttracker.dto.PortfolioSnapshotPage;
+import com.example.investmenttracker.dto.PortfolioSnapshotSummary;
+import com.example.investmenttracker.dto.SnapshotArchiveEntry;
+import com.example.investmenttracker.model.PortfolioSnapshot;
+import com.example.investmenttracker.model.TriggerAction;
+import com.example.investmenttracker.model.User;
+import com.example.investmenttracker.service.PortfolioSnapshotService;
+import com.example.investmenttracker.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestSecurityConfig.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshots",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.profiles.active=test",
+        "app.snapshots.keyframe-interval=3"
+})
+public class PortfolioSnapshotIntegrationTest {
+
+    @Autowired
+    private PortfolioSnapshotService snapshotService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void unfilteredListingIncludesSnapshotsWithoutAnAction() {
+        String email = newUser();
+        snapshotService.createSnapshotWithVersionId(email, "v-" + UUID.randomUUID(), "{\"etfs\":[]}", null,
+                "Imported before actions were recorded");
+        snapshotService.createSnapshotWithVersionId(email, "v-" + UUID.randomUUID(), "{\"etfs\":[]}",
+                TriggerAction.ETF_CREATED, "VWCE");
+
+        PortfolioSnapshotPage all = snapshotService.getUserSnapshots(email, null, 10, null, null, null);
+        assertThat(all.getItems()).hasSize(2);
+        assertThat(all.getItems()).extracting(PortfolioSnapshotSummary::getTriggerAction)
+                .containsExactlyInAnyOrder(null, TriggerAction.ETF_CREATED);
+
+        PortfolioSnapshotPage created = snapshotService.getUserSnapshots(email, null, 10,
+                List.of(TriggerAction.ETF_CREATED), null, null);
+        assertThat(created.getItems()).extracting(PortfolioSnapshotSummary::getChangeDetails)
+                .containsExactly("VWCE");
+    }
+
+    @Test
+    public void deltaChainRoundTripsWithAKeyframeEveryInterval() {
+        User user = userService.findOrCreateUser(UUID.randomUUID() + "@example.com", "LOCAL", null);
+        List<JsonNode> portfolios = new ArrayList<>();
+        List<PortfolioSnapshot> snapshots = new ArrayList<>();
+        for (int version = 0; version < 7; version++) {
+            portfolios.add(portfolio(version));
+            snapshots.add(importVersion(user, version, portfolios.get(version)));
+        }
+
+        assertThat(snapshots).extracting(PortfolioSnapshot::isKeyframe)
+                .containsExactly(true, false, false, true, false, false, true);
+        assertThat(snapshots.get(2).getBaseSnapshotId()).isEqualTo(snapshots.get(1).getId());
+        assertThat(snapshots.get(2).getKeyframeSnapshotId()).isEqualTo(snapshots.get(0).getId());
+        assertThat(snapshots.get(1).getPayloadSize()).isLessThan(snapshots.get(0).getPayloadSize());
+        for (int version = 0; version < snapshots.size(); version++) {
+            assertThat(snapshotService.getPortfolio(snapshots.get(version).getId())).isEqualTo(portfolios.get(version));
+        }
+    }
+
+    @Test
+    public void deletingOrOverwritingMidChainKeepsLaterVersionsReadable() {
+        User user = userService.findOrCreateUser(UUID.randomUUID() + "@example.com", "LOCAL", null);
+        PortfolioSnapshot first = importVersion(user, 0, portfolio(0));
+        PortfolioSnapshot second = importVersion(user, 1, portfolio(1));
+        PortfolioSnapshot third = importVersion(user, 2, portfolio(2));
+        assertThat(third.getBaseSnapshotId()).isEqualTo(second.getId());
+
+        snapshotService.deleteSnapshot(second.getId(), user.getEmail());
+
+        assertThat(snapshotService.getSnapshotById(second.getId(), user.getEmail())).isNull();
+        assertThat(snapshotService.getSnapshotById(third.getId(), user.getEmail()).isKeyframe()).isTrue();
+        assertThat(snapshotService.getPortfolio(third.getId())).isEqualTo(portfolio(2));
+
+        PortfolioSnapshot fourth = importVersion(user, 3, portfolio(3));
+        assertThat(fourth.getBaseSnapshotId()).isEqualTo(third.getId());
+        snapshotService.createSnapshotWithVersionId(user.getEmail(), third.getVersionId(), portfolio(9).toString(),
+                TriggerAction.MANUAL_EXPORT, "Overwritten");
+
+        assertThat(snapshotService.getPortfolio(first.getId())).isEqualTo(portfolio(0));
+        assertThat(snapshotService.getPortfolio(third.getId())).isEqualTo(portfolio(9));
+        assertThat(snapshotService.getPortfolio(fourth.getId())).isEqualTo(portfolio(3));
+    }
+
+    @Test
+    public void deletingABatchRebuildsEveryChainItTouches() {
+        User user = userService.findOrCreateUser(UUID.randomUUID() + "@example.com", "LOCAL", null);
+        List<PortfolioSnapshot> snapshots = new ArrayList<>();
+        for (int version = 0; version < 6; version++) {
+            snapshots.add(importVersion(user, version, portfolio(version)));
+        }
+        List<Long> ids = snapshots.stream().map(PortfolioSnapshot::getId).toList();
+
+        // The first keyframe and a delta in the middle of the second chain
+        PortfolioSnapshotService.Reclaimed reclaimed = snapshotService.deleteSnapshots(user.getId(),
+                List.of(ids.get(0), ids.get(4)));
+
+        assertThat(reclaimed.snapshots()).isEqualTo(2);
+        assertThat(reclaimed.bytes()).isPositive();
+        PortfolioSnapshot second = snapshotService.getSnapshotById(ids.get(1), user.getEmail());
+        PortfolioSnapshot third = snapshotService.getSnapshotById(ids.get(2), user.getEmail());
+        PortfolioSnapshot sixth = snapshotService.getSnapshotById(ids.get(5), user.getEmail());
+        assertThat(second.isKeyframe()).isTrue();
+        assertThat(third.getBaseSnapshotId()).isEqualTo(ids.get(1));
+        assertThat(sixth.getBaseSnapshotId()).isEqualTo(ids.get(3));
+        for (int version : List.of(1, 2, 3, 5)) {
+            assertThat(snapshotService.getPortfolio(ids.get(version))).isEqualTo(portfolio(version));
+        }
+
+        // Ids of another user are ignored
+        String other = newUser();
+        assertThat(snapshotService.deleteSnapshots(userService.getCurrentUser(other).getId(), ids).snapshots())
+                .isZero();
+    }
+
+    private PortfolioSnapshot importVersion(User user, int version, JsonNode portfolio) {
+        return snapshotService.importSnapshot(user, new SnapshotArchiveEntry("v-" + UUID.randomUUID(),
+                LocalDateTime.of(2024, 1, 1, 12, 0).plusDays(version), TriggerAction.TRANSACTION_ADDED,
+                "Version " + version, portfolio));
+    }
+
+    private JsonNode portfolio(int version) {
+        ObjectNode portfolio = objectMapper.createObjectNode();
+        ArrayNode etfs = portfolio.putArray("etfs");
+        for (String ticker : List.of("VWCE", "EUNL", "IWDA", "EMIM")) {
+            etfs.addObject()
+                    .put("ticker", ticker)
+                    .put("name", ticker + " UCITS ETF Accumulating")
+                    .put("currency", "EUR")
+                    .put("units", ticker.equals("VWCE") ? 10 + version : 25);
+        }
+        return portfolio;
+    }
+
+    private String newUser() {
+        String email = UUID.randomUUID() + "@example.com";
+        userService.findOrCreateUser(email, "LOCAL", null);
+        return email;
+    }
+}
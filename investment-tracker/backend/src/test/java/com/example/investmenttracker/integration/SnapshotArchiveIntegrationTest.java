@@ -0,0 +1,158 @@
+package com.example.investmenttracker.integration;
+
+import com.example.investmenttracker.config.TestSecurityConfig;
+import com.example.investmenttracker.dto.PortfolioSnapshotSummary;
+import com.example.investmenttracker.dto.SnapshotArchiveEntry;
+import com.example.investmenttracker.exception.ValidationException;
+import com.example.investmenttracker.model.PortfolioSnapshot;
+import com.example.investmenttracker.model.TriggerAction;
+import com.example.investmenttracker.model.User;
+import com.example.investmenttracker.service.PortfolioSnapshotService;
+import com.example.investmenttracker.service.SnapshotArchiveService;
+import com.example.investmenttracker.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Import(TestSecurityConfig.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshotarchive",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.profiles.active=test",
+        "app.snapshots.keyframe-interval=3",
+        "app.snapshots.import-batch-size=2"
+})
+public class SnapshotArchiveIntegrationTest {
+
+    @Autowired
+    private SnapshotArchiveService archiveService;
+
+    @Autowired
+    private PortfolioSnapshotService snapshotService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void exportedHistoryImportsIntoAnotherUser() throws Exception {
+        User owner = newUser();
+        List<PortfolioSnapshot> originals = new ArrayList<>();
+        for (int version = 0; version < 5; version++) {
+            originals.add(snapshotService.importSnapshot(owner, entry("v-" + UUID.randomUUID(), version)));
+        }
+        // Keyframe, two deltas, keyframe, delta: the export has to decode patches
+        assertThat(originals).extracting(PortfolioSnapshot::isKeyframe)
+                .containsExactly(true, false, false, true, false);
+
+        byte[] archive = export(owner);
+        List<SnapshotArchiveEntry> lines = read(archive);
+        assertThat(lines).extracting(SnapshotArchiveEntry::getVersionId)
+                .containsExactlyElementsOf(originals.stream().map(PortfolioSnapshot::getVersionId).toList());
+        for (int version = 0; version < lines.size(); version++) {
+            assertThat(lines.get(version).getPortfolio()).isEqualTo(portfolio(version));
+            assertThat(lines.get(version).getChangeDetails()).isEqualTo("Version " + version);
+        }
+
+        // The versions belong to the owner, so the copy gets new version ids
+        User copy = newUser();
+        SnapshotArchiveService.ImportResult result = archiveService.importHistory(copy.getEmail(),
+                new ByteArrayInputStream(archive));
+        assertThat(result).isEqualTo(new SnapshotArchiveService.ImportResult(5, 0));
+        List<PortfolioSnapshotSummary> copied = snapshotService.getUserSnapshots(copy.getEmail(), null, 10,
+                null, null, null).getItems();
+        assertThat(copied).hasSize(5);
+        assertThat(copied).extracting(PortfolioSnapshotSummary::getVersionId)
+                .doesNotContainAnyElementsOf(lines.stream().map(SnapshotArchiveEntry::getVersionId).toList());
+        assertThat(read(export(copy))).extracting(SnapshotArchiveEntry::getPortfolio)
+                .containsExactlyElementsOf(lines.stream().map(SnapshotArchiveEntry::getPortfolio).toList());
+
+        // Importing into the owner again adds nothing
+        assertThat(archiveService.importHistory(owner.getEmail(), new ByteArrayInputStream(archive)))
+                .isEqualTo(new SnapshotArchiveService.ImportResult(0, 5));
+    }
+
+    @Test
+    public void malformedLineStopsTheImportAfterTheCommittedBatches() throws Exception {
+        User user = newUser();
+        String archive = objectMapper.writeValueAsString(entry("v-" + UUID.randomUUID(), 0)) + "\n"
+                + objectMapper.writeValueAsString(entry("v-" + UUID.randomUUID(), 1)) + "\n"
+                + "{\"versionId\": \"v-broken\", \"portfolio\": \n";
+
+        assertThatThrownBy(() -> archiveService.importHistory(user.getEmail(),
+                new ByteArrayInputStream(archive.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOfSatisfying(ValidationException.class, e -> {
+                    assertThat(e.getCode()).isEqualTo("snapshot.import.invalid");
+                    assertThat(e.getArgs()).containsExactly(3L);
+                });
+        assertThat(snapshotService.getUserSnapshots(user.getEmail(), null, 10, null, null, null).getItems())
+                .hasSize(2);
+    }
+
+    @Test
+    public void lineWithoutAPortfolioIsRejected() throws Exception {
+        User user = newUser();
+        String archive = objectMapper.writeValueAsString(entry("v-" + UUID.randomUUID(), 0)) + "\n"
+                + "{\"versionId\": \"v-empty\"}\n";
+
+        assertThatThrownBy(() -> archiveService.importHistory(user.getEmail(),
+                new ByteArrayInputStream(archive.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOfSatisfying(ValidationException.class,
+                        e -> assertThat(e.getArgs()).containsExactly(2L));
+        assertThat(snapshotService.getUserSnapshots(user.getEmail(), null, 10, null, null, null).getItems())
+                .isEmpty();
+    }
+
+    private byte[] export(User user) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiveService.exportHistory(user.getEmail(), out);
+        return out.toByteArray();
+    }
+
+    private List<SnapshotArchiveEntry> read(byte[] archive) throws Exception {
+        return objectMapper.readerFor(SnapshotArchiveEntry.class)
+                .<SnapshotArchiveEntry>readValues(archive).readAll();
+    }
+
+    private SnapshotArchiveEntry entry(String versionId, int version) {
+        return new SnapshotArchiveEntry(versionId, LocalDateTime.of(2024, 1, 1, 12, 0).plusDays(version),
+                TriggerAction.TRANSACTION_ADDED, "Version " + version, portfolio(version));
+    }
+
+    private JsonNode portfolio(int version) {
+        ObjectNode portfolio = objectMapper.createObjectNode();
+        ArrayNode etfs = portfolio.putArray("etfs");
+        for (String ticker : List.of("VWCE", "EUNL", "IWDA", "EMIM")) {
+            etfs.addObject()
+                    .put("ticker", ticker)
+                    .put("name", ticker + " UCITS ETF Accumulating")
+                    .put("currency", "EUR")
+                    .put("units", ticker.equals("VWCE") ? 10 + version : 25);
+        }
+        return portfolio;
+    }
+
+    private User newUser() {
+        return userService.findOrCreateUser(UUID.randomUUID() + "@example.com", "LOCAL", null);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.HoldingPosition;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfTransaction;
+import com.example.investmenttracker.model.TransactionType;
+import com.example.investmenttracker.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class EtfPositionProjectionTest {
+
+    private static final String EMAIL = "test@example.com";
+
+    private Etf etf;
+    private EtfPositionProjection projection;
+
+    @BeforeEach
+    public void setup() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        etf = new Etf();
+        etf.setId(1L);
+        etf.setTicker("VWCE");
+        etf.setUser(user);
+        etf.addTransaction(transaction(TransactionType.BUY, "10", "1000", "2"));
+
+        EtfService etfService = Mockito.mock(EtfService.class);
+        when(etfService.getAllEtfs(EMAIL)).thenReturn(List.of(etf));
+        projection = new EtfPositionProjection(etfService);
+    }
+
+    @Test
+    public void changesRefoldTheEtfFromItsTransactions() {
+        assertEquals(0, new BigDecimal("10").compareTo(position().getUnits()));
+
+        EtfTransaction buy = transaction(TransactionType.BUY, "10", "1200", "2");
+        etf.addTransaction(buy);
+        projection.onTransactionChanged(etf);
+
+        EtfTransaction sell = transaction(TransactionType.SELL, "4", "0", "1");
+        etf.addTransaction(sell);
+        projection.onTransactionChanged(etf);
+
+        sell.setUnitsPurchased(new BigDecimal("5"));
+        projection.onTransactionChanged(etf);
+
+        HoldingPosition position = position();
+        assertEquals(0, new BigDecimal("15").compareTo(position.getUnits()));
+        assertEquals(0, new BigDecimal("1650").compareTo(position.getCostBasis()));
+        assertEquals(0, new BigDecimal("3").compareTo(position.getFees()));
+        assertEquals(3, position.getTransactionCount());
+        assertTrue(projection.verify().mismatches().isEmpty());
+
+        etf.removeTransaction(buy);
+        projection.onTransactionChanged(etf);
+        assertEquals(0, new BigDecimal("5").compareTo(position().getUnits()));
+        assertTrue(projection.verify().mismatches().isEmpty());
+    }
+
+    @Test
+    public void costBasisMatchesTheHoldingsLedger() {
+        EtfTransaction sell = new EtfTransaction(null, LocalDate.of(2024, 2, 10), TransactionType.SELL,
+                new BigDecimal("5"), new BigDecimal("600"), new BigDecimal("1"));
+        EtfTransaction buy = new EtfTransaction(null, LocalDate.of(2024, 3, 10), TransactionType.BUY,
+                new BigDecimal("10"), new BigDecimal("1500"), new BigDecimal("2"));
+        etf.addTransaction(sell);
+        etf.addTransaction(buy);
+        projection.onTransactionChanged(etf);
+
+        // The sale takes half of the first buy's cost off; a pooled average would give 1875
+        HoldingPosition position = position();
+        HoldingPosition ledger = HoldingsLedger.build(List.of(etf)).positionsAt(LocalDate.of(2024, 12, 31)).get(0);
+        assertEquals(0, new BigDecimal("2000").compareTo(position.getCostBasis()));
+        assertEquals(0, ledger.getCostBasis().compareTo(position.getCostBasis()));
+        assertEquals(0, ledger.getFees().compareTo(position.getFees()));
+    }
+
+    @Test
+    public void verifyReportsChangesThatBypassedTheProjection() {
+        position();
+        etf.addTransaction(transaction(TransactionType.BUY, "1", "100", "0"));
+
+        EtfPositionProjection.Verification verification = projection.verify();
+        assertEquals(1, verification.mismatches().size());
+        assertEquals(1L, verification.mismatches().get(0).etfId());
+
+        projection.rebuild();
+        assertEquals(0, new BigDecimal("11").compareTo(position().getUnits()));
+        assertTrue(projection.verify().mismatches().isEmpty());
+    }
+
+    private HoldingPosition position() {
+        List<HoldingPosition> positions = projection.positionsFor(EMAIL);
+        assertEquals(1, positions.size());
+        return positions.get(0);
+    }
+
+    private static EtfTransaction transaction(TransactionType type, String units, String cost, String fees) {
+        return new EtfTransaction(null, LocalDate.of(2024, 1, 10), type, new BigDecimal(units),
+                new BigDecimal(cost), new BigDecimal(fees));
+    }
+}
@@ -9,6 +9,7 @@ import com.example.investmenttracker.storage.InMemoryFileStorage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -41,7 +42,8 @@ public class EtfServiceTest {
         when(userService.getCurrentUser(anyString())).thenReturn(testUser);
         when(userService.findOrCreateUser(anyString(), anyString(), anyString())).thenReturn(testUser);
 
-        service = new EtfService(repository, userService);
+        service = new EtfService(repository, userService, new TickerSymbolIndex(repository),
+                Mockito.mock(ApplicationEventPublisher.class));
     }
 
     private Etf sampleEtf(String ticker, Long id) {
@@ -0,0 +1,98 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.ExitTaxProjection;
+import com.example.investmenttracker.dto.ExitTaxProjection.EventType;
+import com.example.investmenttracker.dto.ExitTaxProjection.PriceSource;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfTransaction;
+import com.example.investmenttracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExitTaxCalculatorTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2026, 6, 1);
+
+    @Test
+    public void repeatedCyclesAndSalesCreditEarlierDeemedDisposals() {
+        Etf etf = etf();
+        etf.addTransaction(transaction(1L, LocalDate.of(2010, 1, 1), TransactionType.BUY, "10", "1000"));
+        etf.addTransaction(transaction(2L, LocalDate.of(2020, 6, 1), TransactionType.SELL, "4", "720"));
+
+        ExitTaxProjection projection = calculator(LocalDate.of(2034, 6, 1)).calculate(List.of(etf), "EUR");
+
+        ExitTaxProjection.Lot lot = projection.getLots().get(0);
+        assertEquals(0, new BigDecimal("6").compareTo(lot.getUnitsHeld()));
+        List<ExitTaxProjection.TaxEvent> events = lot.getEvents();
+        assertEquals(4, events.size());
+
+        // 2018: 10 units at 150, 40% of a 500 gain
+        assertEquals(EventType.DEEMED_DISPOSAL, events.get(0).getType());
+        assertEquals(PriceSource.HISTORICAL, events.get(0).getPriceSource());
+        assertEquals(new BigDecimal("200.00"), events.get(0).getTax());
+
+        // 2020: 4 units sold at 180 carry 4/10 of the tax paid
+        assertEquals(EventType.SALE, events.get(1).getType());
+        assertEquals(new BigDecimal("128.00"), events.get(1).getGrossTax());
+        assertEquals(new BigDecimal("80.00"), events.get(1).getCredit());
+        assertEquals(new BigDecimal("48.00"), events.get(1).getTax());
+
+        // 2026: 6 units at 200, credited with the remaining 120 paid in 2018
+        assertEquals(new BigDecimal("240.00"), events.get(2).getGrossTax());
+        assertEquals(new BigDecimal("120.00"), events.get(2).getTax());
+        assertFalse(events.get(2).isProjected());
+
+        // 2034: projected at the current price
+        assertTrue(events.get(3).isProjected());
+        assertEquals(PriceSource.CURRENT, events.get(3).getPriceSource());
+        assertEquals(new BigDecimal("120.00"), events.get(3).getTax());
+
+        assertEquals(List.of(2018, 2020, 2026, 2034),
+                projection.getYears().stream().map(ExitTaxProjection.YearTax::getYear).toList());
+        assertEquals(new BigDecimal("368.00"), projection.getTaxToDate());
+        assertEquals(new BigDecimal("120.00"), projection.getProjectedTax());
+    }
+
+    @Test
+    public void saleBelowTheDeemedValueIsRefunded() {
+        Etf etf = etf();
+        etf.addTransaction(transaction(1L, LocalDate.of(2010, 1, 1), TransactionType.BUY, "10", "1000"));
+        etf.addTransaction(transaction(2L, LocalDate.of(2019, 1, 1), TransactionType.SELL, "10", "1200"));
+
+        ExitTaxProjection projection = calculator(LocalDate.of(2030, 1, 1)).calculate(List.of(etf), "EUR");
+
+        List<ExitTaxProjection.TaxEvent> events = projection.getLots().get(0).getEvents();
+        assertEquals(2, events.size());
+        assertEquals(new BigDecimal("200.00"), events.get(0).getTax());
+        assertEquals(new BigDecimal("-120.00"), events.get(1).getTax());
+        assertEquals(0, BigDecimal.ZERO.compareTo(projection.getLots().get(0).getUnitsHeld()));
+    }
+
+    private static ExitTaxCalculator calculator(LocalDate horizon) {
+        return new ExitTaxCalculator(new BigDecimal("40"), AS_OF, horizon, (ticker, date) -> switch (date.getYear()) {
+            case 2018 -> new ExitTaxCalculator.Quote(new BigDecimal("150"), PriceSource.HISTORICAL);
+            case 2026 -> new ExitTaxCalculator.Quote(new BigDecimal("200"), PriceSource.HISTORICAL);
+            default -> new ExitTaxCalculator.Quote(new BigDecimal("250"), PriceSource.CURRENT);
+        });
+    }
+
+    private static Etf etf() {
+        Etf etf = new Etf();
+        etf.setId(1L);
+        etf.setTicker("VWCE");
+        return etf;
+    }
+
+    private static EtfTransaction transaction(Long id, LocalDate date, TransactionType type, String units,
+            String cost) {
+        EtfTransaction transaction = new EtfTransaction(null, date, type, new BigDecimal(units),
+                new BigDecimal(cost), BigDecimal.ZERO);
+        transaction.setId(id);
+        return transaction;
+    }
+}
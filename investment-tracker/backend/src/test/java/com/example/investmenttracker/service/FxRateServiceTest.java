@@ -0,0 +1,95 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import com.example.investmenttracker.dto.YahooFinanceResponse;
+import com.example.investmenttracker.persistence.EtfPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FxRateServiceTest {
+
+    private PriceProvider priceProvider;
+    private FxRateService service;
+
+    @BeforeEach
+    public void setup() {
+        priceProvider = Mockito.mock(PriceProvider.class);
+        when(priceProvider.fetchPrice(Mockito.eq("EURUSD=X"), anyString(), any())).thenReturn(quote(1.25));
+        when(priceProvider.fetchPrice(Mockito.eq("EURGBP=X"), anyString(), any())).thenReturn(quote(0.8));
+        service = new FxRateService(priceProvider, Mockito.mock(EtfPriceRepository.class));
+    }
+
+    private static YahooFinanceResponse quote(double price) {
+        YahooFinanceResponse.Meta meta = new YahooFinanceResponse.Meta();
+        meta.setRegularMarketPrice(price);
+        YahooFinanceResponse.Result result = new YahooFinanceResponse.Result();
+        result.setMeta(meta);
+        YahooFinanceResponse.Chart chart = new YahooFinanceResponse.Chart();
+        chart.setResult(List.of(result));
+        YahooFinanceResponse response = new YahooFinanceResponse();
+        response.setChart(chart);
+        return response;
+    }
+
+    private static EtfPriceResponse price(String ticker, String amount, String currency) {
+        return new EtfPriceResponse(ticker, new BigDecimal(amount), currency, LocalDateTime.now(), "test");
+    }
+
+    @Test
+    public void convertsCrossRatesThroughTheEuro() {
+        assertEquals(0, new BigDecimal("100.0000").compareTo(service.convert(new BigDecimal("125"), "USD", "EUR")));
+        assertEquals(0, new BigDecimal("64.0000").compareTo(service.convert(new BigDecimal("100"), "USD", "GBP")));
+    }
+
+    @Test
+    public void cachedConversionNeverCallsTheProvider() {
+        assertNull(service.convertCached(new BigDecimal("125"), "USD", "EUR"));
+        verify(priceProvider, Mockito.never()).fetchPrice(anyString(), anyString(), any());
+
+        service.convert(BigDecimal.ONE, "USD", "EUR");
+        BigDecimal converted = service.convertCached(new BigDecimal("125"), "USD", "EUR");
+        assertEquals(0, new BigDecimal("100.0000").compareTo(converted));
+        verify(priceProvider, times(1)).fetchPrice(Mockito.eq("EURUSD=X"), anyString(), any());
+    }
+
+    @Test
+    public void bulkConversionHandlesPenceAndFetchesEachCurrencyOnce() {
+        List<EtfPriceResponse> converted = service.toBaseCurrency(List.of(
+                price("SPY", "500", "USD"),
+                price("QQQ", "400", "USD"),
+                price("VUSA", "8000", "GBp"),
+                price("VWCE", "110", "EUR")), "EUR");
+
+        assertEquals(0, new BigDecimal("400.0000").compareTo(converted.get(0).getPriceInBaseCurrency()));
+        assertEquals(0, new BigDecimal("320.0000").compareTo(converted.get(1).getPriceInBaseCurrency()));
+        assertEquals(0, new BigDecimal("100.0000").compareTo(converted.get(2).getPriceInBaseCurrency()));
+        assertEquals(0, new BigDecimal("110.0000").compareTo(converted.get(3).getPriceInBaseCurrency()));
+        assertEquals("EUR", converted.get(0).getBaseCurrency());
+        verify(priceProvider, times(1)).fetchPrice(Mockito.eq("EURUSD=X"), anyString(), any());
+        verify(priceProvider, times(1)).fetchPrice(Mockito.eq("EURGBP=X"), anyString(), any());
+    }
+
+    @Test
+    public void leavesConvertedFieldsEmptyWhenRateIsUnavailable() {
+        when(priceProvider.fetchPrice(Mockito.eq("EURJPY=X"), anyString(), any()))
+                .thenThrow(new RuntimeException("offline"));
+
+        EtfPriceResponse converted = service.toBaseCurrency(price("1306", "2500", "JPY"), "EUR");
+
+        assertNull(converted.getPriceInBaseCurrency());
+        assertNull(converted.getFxRate());
+        assertEquals(0, new BigDecimal("2500").compareTo(converted.getPrice()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.HoldingPosition;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfTransaction;
+import com.example.investmenttracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoldingsLedgerTest {
+
+    @Test
+    public void positionsFollowTheLedgerOverTime() {
+        Etf etf = new Etf();
+        etf.setId(1L);
+        etf.setTicker("VWCE");
+        // Added out of order on purpose
+        etf.addTransaction(transaction(3L, LocalDate.of(2024, 6, 1), TransactionType.SELL, "5", "0", "1"));
+        etf.addTransaction(transaction(1L, LocalDate.of(2024, 1, 10), TransactionType.BUY, "10", "1000", "2"));
+        etf.addTransaction(transaction(2L, LocalDate.of(2024, 3, 1), TransactionType.BUY, "10", "1200", "2"));
+        HoldingsLedger ledger = HoldingsLedger.build(List.of(etf));
+
+        assertTrue(ledger.positionsAt(LocalDate.of(2024, 1, 9)).isEmpty());
+
+        HoldingPosition first = ledger.positionsAt(LocalDate.of(2024, 1, 10)).get(0);
+        assertEquals(0, new BigDecimal("10").compareTo(first.getUnits()));
+        assertEquals(0, new BigDecimal("1000").compareTo(first.getCostBasis()));
+
+        HoldingPosition both = ledger.positionsAt(LocalDate.of(2024, 5, 31)).get(0);
+        assertEquals(0, new BigDecimal("20").compareTo(both.getUnits()));
+        assertEquals(0, new BigDecimal("2200").compareTo(both.getCostBasis()));
+        assertEquals(0, new BigDecimal("4").compareTo(both.getFees()));
+
+        // Selling a quarter keeps three quarters of cost and fees
+        HoldingPosition afterSell = ledger.positionsAt(LocalDate.of(2030, 1, 1)).get(0);
+        assertEquals(0, new BigDecimal("15").compareTo(afterSell.getUnits()));
+        assertEquals(0, new BigDecimal("1650").compareTo(afterSell.getCostBasis()));
+        assertEquals(0, new BigDecimal("3").compareTo(afterSell.getFees()));
+    }
+
+    @Test
+    public void fullySoldPositionIsLeftOut() {
+        Etf etf = new Etf();
+        etf.setId(1L);
+        etf.setTicker("EQQQ");
+        etf.addTransaction(transaction(1L, LocalDate.of(2024, 1, 10), TransactionType.BUY, "4", "400", "1"));
+        etf.addTransaction(transaction(2L, LocalDate.of(2024, 2, 10), TransactionType.SELL, "4", "0", "1"));
+        HoldingsLedger ledger = HoldingsLedger.build(List.of(etf));
+
+        assertEquals(1, ledger.positionsAt(LocalDate.of(2024, 2, 9)).size());
+        assertTrue(ledger.positionsAt(LocalDate.of(2024, 2, 10)).isEmpty());
+    }
+
+    private static EtfTransaction transaction(Long id, LocalDate date, TransactionType type, String units,
+            String cost, String fees) {
+        EtfTransaction transaction = new EtfTransaction(null, date, type, new BigDecimal(units),
+                new BigDecimal(cost), new BigDecimal(fees));
+        transaction.setId(id);
+        return transaction;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.model.TriggerAction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class PortfolioSnapshotListenerTest {
+
+    private PortfolioSnapshotService snapshotService;
+    private PlatformTransactionManager transactionManager;
+    private PortfolioSnapshotListener listener;
+
+    @BeforeEach
+    public void setup() {
+        snapshotService = Mockito.mock(PortfolioSnapshotService.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        listener = new PortfolioSnapshotListener(snapshotService, transactionManager, new SimpleMeterRegistry(),
+                10, 100, 5000, 5);
+        listener.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    public void burstOfChangesCreatesOneSnapshot() {
+        listener.onPortfolioChanged(new PortfolioChangedEvent("a@example.com", TriggerAction.TRANSACTION_ADDED, "VWCE: BUY 1"));
+        listener.onPortfolioChanged(new PortfolioChangedEvent("a@example.com", TriggerAction.TRANSACTION_ADDED, "VWCE: BUY 2"));
+        listener.onPortfolioChanged(new PortfolioChangedEvent("a@example.com", TriggerAction.ETF_UPDATED, "VWCE (All World)"));
+
+        ArgumentCaptor<String> details = ArgumentCaptor.forClass(String.class);
+        verify(snapshotService, timeout(2000)).createSnapshot(eq("a@example.com"),
+                eq(TriggerAction.MULTIPLE_CHANGES), details.capture());
+        assertEquals(3, details.getValue().lines().count());
+        assertTrue(details.getValue().contains("ETF Updated: VWCE (All World)"));
+    }
+
+    @Test
+    public void usersAreDebouncedSeparately() {
+        listener.onPortfolioChanged(new PortfolioChangedEvent("a@example.com", TriggerAction.ASSET_CREATED, "Gold: 5.0%"));
+        listener.onPortfolioChanged(new PortfolioChangedEvent("b@example.com", TriggerAction.ASSET_CREATED, "Cash: 10.0%"));
+
+        verify(snapshotService, timeout(2000)).createSnapshot("a@example.com", TriggerAction.ASSET_CREATED, "Gold: 5.0%");
+        verify(snapshotService, timeout(2000)).createSnapshot("b@example.com", TriggerAction.ASSET_CREATED, "Cash: 10.0%");
+    }
+
+    @Test
+    public void stopFlushesPendingChanges() {
+        listener.onPortfolioChanged(new PortfolioChangedEvent("a@example.com", TriggerAction.ETF_CREATED, "VWCE"));
+        listener.stop();
+
+        verify(snapshotService, times(1)).createSnapshot(anyString(), any(), anyString());
+    }
+
+    @Test
+    public void changesAfterStopAreBuiltRightAway() {
+        listener.stop();
+        listener.onPortfolioChanged(new PortfolioChangedEvent("a@example.com", TriggerAction.ETF_CREATED, "VWCE"));
+
+        verify(snapshotService, times(1)).createSnapshot("a@example.com", TriggerAction.ETF_CREATED, "VWCE");
+    }
+
+    @Test
+    public void fullQueueBuildsInlineInANewTransaction() throws Exception {
+        listener.stop();
+        listener = new PortfolioSnapshotListener(snapshotService, transactionManager, new SimpleMeterRegistry(),
+                1, 0, 0, 5);
+        listener.start();
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            building.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(snapshotService).createSnapshot(eq("a@example.com"), any(), anyString());
+
+        listener.onPortfolioChanged(new PortfolioChangedEvent("a@example.com", TriggerAction.ETF_CREATED, "VWCE"));
+        assertTrue(building.await(2, TimeUnit.SECONDS));
+        listener.onPortfolioChanged(new PortfolioChangedEvent("b@example.com", TriggerAction.ETF_CREATED, "EUNL"));
+        listener.onPortfolioChanged(new PortfolioChangedEvent("c@example.com", TriggerAction.ETF_CREATED, "IWDA"));
+
+        // The worker is busy and the queue holds b, so c was built on this thread
+        verify(snapshotService).createSnapshot("c@example.com", TriggerAction.ETF_CREATED, "IWDA");
+        verify(snapshotService, never()).createSnapshot(eq("b@example.com"), any(), anyString());
+        verify(transactionManager, Mockito.atLeastOnce()).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        release.countDown();
+    }
+}
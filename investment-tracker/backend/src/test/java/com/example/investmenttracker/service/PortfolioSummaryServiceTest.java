@@ -0,0 +1,71 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import com.example.investmenttracker.dto.HoldingPosition;
+import com.example.investmenttracker.dto.PortfolioSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PortfolioSummaryServiceTest {
+
+    private static final String EMAIL = "test@example.com";
+
+    private EtfPositionProjection positionProjection;
+    private EtfPriceService etfPriceService;
+    private PortfolioSummaryService service;
+
+    @BeforeEach
+    public void setup() {
+        positionProjection = Mockito.mock(EtfPositionProjection.class);
+        etfPriceService = Mockito.mock(EtfPriceService.class);
+        FxRateService fxRateService = Mockito.mock(FxRateService.class);
+        UserService userService = Mockito.mock(UserService.class);
+        when(userService.getBaseCurrency(EMAIL)).thenReturn("EUR");
+        when(fxRateService.toBaseCurrency(anyCollection(), eq("EUR")))
+                .thenAnswer(invocation -> new ArrayList<>((Collection<EtfPriceResponse>) invocation.getArgument(0)));
+        service = new PortfolioSummaryService(positionProjection, etfPriceService, fxRateService, userService);
+    }
+
+    @Test
+    public void summaryUsesStoredPricesAndTotalsPricedPositions() {
+        when(positionProjection.positionsFor(EMAIL)).thenReturn(List.of(
+                new HoldingPosition(1L, "VWCE", "All-World", new BigDecimal("10"), new BigDecimal("1000"),
+                        new BigDecimal("5"), 2),
+                new HoldingPosition(2L, "EUNL", "Core MSCI World", new BigDecimal("4"), new BigDecimal("300"),
+                        BigDecimal.ZERO, 1)));
+        when(etfPriceService.getStoredPrices(anyCollection())).thenReturn(List.of(
+                new EtfPriceResponse("VWCE", new BigDecimal("110.5"), "EUR", LocalDateTime.now(), "test")));
+        when(etfPriceService.getPrice("EUNL")).thenThrow(new RuntimeException("provider down"));
+
+        PortfolioSummary summary = service.getSummary(EMAIL);
+
+        assertEquals("EUR", summary.getBaseCurrency());
+        assertEquals(2, summary.getEtfs().size());
+        PortfolioSummary.EtfSummary vwce = summary.getEtfs().get(0);
+        assertEquals(new BigDecimal("1005.00"), vwce.getTotalInvestment());
+        assertEquals(new BigDecimal("1105.00"), vwce.getCurrentValue());
+        assertEquals(new BigDecimal("100.00"), vwce.getGain());
+        assertEquals(new BigDecimal("9.95"), vwce.getGainPercentage());
+        assertNull(summary.getEtfs().get(1).getCurrentValue());
+
+        assertEquals(new BigDecimal("1305.00"), summary.getTotalInvestment());
+        assertEquals(new BigDecimal("1105.00"), summary.getCurrentValue());
+        assertEquals(new BigDecimal("100.00"), summary.getGain());
+        assertEquals(new BigDecimal("7.66"), summary.getGainPercentage());
+        verify(etfPriceService, never()).getPrice("VWCE");
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import com.example.investmenttracker.dto.PortfolioTimeseries;
+import com.example.investmenttracker.exception.ValidationException;
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.EtfPriceHistory;
+import com.example.investmenttracker.model.EtfTransaction;
+import com.example.investmenttracker.model.TransactionType;
+import com.example.investmenttracker.persistence.EtfPriceHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PortfolioTimeseriesServiceTest {
+
+    private static final String EMAIL = "test@example.com";
+
+    private final LocalDate today = LocalDate.now();
+    private final List<EtfPriceHistory> closes = new ArrayList<>();
+    private EtfService etfService;
+    private EtfPriceHistoryRepository historyRepository;
+    private PortfolioTimeseriesService service;
+    private Etf etf;
+
+    @BeforeEach
+    public void setup() {
+        etfService = Mockito.mock(EtfService.class);
+        historyRepository = Mockito.mock(EtfPriceHistoryRepository.class);
+        EtfPriceService etfPriceService = Mockito.mock(EtfPriceService.class);
+        FxRateService fxRateService = Mockito.mock(FxRateService.class);
+        UserService userService = Mockito.mock(UserService.class);
+        when(userService.getBaseCurrency(EMAIL)).thenReturn("EUR");
+        when(fxRateService.rate("EUR", "EUR")).thenReturn(BigDecimal.ONE);
+        when(fxRateService.toBaseCurrency(anyCollection(), eq("EUR"))).thenAnswer(invocation -> {
+            List<EtfPriceResponse> converted = new ArrayList<>();
+            for (EtfPriceResponse price : (Collection<EtfPriceResponse>) invocation.getArgument(0)) {
+                EtfPriceResponse copy = new EtfPriceResponse(price);
+                copy.setPriceInBaseCurrency(price.getPrice());
+                converted.add(copy);
+            }
+            return converted;
+        });
+        when(etfPriceService.getStoredPrices(anyCollection())).thenReturn(List.of(
+                new EtfPriceResponse("VWCE", new BigDecimal("112"), "EUR", LocalDateTime.now(), "test")));
+        when(historyRepository.findByTickerInAndPriceDateBetweenOrderByPriceDateAsc(anyCollection(), any(), any()))
+                .thenAnswer(invocation -> closes.stream()
+                        .filter(bar -> !bar.getPriceDate().isBefore(invocation.getArgument(1))
+                                && !bar.getPriceDate().isAfter(invocation.getArgument(2)))
+                        .toList());
+        when(historyRepository.findFirstByTickerAndPriceDateLessThanEqualOrderByPriceDateDesc(anyString(), any()))
+                .thenAnswer(invocation -> closes.stream()
+                        .filter(bar -> !bar.getPriceDate().isAfter(invocation.getArgument(1)))
+                        .reduce((first, second) -> second));
+
+        etf = new Etf();
+        etf.setId(1L);
+        etf.setTicker("VWCE");
+        etf.setTransactions(new ArrayList<>(List.of(new EtfTransaction(etf, today.minusDays(4), TransactionType.BUY,
+                new BigDecimal("10"), new BigDecimal("1000"), new BigDecimal("5")))));
+        when(etfService.getAllEtfs(EMAIL)).thenReturn(List.of(etf));
+        closes.add(new EtfPriceHistory("VWCE", today.minusDays(3), new BigDecimal("105"), "EUR"));
+        closes.add(new EtfPriceHistory("VWCE", today.minusDays(1), new BigDecimal("110"), "EUR"));
+
+        service = new PortfolioTimeseriesService(etfService, userService, etfPriceService, fxRateService,
+                historyRepository);
+    }
+
+    @Test
+    public void sweepCarriesPricesForwardAndRecomputesFromTheChangedDate() {
+        PortfolioTimeseries series = service.getTimeseries(EMAIL, today.minusDays(5), null);
+
+        assertEquals(6, series.getPoints().size());
+        assertPoint(series.getPoints().get(0), "0.00", "0.00");
+        assertPoint(series.getPoints().get(1), "1000.00", "1005.00");
+        assertPoint(series.getPoints().get(2), "1050.00", "1005.00");
+        assertPoint(series.getPoints().get(3), "1050.00", "1005.00");
+        assertPoint(series.getPoints().get(4), "1100.00", "1005.00");
+        assertPoint(series.getPoints().get(5), "1120.00", "1005.00");
+        assertEquals(new BigDecimal("115.00"), series.getPoints().get(5).getGain());
+        assertSame(series, service.getTimeseries(EMAIL, today.minusDays(5), today));
+
+        etf.getTransactions().add(new EtfTransaction(etf, today.minusDays(2), TransactionType.SELL,
+                new BigDecimal("5"), new BigDecimal("530"), BigDecimal.ZERO));
+        service.onTransactionChanged(new TransactionChangedEvent(EMAIL, "VWCE", today.minusDays(2)));
+        PortfolioTimeseries updated = service.getTimeseries(EMAIL, today.minusDays(5), null);
+
+        assertSame(series.getPoints().get(2), updated.getPoints().get(2));
+        assertPoint(updated.getPoints().get(3), "530.00", "475.00");
+        assertPoint(updated.getPoints().get(4), "550.00", "475.00");
+        assertPoint(updated.getPoints().get(5), "560.00", "475.00");
+        verify(historyRepository).findByTickerInAndPriceDateBetweenOrderByPriceDateAsc(anyCollection(),
+                eq(today.minusDays(2)), eq(today));
+        verify(etfService, times(2)).getAllEtfs(EMAIL);
+    }
+
+    @Test
+    public void rejectsRangeStartingAfterItsEnd() {
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> service.getTimeseries(EMAIL, today.minusDays(1), today.minusDays(2)));
+        assertEquals("portfolio.timeseries.invalid.range", e.getCode());
+    }
+
+    private static void assertPoint(PortfolioTimeseries.Point point, String marketValue, String invested) {
+        assertEquals(new BigDecimal(marketValue), point.getMarketValue());
+        assertEquals(new BigDecimal(invested), point.getInvested());
+    }
+}
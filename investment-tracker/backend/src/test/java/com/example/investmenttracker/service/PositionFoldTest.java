@@ -0,0 +1,73 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.model.EtfTransaction;
+import com.example.investmenttracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionFoldTest {
+
+    @Test
+    public void salesTakeCostAndFeesOffAtTheAverage() {
+        PositionFold fold = PositionFold.of(List.of(
+                transaction(3L, LocalDate.of(2024, 6, 1), TransactionType.SELL, "5", "2000", "1"),
+                transaction(1L, LocalDate.of(2024, 1, 10), TransactionType.BUY, "10", "1000", "2"),
+                transaction(2L, LocalDate.of(2024, 3, 1), TransactionType.BUY, "10", "1200", "2")));
+
+        assertEquals(0, new BigDecimal("15").compareTo(fold.units()));
+        assertEquals(0, new BigDecimal("1650").compareTo(fold.cost()));
+        assertEquals(0, new BigDecimal("3").compareTo(fold.fees()));
+        assertEquals(0, new BigDecimal("110.2").compareTo(fold.averageCost()));
+        assertEquals(3, fold.transactions());
+    }
+
+    @Test
+    public void sameDayTransactionsFoldInEntryOrder() {
+        LocalDate day = LocalDate.of(2024, 1, 10);
+        // Sold first, the sale would find nothing to sell
+        PositionFold fold = PositionFold.of(List.of(
+                transaction(2L, day, TransactionType.SELL, "4", "440", "1"),
+                transaction(1L, day, TransactionType.BUY, "10", "1000", "2")));
+
+        assertEquals(0, new BigDecimal("6").compareTo(fold.units()));
+    }
+
+    @Test
+    public void overSellingEmptiesThePositionAndInvalidRowsAreSkipped() {
+        EtfTransaction undated = transaction(3L, LocalDate.of(2024, 1, 1), TransactionType.BUY, "10", "1000", "0");
+        undated.setTransactionDate(null);
+        EtfTransaction empty = transaction(4L, LocalDate.of(2024, 1, 1), TransactionType.BUY, "0", "0", "1");
+        PositionFold fold = PositionFold.of(List.of(undated, empty,
+                transaction(1L, LocalDate.of(2024, 1, 10), TransactionType.BUY, "4", "400", "1"),
+                transaction(2L, LocalDate.of(2024, 2, 10), TransactionType.SELL, "5", "500", "1")));
+
+        assertEquals(0, fold.units().signum());
+        assertEquals(0, fold.cost().signum());
+        assertNull(fold.averageCost());
+        assertEquals(2, fold.transactions());
+    }
+
+    @Test
+    public void feesAddToBuysAndComeOffSales() {
+        EtfTransaction buy = transaction(1L, LocalDate.of(2024, 1, 10), TransactionType.BUY, "10", "1000", "2");
+        EtfTransaction sale = transaction(2L, LocalDate.of(2024, 2, 10), TransactionType.SELL, "5", "600", "1");
+
+        assertEquals(0, new BigDecimal("1002").compareTo(PositionFold.paid(buy)));
+        assertEquals(0, new BigDecimal("599").compareTo(PositionFold.proceeds(sale)));
+        assertEquals(0, new BigDecimal("1002").compareTo(PositionFold.invested(buy)));
+        assertEquals(0, new BigDecimal("-599").compareTo(PositionFold.invested(sale)));
+    }
+
+    private static EtfTransaction transaction(Long id, LocalDate date, TransactionType type, String units,
+            String cost, String fees) {
+        EtfTransaction transaction = new EtfTransaction(null, date, type, new BigDecimal(units),
+                new BigDecimal(cost), new BigDecimal(fees));
+        transaction.setId(id);
+        return transaction;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.model.AlertDirection;
+import com.example.investmenttracker.model.AlertMetric;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceAlertIndexTest {
+
+    private PriceAlertIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new PriceAlertIndex();
+        index.add(entry(1, AlertMetric.PRICE, AlertDirection.ABOVE, 100));
+        index.add(entry(2, AlertMetric.PRICE, AlertDirection.ABOVE, 110));
+        index.add(entry(3, AlertMetric.PRICE, AlertDirection.BELOW, 90));
+        index.add(entry(4, AlertMetric.DAILY_CHANGE_PERCENT, AlertDirection.BELOW, -2));
+    }
+
+    private static PriceAlertIndex.Entry entry(long id, AlertMetric metric, AlertDirection direction, double level) {
+        return new PriceAlertIndex.Entry(id, "user@example.com", "VWCE", metric, direction,
+                BigDecimal.valueOf(level), level);
+    }
+
+    private static List<Long> ids(List<PriceAlertIndex.Entry> entries) {
+        return entries.stream().map(PriceAlertIndex.Entry::alertId).sorted().toList();
+    }
+
+    @Test
+    public void firesOnlyCrossedThresholdsOnce() {
+        assertTrue(index.evaluate("VWCE", 95, Double.NaN).isEmpty());
+        assertEquals(List.of(1L), ids(index.evaluate("vwce", 105, Double.NaN)));
+        assertTrue(index.evaluate("VWCE", 105, Double.NaN).isEmpty());
+        assertEquals(List.of(2L), ids(index.evaluate("VWCE", 120, Double.NaN)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void evaluatesBelowAndDailyChange() {
+        assertEquals(List.of(3L, 4L), ids(index.evaluate("VWCE", 85, -3.5)));
+        assertTrue(index.evaluate("OTHER", 85, -3.5).isEmpty());
+    }
+
+    @Test
+    public void removeAndReindexReplacesLevel() {
+        index.remove("VWCE", 1);
+        index.add(entry(2, AlertMetric.PRICE, AlertDirection.ABOVE, 101));
+        assertEquals(List.of(2L), ids(index.evaluate("VWCE", 105, Double.NaN)));
+    }
+
+    @Test
+    public void removeAllKeepsOtherUsersAndMetrics() {
+        index.add(new PriceAlertIndex.Entry(5, "user@example.com", "VWCE", AlertMetric.COST_BASIS_CHANGE_PERCENT,
+                AlertDirection.ABOVE, BigDecimal.TEN, 100));
+        index.add(new PriceAlertIndex.Entry(6, "other@example.com", "VWCE", AlertMetric.COST_BASIS_CHANGE_PERCENT,
+                AlertDirection.ABOVE, BigDecimal.TEN, 100));
+
+        index.removeAll("vwce", AlertMetric.COST_BASIS_CHANGE_PERCENT, "user@example.com");
+
+        assertEquals(List.of(1L, 6L), ids(index.evaluate("VWCE", 105, Double.NaN)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.config.YahooFinanceProperties;
+import com.example.investmenttracker.exception.PriceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceFetchGuardTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry registry;
+    private PriceFetchGuard guard;
+
+    @BeforeEach
+    public void setup() {
+        YahooFinanceProperties properties = new YahooFinanceProperties();
+        properties.setFailureBackoffInitialSeconds(10);
+        properties.setFailureBackoffMaxSeconds(60);
+        properties.setCircuitBreakerFailureThreshold(3);
+        properties.setCircuitBreakerOpenSeconds(30);
+        registry = new SimpleMeterRegistry();
+        guard = new PriceFetchGuard(properties, registry, clock::get);
+    }
+
+    private void advance(int seconds) {
+        clock.addAndGet(Duration.ofSeconds(seconds).toNanos());
+    }
+
+    private static RuntimeException serverError() {
+        return new RuntimeException("wrapped",
+                WebClientResponseException.create(HttpStatus.BAD_GATEWAY.value(), "Bad Gateway", null, null, null));
+    }
+
+    @Test
+    public void failingTickerIsBackedOffExponentially() {
+        AtomicInteger calls = new AtomicInteger();
+        Runnable failing = () -> assertThrows(RuntimeException.class, () -> guard.execute("nope", () -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("No price data available");
+        }));
+
+        failing.run();
+        assertThrows(PriceUnavailableException.class, () -> guard.execute("NOPE", () -> "x"));
+        assertEquals(1, calls.get());
+
+        advance(10);
+        failing.run();
+        advance(10);
+        // Second failure doubles the backoff to 20s
+        assertThrows(PriceUnavailableException.class, () -> guard.execute("NOPE", () -> "x"));
+        advance(10);
+        assertEquals("ok", guard.execute("NOPE", () -> "ok"));
+        assertEquals(PriceFetchGuard.State.CLOSED, guard.getState());
+        assertEquals(2.0, registry.get("yahoo.finance.rejections").tag("reason", "ticker_backoff").counter().count());
+    }
+
+    @Test
+    public void circuitOpensAfterConsecutiveUpstreamFailuresAndClosesAfterTrial() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RuntimeException.class, () -> guard.execute("AAA", () -> {
+                throw serverError();
+            }));
+        }
+        assertEquals(PriceFetchGuard.State.OPEN, guard.getState());
+        assertThrows(PriceUnavailableException.class, () -> guard.execute("BBB", () -> "x"));
+
+        advance(30);
+        assertEquals("ok", guard.execute("BBB", () -> "ok"));
+        assertEquals(PriceFetchGuard.State.CLOSED, guard.getState());
+        assertEquals(1.0, registry.get("yahoo.finance.circuit.transitions").tag("state", "HALF_OPEN").counter().count());
+        assertEquals(1.0, registry.get("yahoo.finance.rejections").tag("reason", "circuit_open").counter().count());
+    }
+
+    @Test
+    public void failedTrialReopensCircuit() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RuntimeException.class, () -> guard.execute("AAA", () -> {
+                throw serverError();
+            }));
+        }
+        advance(30);
+        assertThrows(RuntimeException.class, () -> guard.execute("AAA", () -> {
+            throw serverError();
+        }));
+        assertEquals(PriceFetchGuard.State.OPEN, guard.getState());
+        assertThrows(PriceUnavailableException.class, () -> guard.execute("CCC", () -> "x"));
+    }
+}
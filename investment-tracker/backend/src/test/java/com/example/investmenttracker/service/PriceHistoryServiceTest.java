@@ -0,0 +1,155 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.config.YahooFinanceProperties;
+import com.example.investmenttracker.dto.YahooChartDecoder;
+import com.example.investmenttracker.dto.YahooFinanceResponse;
+import com.example.investmenttracker.model.EtfPriceHistory;
+import com.example.investmenttracker.persistence.EtfPriceHistoryRepository;
+import com.example.investmenttracker.persistence.EtfRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PriceHistoryServiceTest {
+
+    private static final String TICKER = "VWCE";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    private final List<EtfPriceHistory> saved = new ArrayList<>();
+    private EtfPriceHistoryRepository historyRepository;
+    private PriceProvider priceProvider;
+    private ApplicationEventPublisher eventPublisher;
+    private YahooFinanceProperties properties;
+    private PriceHistoryService service;
+
+    @BeforeEach
+    public void setup() {
+        historyRepository = Mockito.mock(EtfPriceHistoryRepository.class);
+        priceProvider = Mockito.mock(PriceProvider.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        properties = new YahooFinanceProperties();
+        when(historyRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<EtfPriceHistory> bars = invocation.getArgument(0);
+            bars.forEach(saved::add);
+            return saved;
+        });
+        service = new PriceHistoryService(historyRepository, Mockito.mock(EtfRepository.class), priceProvider,
+                properties, eventPublisher);
+    }
+
+    @Test
+    public void rangeStartFollowsYahooRanges() {
+        LocalDate day = LocalDate.of(2024, 5, 15);
+
+        assertEquals(LocalDate.of(2024, 1, 1), PriceHistoryService.rangeStart("ytd", day));
+        assertEquals(LocalDate.of(2024, 5, 10), PriceHistoryService.rangeStart("5d", day));
+        assertEquals(LocalDate.of(2024, 5, 1), PriceHistoryService.rangeStart("2wk", day));
+        assertEquals(LocalDate.of(2023, 11, 15), PriceHistoryService.rangeStart("6mo", day));
+        assertEquals(LocalDate.of(2014, 5, 15), PriceHistoryService.rangeStart("10Y", day));
+        assertNull(PriceHistoryService.rangeStart("max", day));
+        assertNull(PriceHistoryService.rangeStart("1h", day));
+        assertNull(PriceHistoryService.rangeStart(null, day));
+    }
+
+    @Test
+    public void firstRunRequestsTheConfiguredRangeAndKeepsOneCloseADay() throws IOException {
+        properties.getHistoryRanges().put(TICKER, "1y");
+        properties.getHistoryIntervals().put(TICKER, "1wk");
+        LocalDate first = today.minusDays(3);
+        LocalDate second = today.minusDays(2);
+        when(priceProvider.fetchHistory(TICKER, "1y", "1wk", RequestPriority.BULK)).thenReturn(chart(
+                new long[] { at(first, 16), at(second, 10), at(second, 16), at(today.minusDays(1), 16) },
+                "110.12345", "111", "111.5", "null"));
+
+        assertEquals(2, service.ingest(TICKER));
+
+        assertEquals(List.of(first, second), saved.stream().map(EtfPriceHistory::getPriceDate).toList());
+        assertEquals(0, new BigDecimal("110.1235").compareTo(saved.get(0).getClosePrice()));
+        // The last bar of a day wins
+        assertEquals(0, new BigDecimal("111.5").compareTo(saved.get(1).getClosePrice()));
+        assertEquals("USD", saved.get(1).getCurrency());
+        verify(eventPublisher).publishEvent(new PriceChangedEvent(TICKER, first));
+    }
+
+    @Test
+    public void laterRunsBackfillAWidenedRangeAndRefetchTheLastDate() throws IOException {
+        properties.setHistoryRange("1y");
+        LocalDate first = today.minusMonths(1);
+        LocalDate last = today.minusDays(2);
+        when(historyRepository.findFirstPriceDate(TICKER)).thenReturn(Optional.of(first));
+        when(historyRepository.findLastPriceDate(TICKER)).thenReturn(Optional.of(last));
+        when(priceProvider.fetchHistory(eq(TICKER), any(Instant.class), any(Instant.class), eq("1d"),
+                eq(RequestPriority.BULK))).thenReturn(chart(new long[0]));
+        // The stored bar of the last date was captured intraday
+        EtfPriceHistory intraday = new EtfPriceHistory(TICKER, last, new BigDecimal("100"), "USD");
+        when(historyRepository.findByTickerAndPriceDateBetweenOrderByPriceDateAsc(TICKER, last, last))
+                .thenReturn(List.of(intraday));
+        when(priceProvider.fetchHistory(eq(TICKER), eq(startOfDay(last)), any(Instant.class), eq("1d"),
+                eq(RequestPriority.BULK))).thenReturn(chart(new long[] { at(last, 16) }, "101"));
+
+        assertEquals(1, service.ingest(TICKER));
+
+        verify(priceProvider).fetchHistory(TICKER, startOfDay(today.minusYears(1)), startOfDay(first), "1d",
+                RequestPriority.BULK);
+        assertEquals(List.of(intraday), saved);
+        assertEquals(0, new BigDecimal("101").compareTo(intraday.getClosePrice()));
+    }
+
+    @Test
+    public void upToDateHistoryWithinTheToleranceRequestsNothing() {
+        properties.setHistoryRange("1mo");
+        // Ranges rarely start on a trading day
+        when(historyRepository.findFirstPriceDate(TICKER)).thenReturn(Optional.of(today.minusMonths(1).plusDays(3)));
+        when(historyRepository.findLastPriceDate(TICKER)).thenReturn(Optional.of(today));
+
+        assertEquals(0, service.ingest(TICKER));
+
+        verify(priceProvider, never()).fetchHistory(anyString(), any(Instant.class), any(Instant.class),
+                anyString(), any());
+        verify(priceProvider, never()).fetchHistory(anyString(), anyString(), anyString(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private YahooFinanceResponse chart(long[] timestamps, String... closes) throws IOException {
+        StringBuilder stamps = new StringBuilder();
+        for (long timestamp : timestamps) {
+            stamps.append(stamps.isEmpty() ? "" : ",").append(timestamp);
+        }
+        String json = "{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"USD\",\"gmtoffset\":0},"
+                + "\"timestamp\":[" + stamps + "],"
+                + "\"indicators\":{\"quote\":[{\"close\":[" + String.join(",", closes) + "]}]}}],"
+                + "\"error\":null}}";
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return YahooChartDecoder.decode(parser, true);
+        }
+    }
+
+    private static long at(LocalDate date, int hour) {
+        return date.atTime(hour, 0).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static Instant startOfDay(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.EtfPriceResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceUpdatePublisherTest {
+
+    private final Sinks.Many<Long> ticks = Sinks.many().multicast().directBestEffort();
+    private final AtomicInteger tickSubscriptions = new AtomicInteger();
+    private final List<Disposable> subscriptions = new ArrayList<>();
+    private PriceUpdatePublisher publisher;
+
+    @BeforeEach
+    public void setup() {
+        publisher = new PriceUpdatePublisher(ticks.asFlux().doOnSubscribe(s -> tickSubscriptions.incrementAndGet()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+    }
+
+    @Test
+    public void pricesOnlyReachSubscribersOfTheirTicker() {
+        List<ServerSentEvent<EtfPriceResponse>> vwce = subscribe(List.of("vwce"), UnaryOperator.identity());
+        List<ServerSentEvent<EtfPriceResponse>> both = subscribe(List.of("VWCE", "EUNL"), UnaryOperator.identity());
+        assertEquals(2, publisher.getSubscriberCount("VWCE"));
+        assertEquals(1, publisher.getSubscriberCount("eunl"));
+        assertEquals(0, publisher.getSubscriberCount("IWDA"));
+
+        publisher.publish(price("VWCE", "110.5"));
+        publisher.publish(price("EUNL", "80"));
+        publisher.publish(price("IWDA", "90"));
+
+        assertEquals(List.of("VWCE"), tickers(vwce));
+        assertEquals(List.of("VWCE", "EUNL"), tickers(both));
+        assertEquals("price", vwce.get(0).event());
+        assertNull(vwce.get(0).id());
+    }
+
+    @Test
+    public void eachSubscriberSeesItsOwnView() {
+        List<ServerSentEvent<EtfPriceResponse>> euro = subscribe(List.of("VWCE"), UnaryOperator.identity());
+        List<ServerSentEvent<EtfPriceResponse>> dollar = subscribe(List.of("VWCE"), price -> {
+            EtfPriceResponse copy = new EtfPriceResponse(price);
+            copy.setBaseCurrency("USD");
+            return copy;
+        });
+
+        publisher.publish(price("VWCE", "110.5"));
+
+        assertNull(euro.get(0).data().getBaseCurrency());
+        assertEquals("USD", dollar.get(0).data().getBaseCurrency());
+    }
+
+    @Test
+    public void heartbeatIsSharedByAllSubscribers() {
+        List<ServerSentEvent<EtfPriceResponse>> first = subscribe(List.of("VWCE"), UnaryOperator.identity());
+        List<ServerSentEvent<EtfPriceResponse>> second = subscribe(List.of("EUNL"), UnaryOperator.identity());
+
+        ticks.tryEmitNext(0L);
+
+        assertEquals(1, tickSubscriptions.get());
+        assertEquals(1, first.size());
+        assertEquals("keepalive", first.get(0).comment());
+        assertEquals("keepalive", second.get(0).comment());
+    }
+
+    @Test
+    public void tickerSinkIsRemovedWithItsLastSubscriber() {
+        subscribe(List.of("VWCE", "MADEUP"), UnaryOperator.identity());
+        subscribe(List.of("VWCE"), UnaryOperator.identity());
+        assertEquals(2, publisher.getTickerCount());
+
+        subscriptions.remove(0).dispose();
+        assertEquals(1, publisher.getTickerCount());
+        assertEquals(1, publisher.getSubscriberCount("VWCE"));
+
+        subscriptions.remove(0).dispose();
+        assertEquals(0, publisher.getTickerCount());
+    }
+
+    @Test
+    public void pricesArePublishedAfterCommit() {
+        List<ServerSentEvent<EtfPriceResponse>> events = subscribe(List.of("VWCE"), UnaryOperator.identity());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publish(price("VWCE", "110.5"));
+            assertTrue(events.isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of("VWCE"), tickers(events));
+    }
+
+    private List<ServerSentEvent<EtfPriceResponse>> subscribe(List<String> tickers,
+            UnaryOperator<EtfPriceResponse> view) {
+        List<ServerSentEvent<EtfPriceResponse>> events = new ArrayList<>();
+        subscriptions.add(publisher.subscribe(tickers, view).subscribe(events::add));
+        return events;
+    }
+
+    private static List<String> tickers(List<ServerSentEvent<EtfPriceResponse>> events) {
+        return events.stream().map(event -> event.data().getTicker()).toList();
+    }
+
+    private static EtfPriceResponse price(String ticker, String price) {
+        return new EtfPriceResponse(ticker, new BigDecimal(price), "EUR", LocalDateTime.now(), "test");
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.config.YahooFinanceProperties;
+import com.example.investmenttracker.dto.YahooFinanceResponse;
+import com.example.investmenttracker.persistence.EtfRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayPriceProviderTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 4);
+
+    @TempDir
+    Path directory;
+
+    private ReplayPriceProvider provider;
+
+    @BeforeEach
+    public void setup() {
+        YahooFinanceProperties properties = new YahooFinanceProperties();
+        properties.setProvider("replay");
+        properties.setReplayDirectory(directory.toString());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        provider = new ReplayPriceProvider(properties, new PriceFetchGuard(properties, registry),
+                new YahooRateLimiter(properties, registry),
+                new TickerSymbolIndex(Mockito.mock(EtfRepository.class)), new ObjectMapper());
+    }
+
+    @Test
+    public void historyIsSlicedToTheHalfOpenPeriod() throws IOException {
+        record("VWCE", DAY, 5);
+
+        YahooFinanceResponse.Result result = provider.fetchHistory("VWCE", startOfDay(DAY.plusDays(1)),
+                startOfDay(DAY.plusDays(3)), "1d", RequestPriority.BULK).getChart().getResult().get(0);
+
+        // Bars close at 16:00, so the one on the end date is left out
+        assertArrayEquals(new long[] { closeOf(DAY.plusDays(1)), closeOf(DAY.plusDays(2)) }, result.getTimestamp());
+        assertArrayEquals(new double[] { 101, 102 }, result.getClose());
+        assertEquals("EUR", result.getMeta().getCurrency());
+    }
+
+    @Test
+    public void rangesSliceFromTheirStartAndMaxKeepsEverything() throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        record("VWCE", today.minusDays(10), 10);
+
+        YahooFinanceResponse.Result week = provider.fetchHistory("VWCE", "5d", "1d", RequestPriority.BULK)
+                .getChart().getResult().get(0);
+        assertEquals(5, week.getTimestamp().length);
+        assertEquals(closeOf(today.minusDays(5)), week.getTimestamp()[0]);
+
+        YahooFinanceResponse.Result all = provider.fetchHistory("VWCE", "max", "1d", RequestPriority.BULK)
+                .getChart().getResult().get(0);
+        assertEquals(10, all.getTimestamp().length);
+        assertEquals(100, all.getClose()[0]);
+    }
+
+    @Test
+    public void pricesComeWithoutSeriesAndFallBackToTheYahooSymbol() throws IOException {
+        record("VWCE.DE", DAY, 3);
+
+        YahooFinanceResponse.Result result = provider.fetchPrice("VWCE", "VWCE.DE", RequestPriority.INTERACTIVE)
+                .getChart().getResult().get(0);
+
+        assertEquals(102.0, result.getMeta().getRegularMarketPrice());
+        assertNull(result.getTimestamp());
+        assertThrows(RuntimeException.class,
+                () -> provider.fetchPrice("EUNL", null, RequestPriority.INTERACTIVE));
+    }
+
+    /**
+     * A recorded chart response with one bar per day from {@code first},
+     * closing at 100, 101, ...
+     */
+    private void record(String name, LocalDate first, int days) throws IOException {
+        StringBuilder timestamps = new StringBuilder();
+        StringBuilder closes = new StringBuilder();
+        for (int i = 0; i < days; i++) {
+            String separator = i == 0 ? "" : ",";
+            timestamps.append(separator).append(closeOf(first.plusDays(i)));
+            closes.append(separator).append(100 + i);
+        }
+        Files.writeString(directory.resolve(name + ".json"),
+                "{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"EUR\",\"symbol\":\"" + name + "\","
+                        + "\"gmtoffset\":0,\"regularMarketPrice\":" + (100 + days - 1) + "},"
+                        + "\"timestamp\":[" + timestamps + "],"
+                        + "\"indicators\":{\"quote\":[{\"close\":[" + closes + "]}]}}],\"error\":null}}");
+    }
+
+    private static long closeOf(LocalDate date) {
+        return date.atTime(16, 0).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static Instant startOfDay(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
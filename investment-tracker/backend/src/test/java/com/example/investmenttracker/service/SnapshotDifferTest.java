@@ -0,0 +1,51 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.SnapshotDiff;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotDifferTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void reportsEntityAndTransactionChanges() throws Exception {
+        JsonNode from = mapper.readTree("""
+                {"etfs": [
+                  {"id": 1, "ticker": "VWCE", "ter": 0.22, "updatedAt": "a", "transactions": [
+                    {"id": 10, "unitsPurchased": 5}, {"id": 11, "unitsPurchased": 2}]},
+                  {"id": 2, "ticker": "EQQQ", "ter": 0.3, "transactions": []}],
+                 "assets": [{"id": 7, "name": "Stocks", "allocationPercentage": 80}]}
+                """);
+        JsonNode to = mapper.readTree("""
+                {"etfs": [
+                  {"id": 3, "ticker": "IWDA", "ter": 0.2, "transactions": []},
+                  {"id": 1, "ticker": "VWCE", "ter": 0.19, "updatedAt": "b", "transactions": [
+                    {"id": 12, "unitsPurchased": 1}, {"id": 10, "unitsPurchased": 6}]}],
+                 "assets": [{"id": 7, "name": "Stocks", "allocationPercentage": 80}]}
+                """);
+
+        SnapshotDiff diff = SnapshotDiffer.diff(1L, from, 2L, to);
+
+        assertEquals(1, diff.getEtfs().getAdded().size());
+        assertEquals("IWDA", diff.getEtfs().getAdded().get(0).get("ticker").asText());
+        assertEquals(1, diff.getEtfs().getRemoved().size());
+        assertEquals("EQQQ", diff.getEtfs().getRemoved().get(0).get("ticker").asText());
+
+        assertEquals(1, diff.getEtfs().getChanged().size());
+        SnapshotDiff.EntityChange vwce = diff.getEtfs().getChanged().get(0);
+        assertEquals("VWCE", vwce.getLabel());
+        assertEquals(1, vwce.getFields().size());
+        assertEquals("ter", vwce.getFields().get(0).getField());
+
+        SnapshotDiff.Section transactions = vwce.getTransactions();
+        assertEquals("12", transactions.getAdded().get(0).get("id").asText());
+        assertEquals("11", transactions.getRemoved().get(0).get("id").asText());
+        assertEquals("10", transactions.getChanged().get(0).getId());
+
+        assertTrue(diff.getAssets().isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.dto.PortfolioSnapshotSummary;
+import com.example.investmenttracker.model.TriggerAction;
+import com.example.investmenttracker.persistence.PortfolioSnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotRetentionServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 15, 12, 0);
+
+    private SnapshotRetentionService retention;
+    private long nextId;
+
+    @BeforeEach
+    public void setup() {
+        retention = new SnapshotRetentionService(Mockito.mock(PortfolioSnapshotRepository.class),
+                Mockito.mock(PortfolioSnapshotService.class), new SimpleMeterRegistry(), true, 7, 30, 365, 10);
+        nextId = 1;
+    }
+
+    @Test
+    public void keepsLatestSnapshotPerPeriod() {
+        List<PortfolioSnapshotSummary> snapshots = new ArrayList<>();
+        // Hourly tier: two in the same hour, one in the next
+        PortfolioSnapshotSummary hourA = add(snapshots, NOW.minusDays(10).withMinute(5));
+        PortfolioSnapshotSummary hourB = add(snapshots, NOW.minusDays(10).withMinute(45));
+        PortfolioSnapshotSummary nextHour = add(snapshots, NOW.minusDays(10).plusHours(1));
+        // Daily tier: three on the same day
+        PortfolioSnapshotSummary dayA = add(snapshots, NOW.minusDays(100).withHour(8));
+        PortfolioSnapshotSummary dayB = add(snapshots, NOW.minusDays(100).withHour(9));
+        PortfolioSnapshotSummary dayC = add(snapshots, NOW.minusDays(100).withHour(20));
+        // Weekly tier: Monday and Friday of the same week (2025-01-06 is a Monday)
+        PortfolioSnapshotSummary monday = add(snapshots, LocalDateTime.of(2025, 1, 6, 10, 0));
+        PortfolioSnapshotSummary friday = add(snapshots, LocalDateTime.of(2025, 1, 10, 10, 0));
+        snapshots.sort((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
+
+        List<Long> expired = retention.selectExpired(snapshots, NOW);
+
+        assertEquals(List.of(monday.getId(), dayA.getId(), dayB.getId(), hourA.getId()), expired);
+        assertFalse(expired.contains(hourB.getId()));
+        assertFalse(expired.contains(nextHour.getId()));
+        assertFalse(expired.contains(dayC.getId()));
+        assertFalse(expired.contains(friday.getId()));
+    }
+
+    @Test
+    public void keepsRecentSnapshotsAndManualExports() {
+        List<PortfolioSnapshotSummary> snapshots = new ArrayList<>();
+        PortfolioSnapshotSummary export = new PortfolioSnapshotSummary(nextId++, "v", NOW.minusDays(50).withHour(9),
+                TriggerAction.MANUAL_EXPORT, null, 100);
+        snapshots.add(export);
+        add(snapshots, NOW.minusDays(50).withHour(10));
+        add(snapshots, NOW.minusDays(1).withMinute(1));
+        add(snapshots, NOW.minusDays(1).withMinute(2));
+
+        assertTrue(retention.selectExpired(snapshots, NOW).isEmpty());
+    }
+
+    private PortfolioSnapshotSummary add(List<PortfolioSnapshotSummary> snapshots, LocalDateTime createdAt) {
+        PortfolioSnapshotSummary summary = new PortfolioSnapshotSummary(nextId++, "v" + nextId, createdAt,
+                TriggerAction.ETF_UPDATED, null, 100);
+        snapshots.add(summary);
+        return summary;
+    }
+}
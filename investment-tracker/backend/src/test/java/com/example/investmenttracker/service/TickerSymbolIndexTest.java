@@ -0,0 +1,74 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.model.Etf;
+import com.example.investmenttracker.model.User;
+import com.example.investmenttracker.persistence.FileEtfRepository;
+import com.example.investmenttracker.storage.InMemoryFileStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickerSymbolIndexTest {
+
+    private Etf first;
+    private Etf second;
+    private TickerSymbolIndex index;
+
+    @BeforeEach
+    public void setup() {
+        InMemoryFileStorage storage = new InMemoryFileStorage();
+        first = etf(1L, user(1L), "VWCE", "VWCE.DE");
+        second = etf(2L, user(2L), "vwce", "VWCE.MI");
+        storage.writeEtfs(List.of(first, second));
+        index = new TickerSymbolIndex(new FileEtfRepository(storage));
+    }
+
+    @Test
+    public void usersSharingATickerKeepTheirOwnOverrides() {
+        assertEquals("VWCE.DE", index.getYahooSymbol("vwce"));
+
+        // Clearing the first user's override leaves the second user's in place
+        first.setYahooFinanceTicker(" ");
+        index.onEtfSaved(first);
+        assertEquals("VWCE.MI", index.getYahooSymbol("VWCE"));
+
+        first.setYahooFinanceTicker("VWCE.DE");
+        index.onEtfSaved(first);
+        index.onEtfDeleted(second);
+        assertEquals("VWCE.DE", index.getYahooSymbol("VWCE"));
+    }
+
+    @Test
+    public void renameOnlyMovesTheRenamedEtf() {
+        index.getYahooSymbol("VWCE");
+
+        second.setTicker("VWRL");
+        second.setYahooFinanceTicker("VWRL.AS");
+        index.onEtfSaved(second);
+
+        assertEquals("VWCE.DE", index.getYahooSymbol("VWCE"));
+        assertEquals("VWRL.AS", index.getYahooSymbol("VWRL"));
+
+        index.onEtfDeleted(first);
+        assertNull(index.getYahooSymbol("VWCE"));
+    }
+
+    private static Etf etf(Long id, User user, String ticker, String yahooSymbol) {
+        Etf etf = new Etf();
+        etf.setId(id);
+        etf.setUser(user);
+        etf.setTicker(ticker);
+        etf.setYahooFinanceTicker(yahooSymbol);
+        return etf;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.investmenttracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserCacheTest {
+
+    private final UserCache<String> cache = new UserCache<>();
+
+    @Test
+    public void valueBuiltBeforeAChangeIsReturnedButNotKept() {
+        long seen = cache.stamp();
+        cache.invalidate("other@example.com");
+
+        assertEquals("stale", cache.put("user@example.com", seen, "stale"));
+        assertNull(cache.get("user@example.com"));
+
+        cache.put("user@example.com", cache.stamp(), "fresh");
+        assertEquals("fresh", cache.get("user@example.com"));
+    }
+
+    @Test
+    public void changesReplaceOrDropValues() {
+        cache.put("a@example.com", cache.stamp(), "VWCE");
+        cache.put("b@example.com", cache.stamp(), "EUNL");
+
+        long seen = cache.stamp();
+        cache.change("a@example.com", value -> value + ",IWDA");
+        cache.change("missing@example.com", value -> "created");
+        assertEquals("VWCE,IWDA", cache.get("a@example.com"));
+        assertEquals(Set.of("a@example.com", "b@example.com"), cache.users());
+
+        cache.changeAll(value -> value.contains("EUNL") ? null : value);
+        assertEquals(Set.of("a@example.com"), cache.users());
+
+        // The stamp predates the changes
+        cache.update("a@example.com", seen, value -> "overwritten");
+        assertEquals("VWCE,IWDA", cache.get("a@example.com"));
+
+        assertEquals(1, cache.clear());
+        assertTrue(cache.users().isEmpty());
+    }
+}
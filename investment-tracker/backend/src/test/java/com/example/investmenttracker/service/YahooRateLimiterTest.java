@@ -0,0 +1,130 @@
+package com.example.investmenttracker.service;
+
+import com.example.investmenttracker.config.YahooFinanceProperties;
+import com.example.investmenttracker.exception.PriceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YahooRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private YahooFinanceProperties properties;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setup() {
+        properties = new YahooFinanceProperties();
+        properties.setRateLimitPerSecond(1000);
+        properties.setRateLimitBurst(2);
+        properties.setRateLimitInteractiveMaxWaitMillis(60_000);
+        properties.setRateLimitBulkMaxWaitMillis(60_000);
+        registry = new SimpleMeterRegistry();
+    }
+
+    private YahooRateLimiter limiter() {
+        return new YahooRateLimiter(properties, registry, clock::get);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(Duration.ofMillis(millis).toNanos());
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < giveUp, thread.getName() + " never started waiting");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void tokensRefillAtTheConfiguredRateUpToTheBurst() {
+        properties.setRateLimitPerSecond(1);
+        properties.setRateLimitBulkMaxWaitMillis(0);
+        YahooRateLimiter limiter = limiter();
+
+        limiter.acquire("VWCE", RequestPriority.BULK);
+        limiter.acquire("VWCE", RequestPriority.BULK);
+        assertThrows(PriceUnavailableException.class, () -> limiter.acquire("VWCE", RequestPriority.BULK));
+
+        advanceMillis(1000);
+        limiter.acquire("VWCE", RequestPriority.BULK);
+        assertThrows(PriceUnavailableException.class, () -> limiter.acquire("VWCE", RequestPriority.BULK));
+
+        // A long pause refills no more than the burst
+        advanceMillis(10_000);
+        limiter.acquire("VWCE", RequestPriority.BULK);
+        limiter.acquire("VWCE", RequestPriority.BULK);
+        assertThrows(PriceUnavailableException.class, () -> limiter.acquire("VWCE", RequestPriority.BULK));
+    }
+
+    @Test
+    public void interactiveCallersTakeTokensBeforeBulkOnes() throws Exception {
+        properties.setRateLimitBurst(1);
+        YahooRateLimiter limiter = limiter();
+        limiter.acquire("VWCE", RequestPriority.BULK);
+
+        CompletableFuture<Void> bulk = new CompletableFuture<>();
+        CompletableFuture<Void> interactive = new CompletableFuture<>();
+        Thread bulkThread = new Thread(() -> run(limiter, RequestPriority.BULK, bulk), "bulk");
+        Thread interactiveThread = new Thread(() -> run(limiter, RequestPriority.INTERACTIVE, interactive),
+                "interactive");
+        bulkThread.start();
+        awaitWaiting(bulkThread);
+        interactiveThread.start();
+        awaitWaiting(interactiveThread);
+
+        // One token: the later interactive caller gets it, the bulk caller keeps waiting
+        advanceMillis(1);
+        interactive.get(5, TimeUnit.SECONDS);
+        assertFalse(bulk.isDone());
+
+        advanceMillis(1);
+        bulk.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void callersGiveUpAtTheirPriorityDeadline() throws Exception {
+        properties.setRateLimitPerSecond(1);
+        properties.setRateLimitBurst(1);
+        properties.setRateLimitInteractiveMaxWaitMillis(100);
+        properties.setRateLimitBulkMaxWaitMillis(0);
+        YahooRateLimiter limiter = limiter();
+        limiter.acquire("VWCE", RequestPriority.INTERACTIVE);
+
+        PriceUnavailableException bulk = assertThrows(PriceUnavailableException.class,
+                () -> limiter.acquire("VWCE", RequestPriority.BULK));
+        assertEquals("price.rate.limited", bulk.getCode());
+
+        CompletableFuture<Void> interactive = new CompletableFuture<>();
+        Thread thread = new Thread(() -> run(limiter, RequestPriority.INTERACTIVE, interactive), "interactive");
+        thread.start();
+        awaitWaiting(thread);
+        // Past the 100ms deadline but well short of the next token
+        advanceMillis(200);
+        Exception failure = assertThrows(Exception.class, () -> interactive.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PriceUnavailableException.class, failure.getCause());
+
+        assertEquals(1.0, registry.get("yahoo.finance.rate.limiter.rejections").tag("priority", "bulk")
+                .counter().count());
+        assertEquals(1.0, registry.get("yahoo.finance.rate.limiter.rejections").tag("priority", "interactive")
+                .counter().count());
+    }
+
+    private static void run(YahooRateLimiter limiter, RequestPriority priority, CompletableFuture<Void> done) {
+        try {
+            limiter.acquire("VWCE", priority);
+            done.complete(null);
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.investmenttracker.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPatchTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private void assertRoundTrip(String source, String target) throws Exception {
+        JsonNode from = mapper.readTree(source);
+        JsonNode to = mapper.readTree(target);
+        ArrayNode patch = JsonPatch.diff(from, to);
+        assertEquals(to, JsonPatch.apply(from, patch));
+        assertEquals(mapper.readTree(source), from, "apply must not modify its input");
+    }
+
+    @Test
+    public void appendedTransactionIsASingleAdd() throws Exception {
+        String source = "{\"etfs\":[{\"ticker\":\"VWCE\",\"transactions\":[{\"units\":1},{\"units\":2}]}]}";
+        String target = "{\"etfs\":[{\"ticker\":\"VWCE\",\"transactions\":[{\"units\":1},{\"units\":2},{\"units\":3}]}]}";
+        ArrayNode patch = JsonPatch.diff(mapper.readTree(source), mapper.readTree(target));
+        assertEquals(1, patch.size());
+        assertEquals("add", patch.get(0).get("op").asText());
+        assertEquals("/etfs/0/transactions/2", patch.get(0).get("path").asText());
+        assertRoundTrip(source, target);
+    }
+
+    @Test
+    public void roundTripsRemovalsReplacementsAndEscapedKeys() throws Exception {
+        assertRoundTrip("{\"a\":[1,2,3,4,5],\"b\":{\"x/y\":1,\"t~\":2},\"c\":true}",
+                "{\"a\":[1,9,5],\"b\":{\"x/y\":3},\"d\":null}");
+        assertRoundTrip("{\"a\":[1,2]}", "{\"a\":[]}");
+        assertRoundTrip("{\"a\":[]}", "{\"a\":[{\"n\":1},{\"n\":2}]}");
+        assertRoundTrip("{\"a\":1}", "[1,2]");
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.investmenttracker.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XIRR and time-weighted return over a monthly savings plan with occasional
+ * sales: {@code flows} cash flows over the years and the final value.
+ *
+ * Run with the GC profiler to confirm nothing is allocated per solve
+ * (gc.alloc.rate.norm):
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ReturnMathBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReturnMathBenchmark {
+
+    @Param({"1000", "5000"})
+    private int flows;
+
+    private int[] days;
+    private double[] amounts;
+    private double[] values;
+    private double[] contributions;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        days = new int[flows + 1];
+        amounts = new double[flows + 1];
+        values = new double[flows + 1];
+        contributions = new double[flows + 1];
+        double value = 0;
+        for (int i = 0; i < flows; i++) {
+            days[i] = i * 7;
+            value *= 1 + random.nextGaussian() * 0.02 + 0.001;
+            double contribution = i % 12 == 11 ? -0.05 * value : 200 + random.nextInt(300);
+            value += contribution;
+            amounts[i] = -contribution;
+            values[i] = value;
+            contributions[i] = contribution;
+        }
+        days[flows] = flows * 7;
+        amounts[flows] = value;
+        values[flows] = value;
+    }
+
+    @Benchmark
+    public double xirr() {
+        return ReturnMath.xirr(days, amounts, flows + 1);
+    }
+
+    @Benchmark
+    public double twr() {
+        return ReturnMath.twr(values, contributions, flows + 1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.investmenttracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReturnMathTest {
+
+    @Test
+    public void xirrOfOneYearGain() {
+        int[] days = {0, 365};
+        double[] amounts = {-1000, 1100};
+
+        assertEquals(0.10, ReturnMath.xirr(days, amounts, 2), 1e-9);
+    }
+
+    @Test
+    public void xirrZeroesNetPresentValueOfUnorderedFlows() {
+        int[] days = {400, 0, 180, 900};
+        double[] amounts = {250, -1000, -500, 1600};
+
+        double rate = ReturnMath.xirr(days, amounts, 4);
+
+        assertTrue(rate > 0);
+        assertEquals(0, ReturnMath.npv(days, amounts, 4, 0, rate), 1e-6);
+    }
+
+    @Test
+    public void xirrFindsRatesFarFromTheGuess() {
+        // Tripling in 30 days is several hundred thousand percent a year; a loss of 90% in a year is -90%
+        double high = ReturnMath.xirr(new int[] {0, 30}, new double[] {-1000, 3000}, 2);
+        double low = ReturnMath.xirr(new int[] {0, 365}, new double[] {-1000, 100}, 2);
+
+        assertEquals(Math.pow(3, 365.0 / 30) - 1, high, 1e-6 * high);
+        assertEquals(-0.9, low, 1e-9);
+    }
+
+    @Test
+    public void xirrIsUndefinedWithoutFlowsBothWays() {
+        assertTrue(Double.isNaN(ReturnMath.xirr(new int[] {0, 100}, new double[] {-1000, -500}, 2)));
+        assertTrue(Double.isNaN(ReturnMath.xirr(new int[] {0}, new double[] {-1000}, 1)));
+    }
+
+    @Test
+    public void xirrOnlyReadsTheFirstNFlows() {
+        int[] days = {0, 365, 730};
+        double[] amounts = {-1000, 1100, Double.NaN};
+
+        assertEquals(0.10, ReturnMath.xirr(days, amounts, 2), 1e-9);
+    }
+
+    @Test
+    public void twrChainsPeriodsAndIgnoresContributions() {
+        // 1000 grows to 1100 (+10%), 500 is added, 1600 falls to 1440 (-10%)
+        double[] values = {1000, 1600, 1440};
+        double[] flows = {1000, 500, 0};
+
+        assertEquals(1.1 * 0.9 - 1, ReturnMath.twr(values, flows, 3), 1e-12);
+    }
+
+    @Test
+    public void twrSkipsPeriodsStartingFromNothing() {
+        // Sold out at 1200 (+20%), bought again later for 500 that grew to 550 (+10%)
+        double[] values = {1000, 0, 500, 550};
+        double[] flows = {1000, -1200, 500, 0};
+
+        assertEquals(1.2 * 1.1 - 1, ReturnMath.twr(values, flows, 4), 1e-12);
+    }
+
+    @Test
+    public void annualizeCompoundsOverTheYear() {
+        assertEquals(0.21, ReturnMath.annualize(0.4641, 730), 1e-4);
+        assertTrue(Double.isNaN(ReturnMath.annualize(0.1, 0)));
+    }
+}
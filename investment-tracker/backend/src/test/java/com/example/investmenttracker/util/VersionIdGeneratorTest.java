@@ -0,0 +1,92 @@
+package com.example.investmenttracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionIdGeneratorTest {
+
+    @Test
+    public void idsStayOrderedWhenTheClockStallsOrGoesBack() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-01-01T14:10:05.123Z").toEpochMilli());
+        VersionIdGenerator generator = new VersionIdGenerator(clock, "NODE01");
+
+        String first = generator.next();
+        assertEquals("20260101141005123-0000NODE01", first);
+        String second = generator.next();
+        clock.millis -= 5_000;
+        String third = generator.next();
+
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(third) < 0);
+        // Ids from the old yyyyMMddHHmmss scheme sort first
+        assertTrue("20260101141005".compareTo(first) < 0);
+    }
+
+    @Test
+    public void counterOverflowMovesToTheNextMillisecond() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli());
+        VersionIdGenerator generator = new VersionIdGenerator(clock, "NODE01");
+        String previous = generator.next();
+        for (int i = 0; i < 70_000; i++) {
+            String id = generator.next();
+            assertTrue(previous.compareTo(id) < 0, previous + " >= " + id);
+            previous = id;
+        }
+        assertTrue(previous.startsWith("20260101000000001-"));
+    }
+
+    @Test
+    public void concurrentIdsAreUnique() throws Exception {
+        VersionIdGenerator generator = new VersionIdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    ids.add(generator.next());
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(40_000, ids.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public java.time.ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
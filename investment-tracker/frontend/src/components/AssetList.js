@@ -10,6 +10,7 @@ function AssetList() {
   const [portfolioVersionsCollapsed, setPortfolioVersionsCollapsed] = useState(false);
   const [portfolioVersions, setPortfolioVersions] = useState([]);
   const [loadingVersions, setLoadingVersions] = useState(false);
+  const [versionsCursor, setVersionsCursor] = useState(null);
   const [versionsSortConfig, setVersionsSortConfig] = useState({ key: 'createdAt', direction: 'desc' });
 
   useEffect(() => {
@@ -28,7 +29,8 @@ function AssetList() {
       if (showLoading) setLoadingVersions(true);
       
       const response = await axiosInstance.get('/portfolio-snapshots');
-      setPortfolioVersions(response.data);
+      setPortfolioVersions(response.data.items);
+      setVersionsCursor(response.data.hasMore ? response.data.nextCursor : null);
     } catch (error) {
       console.error('Error loading portfolio versions:', error);
     } finally {
@@ -36,6 +38,16 @@ function AssetList() {
     }
   };
 
+  const loadMoreVersions = async () => {
+    try {
+      const response = await axiosInstance.get('/portfolio-snapshots', { params: { cursor: versionsCursor } });
+      setPortfolioVersions(prev => [...prev, ...response.data.items]);
+      setVersionsCursor(response.data.hasMore ? response.data.nextCursor : null);
+    } catch (error) {
+      console.error('Error loading portfolio versions:', error);
+    }
+  };
+
   const generateExportIdentifier = () => {
     const now = new Date();
     const dateStr = `${now.getFullYear()}${String(now.getMonth() + 1).padStart(2, '0')}${String(now.getDate()).padStart(2, '0')}${String(now.getHours()).padStart(2, '0')}${String(now.getMinutes()).padStart(2, '0')}${String(now.getSeconds()).padStart(2, '0')}`;
@@ -287,7 +299,9 @@ function AssetList() {
 
   const downloadVersion = async (version) => {
     try {
-      const portfolioData = JSON.parse(version.portfolioJson);
+      // The list only carries metadata; fetch the full snapshot for its payload
+      const response = await axiosInstance.get(`/portfolio-snapshots/${version.id}`);
+      const portfolioData = JSON.parse(response.data.portfolioJson);
       const jsonString = JSON.stringify(portfolioData, null, 2);
       
       const blob = new Blob([jsonString], { type: 'application/json' });
@@ -429,6 +443,11 @@ function AssetList() {
                   </tbody>
                 </table>
               )}
+              {!loadingVersions && versionsCursor && (
+                <button className="download-button-small" onClick={loadMoreVersions}>
+                  {messages.PORTFOLIO.LOAD_MORE_VERSIONS}
+                </button>
+              )}
             </div>
           </div>
         )}
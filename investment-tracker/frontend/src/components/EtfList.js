@@ -21,7 +21,7 @@ function EtfList() {
   const [allTransactionsSortConfig, setAllTransactionsSortConfig] = useState({ key: 'transactionDate', direction: 'asc' });
   const [transactionFilters, setTransactionFilters] = useState({ tickers: [], startDate: '', endDate: '' });
   const [tickerDropdownOpen, setTickerDropdownOpen] = useState(false);
-  const [prices, setPrices] = useState({});
+  const [summary, setSummary] = useState(null);
   const [loadingPrices, setLoadingPrices] = useState(false);
   const [performanceRankingMode, setPerformanceRankingMode] = useState('amount'); // 'amount' or 'percentage'
   const [summarySortConfig, setSummarySortConfig] = useState({ key: null, direction: 'asc' });
@@ -33,7 +33,7 @@ function EtfList() {
 
   useEffect(() => {
     if (etfs.length > 0) {
-      loadPrices();
+      loadSummary();
     }
   }, [etfs]);
 
@@ -53,29 +53,13 @@ function EtfList() {
     }
   };
 
-  const loadPrices = async () => {
+  const loadSummary = async () => {
     try {
       setLoadingPrices(true);
-      const tickers = etfs.filter(etf => etf.transactions && etf.transactions.length > 0)
-                          .map(etf => etf.ticker);
-      
-      if (tickers.length === 0) return;
-      
-      // Fetch prices for all tickers
-      const priceData = {};
-      await Promise.all(tickers.map(async (ticker) => {
-        try {
-          const priceResponse = await etfPriceService.getPrice(ticker);
-          priceData[ticker] = priceResponse;
-        } catch (err) {
-          console.error(`Error loading price for ${ticker}:`, err);
-          priceData[ticker] = null;
-        }
-      }));
-      
-      setPrices(priceData);
+      // Positions, stored prices and totals come from one request
+      setSummary(await etfService.getPortfolioSummary());
     } catch (err) {
-      console.error('Error loading prices:', err);
+      console.error('Error loading portfolio summary:', err);
     } finally {
       setLoadingPrices(false);
     }
@@ -90,15 +74,7 @@ function EtfList() {
       if (tickers.length === 0) return;
       
       const response = await etfPriceService.refreshAllPrices(tickers);
-      
-      // Handle both array response and object response with prices array
-      const refreshedPrices = Array.isArray(response) ? response : response.prices || [];
-      
-      const priceData = {};
-      refreshedPrices.forEach(price => {
-        priceData[price.ticker] = price;
-      });
-      setPrices(priceData);
+      setSummary(await etfService.getPortfolioSummary());
       
       // Show warning if some prices weren't available
       if (response.warning) {
@@ -306,33 +282,20 @@ function EtfList() {
     return marketMap[market] || market;
   };;
 
+  const toNumber = (value) => (value === null || value === undefined ? null : parseFloat(value));
+
   const calculateSummaryData = () => {
-    return etfs.map(etf => {
-      const transactionCount = etf.transactions?.length || 0;
-      const totalInvestment = (etf.transactions || []).reduce((sum, t) => 
-        sum + (parseFloat(t.transactionCost) || 0) + (parseFloat(t.transactionFees) || 0), 0
-      );
-      const totalUnits = (etf.transactions || []).reduce((sum, t) => 
-        sum + (parseFloat(t.unitsPurchased) || 0), 0
-      );
-      
-      const currentPrice = prices[etf.ticker]?.price;
-      const currentValue = currentPrice ? totalUnits * parseFloat(currentPrice) : null;
-      const gain = currentValue !== null ? currentValue - totalInvestment : null;
-      const gainPercentage = gain !== null && totalInvestment > 0 ? (gain / totalInvestment) * 100 : null;
-      
-      return {
-        ticker: etf.ticker,
-        name: etf.name,
-        transactionCount,
-        totalUnits,
-        totalInvestment,
-        currentPrice,
-        currentValue,
-        gain,
-        gainPercentage
-      };
-    }).filter(summary => summary.transactionCount > 0);
+    return (summary?.etfs || []).map(etf => ({
+      ticker: etf.ticker,
+      name: etf.name,
+      transactionCount: etf.transactionCount,
+      totalUnits: toNumber(etf.totalUnits),
+      totalInvestment: toNumber(etf.totalInvestment),
+      currentPrice: toNumber(etf.currentPrice),
+      currentValue: toNumber(etf.currentValue),
+      gain: toNumber(etf.gain),
+      gainPercentage: toNumber(etf.gainPercentage)
+    }));
   };
 
   const getChartColors = (count) => {
@@ -762,10 +725,10 @@ function EtfList() {
 
   const sortedEtfs = getSortedEtfs();
   const summaryData = calculateSummaryData();
-  const totalPortfolioValue = summaryData.reduce((sum, item) => sum + item.totalInvestment, 0);
-  const totalCurrentValue = summaryData.reduce((sum, item) => sum + (item.currentValue || 0), 0);
-  const totalGain = summaryData.reduce((sum, item) => sum + (item.gain || 0), 0);
-  const totalGainPercentage = totalPortfolioValue > 0 ? (totalGain / totalPortfolioValue) * 100 : 0;
+  const totalPortfolioValue = toNumber(summary?.totalInvestment) || 0;
+  const totalCurrentValue = toNumber(summary?.currentValue) || 0;
+  const totalGain = toNumber(summary?.gain) || 0;
+  const totalGainPercentage = toNumber(summary?.gainPercentage) || 0;
   const allTransactions = getSortedAllTransactions();
   const totalTransactionCount = getAllTransactions().length;
   const filteredTransactionCount = allTransactions.length;
@@ -12,11 +12,22 @@ function TaxManager() {
   const [allTransactionsSortConfig, setAllTransactionsSortConfig] = useState({ key: 'transactionDate', direction: 'asc' });
   const [transactionFilters, setTransactionFilters] = useState({ tickers: [], startDate: '', endDate: '' });
   const [tickerDropdownOpen, setTickerDropdownOpen] = useState(false);
+  const [exitTax, setExitTax] = useState(null);
 
   useEffect(() => {
     loadEtfs();
+    loadExitTax();
   }, []);
 
+  const loadExitTax = async () => {
+    try {
+      // Lots, deemed disposals and credits are worked out (and cached) by the backend
+      setExitTax(await etfService.getExitTaxProjection());
+    } catch (err) {
+      console.error('Error loading exit tax projection:', err);
+    }
+  };
+
   const loadEtfs = async () => {
     try {
       setLoading(true);
@@ -385,6 +396,45 @@ function TaxManager() {
         </div>
       )}
 
+      {exitTax && exitTax.years.length > 0 && (
+        <div className="all-transactions-section">
+          <div className="section-header">
+            <div className="section-title-with-toggle">
+              <h3>{messages.TAX.EXIT_TAX_TITLE}</h3>
+              <div className="section-summary-inline">
+                <span>
+                  {messages.TAX.EXIT_TAX_SUMMARY(exitTax.taxRate, formatCurrency(exitTax.taxToDate), formatCurrency(exitTax.projectedTax))}
+                </span>
+              </div>
+            </div>
+          </div>
+          <div className="transactions-table-container">
+            <table className="transactions-table">
+              <thead>
+                <tr>
+                  <th>{messages.TAX.COL_YEAR}</th>
+                  <th>{messages.TAX.COL_DEEMED_TAX}</th>
+                  <th>{messages.TAX.COL_SALE_TAX}</th>
+                  <th>{messages.TAX.COL_CREDIT}</th>
+                  <th>{messages.TAX.COL_TAX_TOTAL}</th>
+                </tr>
+              </thead>
+              <tbody>
+                {exitTax.years.map((year) => (
+                  <tr key={year.year}>
+                    <td>{year.year}{year.projected ? ` ${messages.TAX.PROJECTED}` : ''}</td>
+                    <td>{formatCurrency(year.deemedDisposalTax)}</td>
+                    <td>{formatCurrency(year.saleTax)}</td>
+                    <td>{formatCurrency(year.credit)}</td>
+                    <td className="total-cell">{formatCurrency(year.total)}</td>
+                  </tr>
+                ))}
+              </tbody>
+            </table>
+          </div>
+        </div>
+      )}
+
       {!loading && allTransactions.length === 0 && (
         <div className="empty-state">
           <p>{messages.TAX.NO_TRANSACTIONS}</p>
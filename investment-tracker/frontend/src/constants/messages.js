@@ -301,6 +301,7 @@ const messages = {
     VERSIONS_DESC: (count) => `View and manage historical portfolio snapshots (${count} versions)`,
     LOADING_VERSIONS: 'Loading versions...',
     NO_VERSIONS: 'No portfolio versions found. Versions are created automatically when you make changes.',
+    LOAD_MORE_VERSIONS: 'Load older versions',
     VERSION_ID: 'Version ID',
     CREATED: 'Created',
     TRIGGER: 'Trigger',
@@ -324,6 +325,7 @@ const messages = {
       ASSET_UPDATED: 'Asset Updated',
       ASSET_DELETED: 'Asset Deleted',
       MANUAL_EXPORT: 'Manual Export',
+      MULTIPLE_CHANGES: 'Multiple Changes',
       UNKNOWN: 'Unknown',
     },
   },
@@ -352,6 +354,14 @@ const messages = {
     COL_TOTAL: 'Total',
     COL_DEEMED_DISPOSAL: 'Deemed Disposal',
     ROW_TOTAL: 'TOTAL',
+    EXIT_TAX_TITLE: 'Exit Tax by Year',
+    EXIT_TAX_SUMMARY: (rate, toDate, projected) => `At ${rate}%: ${toDate} due to date, ${projected} projected.`,
+    COL_YEAR: 'Year',
+    COL_DEEMED_TAX: 'Deemed Disposal Tax',
+    COL_SALE_TAX: 'Sale Tax',
+    COL_CREDIT: 'Credit Used',
+    COL_TAX_TOTAL: 'Total Tax',
+    PROJECTED: '(projected)',
   },
 
   // EtfForm extras
@@ -24,6 +24,16 @@ const etfService = {
   deleteEtf: async (id) => {
     await axiosInstance.delete(`/etfs/${id}`);
   },
+
+  getPortfolioSummary: async () => {
+    const response = await axiosInstance.get('/portfolio/summary');
+    return response.data;
+  },
+
+  getExitTaxProjection: async () => {
+    const response = await axiosInstance.get('/portfolio/exit-tax');
+    return response.data;
+  },
 };
 
 export default etfService;